@@ -0,0 +1,20 @@
+-- 勤怠情報（受講生入力）：LMSユーザーID＆日付の一意制約
+-- TStudentAttendanceMapper.upsertList（INSERT ... ON CONFLICT）の前提となるため、適用前に重複行を整理する
+
+-- 同一ユーザー・同一日付の重複行は1行のみ残す
+-- 残す行の優先順：削除されていない行、最終更新日時が新しい行（NULLは最後）、受講生入力勤怠情報IDが小さい行
+DELETE FROM t_student_attendance t1
+USING (
+	SELECT
+		student_attendance_id,
+		row_number() OVER (
+			PARTITION BY lms_user_id, training_date
+			ORDER BY delete_flg ASC, last_modified_date DESC NULLS LAST, student_attendance_id ASC
+		) AS rn
+	FROM t_student_attendance
+) t2
+WHERE t1.student_attendance_id = t2.student_attendance_id
+	AND t2.rn > 1;
+
+CREATE UNIQUE INDEX IF NOT EXISTS t_student_attendance_lms_user_id_training_date_key
+	ON t_student_attendance (lms_user_id, training_date);
@@ -0,0 +1,6 @@
+-- セクションマスタ：コースID＆日付のインデックス
+-- 研修日カレンダーの読込（MSectionMapper.getCourseCalendar）と
+-- 過去日の勤怠未入力件数（TStudentAttendanceMapper.getUnfilledPastCount）で、コース内の日付範囲を索引で絞り込む
+
+CREATE INDEX IF NOT EXISTS m_section_course_id_date_idx
+	ON m_section (course_id, date);
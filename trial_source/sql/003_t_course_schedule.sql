@@ -0,0 +1,19 @@
+-- コース定時設定
+-- コース単位の定時（研修日がNULLの行）と、研修日単位の上書き（研修日を指定した行）を保持する
+-- 遅刻早退判定（AttendanceUtil.getStatus）は 研修日単位 → コース単位 → SSS定時（09:00～18:00）の順に定時を解決する
+
+CREATE TABLE IF NOT EXISTS t_course_schedule (
+	course_schedule_id SERIAL PRIMARY KEY,
+	course_id INTEGER NOT NULL,
+	training_date DATE,
+	work_start_time VARCHAR(5) NOT NULL,
+	work_end_time VARCHAR(5) NOT NULL,
+	delete_flg SMALLINT NOT NULL DEFAULT 0,
+	first_create_user INTEGER,
+	first_create_date TIMESTAMP,
+	last_modified_user INTEGER,
+	last_modified_date TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS t_course_schedule_course_id_idx
+	ON t_course_schedule (course_id, training_date);
@@ -0,0 +1,48 @@
+-- 勤怠情報（受講生入力）・コース定時設定：時刻の分換算列（0時からの経過分）
+-- 文字列の時刻（"HH:mm"、"HHmm"、空文字）から生成列として算出し、遅刻早退・勤務時間の集計をSQLで行えるようにする
+-- 移行手順：
+--   1. 本スクリプトで分換算列を生成列として追加する（既存の登録・更新処理は変更不要）
+--   2. 登録・更新処理を分換算列（TrainingTimeTypeHandler）へ切り替えた後、
+--      分換算列を通常列に、文字列の列を分換算列からの生成列に入れ替える
+
+ALTER TABLE t_student_attendance
+	ADD COLUMN IF NOT EXISTS training_start_minute INTEGER GENERATED ALWAYS AS (
+		CASE
+			WHEN training_start_time ~ '^[0-9]{1,2}:[0-9]{1,2}$'
+				THEN split_part(training_start_time, ':', 1)::integer * 60 + split_part(training_start_time, ':', 2)::integer
+			WHEN training_start_time ~ '^[0-9]{4}$'
+				THEN substr(training_start_time, 1, 2)::integer * 60 + substr(training_start_time, 3, 2)::integer
+		END
+	) STORED,
+	ADD COLUMN IF NOT EXISTS training_end_minute INTEGER GENERATED ALWAYS AS (
+		CASE
+			WHEN training_end_time ~ '^[0-9]{1,2}:[0-9]{1,2}$'
+				THEN split_part(training_end_time, ':', 1)::integer * 60 + split_part(training_end_time, ':', 2)::integer
+			WHEN training_end_time ~ '^[0-9]{4}$'
+				THEN substr(training_end_time, 1, 2)::integer * 60 + substr(training_end_time, 3, 2)::integer
+		END
+	) STORED;
+
+ALTER TABLE t_course_schedule
+	ADD COLUMN IF NOT EXISTS work_start_minute INTEGER GENERATED ALWAYS AS (
+		CASE
+			WHEN work_start_time ~ '^[0-9]{1,2}:[0-9]{1,2}$'
+				THEN split_part(work_start_time, ':', 1)::integer * 60 + split_part(work_start_time, ':', 2)::integer
+			WHEN work_start_time ~ '^[0-9]{4}$'
+				THEN substr(work_start_time, 1, 2)::integer * 60 + substr(work_start_time, 3, 2)::integer
+		END
+	) STORED,
+	ADD COLUMN IF NOT EXISTS work_end_minute INTEGER GENERATED ALWAYS AS (
+		CASE
+			WHEN work_end_time ~ '^[0-9]{1,2}:[0-9]{1,2}$'
+				THEN split_part(work_end_time, ':', 1)::integer * 60 + split_part(work_end_time, ':', 2)::integer
+			WHEN work_end_time ~ '^[0-9]{4}$'
+				THEN substr(work_end_time, 1, 2)::integer * 60 + substr(work_end_time, 3, 2)::integer
+		END
+	) STORED;
+
+-- コース単位の遅刻早退集計（TStudentAttendanceMapper.getAttendanceLateness）をインデックスのみで行う
+CREATE INDEX IF NOT EXISTS t_student_attendance_lms_user_id_minute_idx
+	ON t_student_attendance (lms_user_id, training_date)
+	INCLUDE (training_start_minute, training_end_minute, blank_time, status)
+	WHERE delete_flg = 0;
@@ -0,0 +1,12 @@
+-- 日報提出の子テーブル：日報提出IDのインデックス
+-- レポート取得（TDailyReportSubmitMapper.getDailyReportDto / getDailyReportDownloadDto）では
+-- 日報詳細・理解度・フィードバックを日報提出ID毎の別SELECTで取得するため、それぞれ索引で絞り込む
+
+CREATE INDEX IF NOT EXISTS t_daily_report_submit_detail_submit_id_idx
+	ON t_daily_report_submit_detail (daily_report_submit_id, field_num);
+
+CREATE INDEX IF NOT EXISTS t_intelligibility_submit_id_idx
+	ON t_intelligibility (daily_report_submit_id, field_num);
+
+CREATE INDEX IF NOT EXISTS t_daily_report_fb_submit_id_idx
+	ON t_daily_report_fb (daily_report_submit_id, daily_report_fb_id);
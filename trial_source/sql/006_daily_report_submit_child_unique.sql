@@ -0,0 +1,26 @@
+-- 日報提出詳細・理解度：日報提出ID＆項目番号の一意制約
+-- TDailyReportSubmitDetailMapper.upsertList / TIntelligibilityMapper.upsertList（INSERT ... ON CONFLICT）の前提となるため、
+-- 適用前に重複行を整理する。005で作成した同じ列のインデックスは一意インデックスに置き換える
+
+-- 同一日報提出・同一項目番号の重複行は、IDが最大（最後に登録された）の行のみ残す
+DELETE FROM t_daily_report_submit_detail t1
+USING t_daily_report_submit_detail t2
+WHERE t1.daily_report_submit_id = t2.daily_report_submit_id
+	AND t1.field_num = t2.field_num
+	AND t1.daily_report_submit_detail_id < t2.daily_report_submit_detail_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS t_daily_report_submit_detail_submit_id_field_num_key
+	ON t_daily_report_submit_detail (daily_report_submit_id, field_num);
+
+DROP INDEX IF EXISTS t_daily_report_submit_detail_submit_id_idx;
+
+DELETE FROM t_intelligibility t1
+USING t_intelligibility t2
+WHERE t1.daily_report_submit_id = t2.daily_report_submit_id
+	AND t1.field_num = t2.field_num
+	AND t1.intelligibility_id < t2.intelligibility_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS t_intelligibility_submit_id_field_num_key
+	ON t_intelligibility (daily_report_submit_id, field_num);
+
+DROP INDEX IF EXISTS t_intelligibility_submit_id_idx;
@@ -0,0 +1,20 @@
+-- レポート下書き
+-- レポート登録画面の入力内容を自動保存する（DailyReportDraftService）。受講生・日報・日付毎に最新の1行のみ保持し、
+-- 提出時に削除する。入力内容（報告内容・学習項目・理解度）はJSONで保持する
+
+CREATE TABLE IF NOT EXISTS t_daily_report_draft (
+	daily_report_draft_id SERIAL PRIMARY KEY,
+	lms_user_id INTEGER NOT NULL,
+	daily_report_id INTEGER NOT NULL,
+	date DATE NOT NULL,
+	draft TEXT NOT NULL,
+	account_id INTEGER,
+	delete_flg SMALLINT NOT NULL DEFAULT 0,
+	first_create_user INTEGER,
+	first_create_date TIMESTAMP,
+	last_modified_user INTEGER,
+	last_modified_date TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS t_daily_report_draft_lms_user_id_daily_report_id_date_key
+	ON t_daily_report_draft (lms_user_id, daily_report_id, date);
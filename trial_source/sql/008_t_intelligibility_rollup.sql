@@ -0,0 +1,49 @@
+-- 理解度集計
+-- コース・セクション・日付・学習項目・理解度毎の件数を保持する。レポート提出時に増減分のみ反映する
+-- （TIntelligibilityRollupMapper.applyDelta：再提出時は提出前の内容を-1、提出後の内容を+1）
+-- セクションIDはコースの同日のセクション（無い場合は0）
+-- 提出者が複数のコースに所属する場合も日報提出毎に1コースのみ数える
+-- （提出日にセクションの有るコースを優先し、同順位はコースIDの小さいコース）
+
+CREATE TABLE IF NOT EXISTS t_intelligibility_rollup (
+	intelligibility_rollup_id SERIAL PRIMARY KEY,
+	course_id INTEGER NOT NULL,
+	section_id INTEGER NOT NULL DEFAULT 0,
+	date DATE NOT NULL,
+	field_name VARCHAR(100) NOT NULL,
+	field_value SMALLINT NOT NULL,
+	count INTEGER NOT NULL DEFAULT 0,
+	last_modified_date TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS t_intelligibility_rollup_key
+	ON t_intelligibility_rollup (course_id, section_id, date, field_name, field_value);
+
+-- 既存の理解度から初期値を作成する
+INSERT INTO t_intelligibility_rollup (course_id, section_id, date, field_name, field_value, count, last_modified_date)
+SELECT
+	t3.course_id,
+	COALESCE((SELECT MIN(t4.section_id) FROM m_section t4
+		WHERE t4.course_id = t3.course_id AND CAST(t4.date AS DATE) = CAST(t2.date AS DATE) AND t4.delete_flg = 0), 0),
+	CAST(t2.date AS DATE),
+	TRIM(t1.field_name),
+	t1.field_value,
+	COUNT(*),
+	CURRENT_TIMESTAMP
+FROM t_intelligibility t1
+	INNER JOIN t_daily_report_submit t2 ON t2.daily_report_submit_id = t1.daily_report_submit_id AND t2.delete_flg = 0
+	INNER JOIN LATERAL (
+		SELECT t5.course_id
+		FROM t_course_user t5
+		WHERE t5.lms_user_id = t2.lms_user_id
+			AND t5.delete_flg = 0
+		ORDER BY EXISTS (SELECT 1 FROM m_section t6
+				WHERE t6.course_id = t5.course_id AND CAST(t6.date AS DATE) = CAST(t2.date AS DATE) AND t6.delete_flg = 0) DESC,
+			t5.course_id ASC
+		LIMIT 1
+	) t3 ON TRUE
+WHERE t1.delete_flg = 0
+	AND t1.field_value IS NOT NULL
+	AND TRIM(t1.field_name) <> ''
+GROUP BY 1, 2, 3, 4, 5
+ON CONFLICT (course_id, section_id, date, field_name, field_value) DO NOTHING;
@@ -0,0 +1,7 @@
+-- 日報提出：LMSユーザーID＆日付＆日報提出IDのインデックス
+-- コースのレポート一覧（TDailyReportSubmitMapper.getCourseDailyReportList）では受講生毎に
+-- (日付, 日報提出ID)の降順で索引を辿り、前ページの最終行より前の行をページ件数分のみ読む（キーセットページング）
+-- 未提出の判定（TDailyReportSubmitMapper.getCourseUnsubmittedList）の存在確認にも使用する
+
+CREATE INDEX IF NOT EXISTS t_daily_report_submit_user_date_idx
+	ON t_daily_report_submit (lms_user_id, date, daily_report_submit_id);
@@ -0,0 +1,18 @@
+-- 試験結果：評点対象（評点フラグ＝1）の試験結果はユーザー・試験毎に1件の一意制約
+-- TExamResultMapper.insertWithMarkFlg（INSERT ... SELECT ... ON CONFLICT）の前提となるため、適用前に重複を整理する
+
+-- 同一ユーザー・同一試験で評点対象が重複している場合は、試験結果IDが最小（最初の受験）の行のみ評点対象とする
+UPDATE t_exam_result t1
+SET mark_flg = 0
+FROM t_exam_result t2
+WHERE t1.exam_section_id = t2.exam_section_id
+	AND t1.lms_user_id = t2.lms_user_id
+	AND t1.mark_flg = 1
+	AND t2.mark_flg = 1
+	AND t1.delete_flg = 0
+	AND t2.delete_flg = 0
+	AND t1.exam_result_id > t2.exam_result_id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS t_exam_result_exam_section_id_lms_user_id_mark_key
+	ON t_exam_result (exam_section_id, lms_user_id)
+	WHERE mark_flg = 1 AND delete_flg = 0;
@@ -0,0 +1,53 @@
+-- 試験統計
+-- 試験・セクション紐付け毎の受験回数・評点対象（評点フラグ＝1）の件数・得点合計・問題数と、評点対象の得点毎の件数を保持する。
+-- 試験結果登録時に加算する（TExamSectionStatMapper.applyResult）。試験結果はこのアプリケーションからは削除されない
+-- 問題数は試験結果登録時に試験問題テーブルの件数で更新する（受験中のスナップショットの問題数は使わない）
+-- 試験結果・平均点の画面の問題数は、問題の追加・削除を即時に反映するため試験問題テーブルから都度数える（TExamResultMapper）
+
+CREATE TABLE IF NOT EXISTS t_exam_section_stat (
+	exam_section_id INTEGER PRIMARY KEY,
+	attempt_count INTEGER NOT NULL DEFAULT 0,
+	mark_count INTEGER NOT NULL DEFAULT 0,
+	mark_score_sum BIGINT NOT NULL DEFAULT 0,
+	question_count INTEGER,
+	last_modified_date TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS t_exam_section_score (
+	exam_section_id INTEGER NOT NULL,
+	score SMALLINT NOT NULL,
+	count INTEGER NOT NULL DEFAULT 0,
+	PRIMARY KEY (exam_section_id, score)
+);
+
+-- 試験毎の問題数の集計用
+CREATE INDEX IF NOT EXISTS m_question_exam_id_idx
+	ON m_question (exam_id, delete_flg);
+
+-- 既存の試験・セクション紐付けと試験結果から初期値を作成する
+INSERT INTO t_exam_section_stat (exam_section_id, attempt_count, mark_count, mark_score_sum, question_count, last_modified_date)
+SELECT
+	t1.exam_section_id,
+	(SELECT COUNT(*) FROM t_exam_result t2
+		WHERE t2.exam_section_id = t1.exam_section_id AND t2.delete_flg = 0),
+	(SELECT COUNT(*) FROM t_exam_result t2
+		WHERE t2.exam_section_id = t1.exam_section_id AND t2.mark_flg = 1 AND t2.delete_flg = 0),
+	(SELECT COALESCE(SUM(t2.score), 0) FROM t_exam_result t2
+		WHERE t2.exam_section_id = t1.exam_section_id AND t2.mark_flg = 1 AND t2.delete_flg = 0),
+	(SELECT COUNT(*) FROM m_question t3
+		WHERE t3.exam_id = t1.exam_id AND t3.delete_flg = 0),
+	CURRENT_TIMESTAMP
+FROM t_exam_section t1
+WHERE t1.delete_flg = 0
+ON CONFLICT (exam_section_id) DO NOTHING;
+
+INSERT INTO t_exam_section_score (exam_section_id, score, count)
+SELECT
+	exam_section_id,
+	score,
+	COUNT(*)
+FROM t_exam_result
+WHERE mark_flg = 1
+	AND delete_flg = 0
+GROUP BY 1, 2
+ON CONFLICT (exam_section_id, score) DO NOTHING;
@@ -0,0 +1,23 @@
+-- 試験問題分析
+-- 試験の問題毎に、評点対象（評点フラグ＝1）の試験結果から求めた正答率・識別力（項目－残余の点双列相関）・選択肢毎の回答数を保持する。
+-- 試験問題分析（ExamItemAnalysisService）の実行時に試験単位で置き換える
+
+CREATE TABLE IF NOT EXISTS t_exam_item_analysis (
+	exam_id INTEGER NOT NULL,
+	question_id INTEGER NOT NULL,
+	attempt_count INTEGER NOT NULL DEFAULT 0,
+	correct_count INTEGER NOT NULL DEFAULT 0,
+	difficulty DOUBLE PRECISION,
+	discrimination DOUBLE PRECISION,
+	no_answer_count INTEGER NOT NULL DEFAULT 0,
+	choice_1_count INTEGER NOT NULL DEFAULT 0,
+	choice_2_count INTEGER NOT NULL DEFAULT 0,
+	choice_3_count INTEGER NOT NULL DEFAULT 0,
+	choice_4_count INTEGER NOT NULL DEFAULT 0,
+	last_modified_date TIMESTAMP,
+	PRIMARY KEY (exam_id, question_id)
+);
+
+-- 試験結果詳細を試験結果毎に読み込むためのインデックス
+CREATE INDEX IF NOT EXISTS t_exam_result_detail_exam_result_id_idx
+	ON t_exam_result_detail (exam_result_id);
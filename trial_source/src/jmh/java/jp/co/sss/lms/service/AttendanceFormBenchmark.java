@@ -0,0 +1,206 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.form.AttendanceForm;
+import jp.co.sss.lms.form.DailyAttendanceForm;
+import jp.co.sss.lms.util.AttendanceUtil;
+import jp.co.sss.lms.util.DateUtil;
+
+/**
+ * 勤怠情報変更画面のフォーム作成ベンチマーク
+ *
+ * <p>
+ * 120日間のコースについて、画面表示のたびに行う勤怠フォームの作成（プルダウンの選択肢と日次の時・分分割）を計測し、
+ * 従来の実装（表示のたびに選択肢を作り直し、1時刻につき2回分割）と比較する。
+ * 割当量は gc プロファイラ（gc.alloc.rate.norm）で確認する。
+ * 実行：mvn -Pbenchmark test-compile exec:exec -Dexec.args="AttendanceFormBenchmark -prof gc"
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttendanceFormBenchmark {
+
+	/** コース日数 */
+	private static final int TRAINING_DAYS = 120;
+
+	private StudentAttendanceService studentAttendanceService;
+	private AttendanceUtil attendanceUtil;
+	/** 勤怠管理画面用DTOリスト（120日分） */
+	private List<AttendanceManagementDto> attendanceManagementDtoList;
+
+	@Setup
+	public void setup() {
+		DateUtil dateUtil = new DateUtil();
+		attendanceUtil = new AttendanceUtil();
+		ReflectionTestUtils.setField(attendanceUtil, "dateUtil", dateUtil);
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(1);
+		loginUserDto.setUserName("受講生");
+		studentAttendanceService = new StudentAttendanceService();
+		ReflectionTestUtils.setField(studentAttendanceService, "dateUtil", dateUtil);
+		ReflectionTestUtils.setField(studentAttendanceService, "attendanceUtil", attendanceUtil);
+		ReflectionTestUtils.setField(studentAttendanceService, "loginUserDto", loginUserDto);
+
+		attendanceManagementDtoList = new ArrayList<>();
+		long day = TimeUnit.DAYS.toMillis(1);
+		for (int i = 0; i < TRAINING_DAYS; i++) {
+			AttendanceManagementDto dto = new AttendanceManagementDto();
+			dto.setStudentAttendanceId(i + 1);
+			dto.setTrainingDate(new Date(i * day));
+			// 1割は未入力
+			if (i % 10 != 0) {
+				dto.setTrainingStartTime(String.format("%02d:%02d", 9, i % 60));
+				dto.setTrainingEndTime(String.format("%02d:%02d", 18, (i * 7) % 60));
+				dto.setBlankTime(i % 4 == 0 ? 60 : null);
+			} else {
+				dto.setTrainingStartTime("");
+				dto.setTrainingEndTime("");
+			}
+			dto.setStatus((short) 0);
+			dto.setStatusDispName("");
+			dto.setSectionName("セクション" + i);
+			dto.setIsToday(false);
+			attendanceManagementDtoList.add(dto);
+		}
+	}
+
+	@Benchmark
+	public AttendanceForm setAttendanceForm() {
+		return studentAttendanceService.setAttendanceForm(attendanceManagementDtoList);
+	}
+
+	@Benchmark
+	public void options(Blackhole bh) {
+		bh.consume(attendanceUtil.setBlankTime());
+		bh.consume(attendanceUtil.setWorkHour());
+		bh.consume(attendanceUtil.setWorkMinute());
+	}
+
+	@Benchmark
+	public void optionsLegacy(Blackhole bh) {
+		bh.consume(LegacyAttendanceOptions.setBlankTime());
+		bh.consume(LegacyAttendanceOptions.setWorkHour());
+		bh.consume(LegacyAttendanceOptions.setWorkMinute());
+	}
+
+	@Benchmark
+	public void split(Blackhole bh) {
+		for (AttendanceManagementDto dto : attendanceManagementDtoList) {
+			DailyAttendanceForm dailyAttendanceForm = new DailyAttendanceForm();
+			dailyAttendanceForm.setTrainingStartTime(dto.getTrainingStartTime());
+			dailyAttendanceForm.setTrainingEndTime(dto.getTrainingEndTime());
+			dailyAttendanceForm.splitTrainingStartTime();
+			dailyAttendanceForm.splitTrainingEndTime();
+			bh.consume(dailyAttendanceForm);
+		}
+	}
+
+	@Benchmark
+	public void splitLegacy(Blackhole bh) {
+		for (AttendanceManagementDto dto : attendanceManagementDtoList) {
+			DailyAttendanceForm dailyAttendanceForm = new DailyAttendanceForm();
+			dailyAttendanceForm.setTrainingStartTime(dto.getTrainingStartTime());
+			dailyAttendanceForm.setTrainingEndTime(dto.getTrainingEndTime());
+			dailyAttendanceForm.setTrainingStartTimeHour(
+					LegacyAttendanceOptions.extractHour(dto.getTrainingStartTime()));
+			dailyAttendanceForm.setTrainingStartTimeMinute(
+					LegacyAttendanceOptions.extractMinute(dto.getTrainingStartTime()));
+			dailyAttendanceForm.setTrainingEndTimeHour(
+					LegacyAttendanceOptions.extractHour(dto.getTrainingEndTime()));
+			dailyAttendanceForm.setTrainingEndTimeMinute(
+					LegacyAttendanceOptions.extractMinute(dto.getTrainingEndTime()));
+			bh.consume(dailyAttendanceForm);
+		}
+	}
+
+	/**
+	 * 比較用の従来のプルダウン作成・時刻分割
+	 */
+	public static class LegacyAttendanceOptions {
+
+		static LinkedHashMap<Integer, String> setBlankTime() {
+			LinkedHashMap<Integer, String> map = new LinkedHashMap<>();
+			map.put(null, "");
+			for (int i = 15; i < 480; i += 15) {
+				int hour = i / 60;
+				int minute = i % 60;
+				String time;
+				if (hour == 0) {
+					time = minute + "分";
+				} else if (minute == 0) {
+					time = hour + "時間";
+				} else {
+					time = hour + "時" + minute + "分";
+				}
+				map.put(i, time);
+			}
+			return map;
+		}
+
+		static List<String> setWorkHour() {
+			List<String> hourList = new ArrayList<>();
+			hourList.add("");
+			for (int hour = 0; hour < 24; hour++) {
+				hourList.add(String.format("%02d", hour));
+			}
+			return hourList;
+		}
+
+		static List<String> setWorkMinute() {
+			List<String> minuteList = new ArrayList<>();
+			minuteList.add("");
+			for (int minute = 0; minute < 60; minute++) {
+				minuteList.add(String.format("%02d", minute));
+			}
+			return minuteList;
+		}
+
+		static String extractHour(String timeString) {
+			if (timeString != null && !timeString.trim().isEmpty()) {
+				String[] parts = timeString.split(":");
+				if (parts.length >= 2) {
+					return parts[0].trim();
+				}
+			}
+			return "";
+		}
+
+		static String extractMinute(String timeString) {
+			if (timeString != null && !timeString.trim().isEmpty()) {
+				String[] parts = timeString.split(":");
+				if (parts.length >= 2) {
+					return parts[1].trim();
+				}
+			}
+			return "";
+		}
+
+	}
+
+}
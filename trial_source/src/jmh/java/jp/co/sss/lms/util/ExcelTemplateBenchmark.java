@@ -0,0 +1,64 @@
+package jp.co.sss.lms.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Excelテンプレートのキャッシュのベンチマーク
+ *
+ * <p>
+ * ダウンロード1件あたりのテンプレートを開く処理について、クラスパスから毎回読み込む従来の実装と、
+ * キャッシュしたバイト列から開く実装を比較する。
+ * 割当量は gc プロファイラ（gc.alloc.rate.norm）で確認する。
+ * 実行：mvn -Pbenchmark test-compile exec:exec -Dexec.args="ExcelTemplateBenchmark -prof gc"
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelTemplateBenchmark {
+
+	/** テンプレート（日報・月次面談シート） */
+	@Param({ "static/template/日報_テンプレート.xlsx", "static/template/月次面談シート.xlsx" })
+	private String filePath;
+
+	/** キャッシュしたテンプレート */
+	private byte[] template;
+
+	@Setup
+	public void setup() throws IOException {
+		try (InputStream in = new ClassPathResource(filePath).getInputStream()) {
+			template = in.readAllBytes();
+		}
+	}
+
+	@Benchmark
+	public ExcelUtil classpath() {
+		return new ExcelUtil(filePath);
+	}
+
+	@Benchmark
+	public ExcelUtil cached() {
+		return new ExcelUtil(template);
+	}
+
+}
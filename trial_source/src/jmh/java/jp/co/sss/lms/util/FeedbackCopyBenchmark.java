@@ -0,0 +1,61 @@
+package jp.co.sss.lms.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * フィードバックコメントの行コピーのベンチマーク
+ *
+ * <p>
+ * 日報テンプレートの「フィードバックコメント」シートで、フィードバック件数分の行をコピーする処理を計測する。
+ * 従来のsheetCopyの繰り返しは、コピー済みの結合範囲も毎回コピーするため件数が増えると終了しない。
+ * 実行：mvn -Pbenchmark test-compile exec:exec -Dexec.args="FeedbackCopyBenchmark"
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedbackCopyBenchmark {
+
+	/** フィードバック件数 */
+	@Param({ "2", "50" })
+	private int fbCount;
+
+	/** テンプレート */
+	private byte[] template;
+
+	@Setup
+	public void setup() throws IOException {
+		try (InputStream in = new ClassPathResource("static/template/日報_テンプレート.xlsx")
+				.getInputStream()) {
+			template = in.readAllBytes();
+		}
+	}
+
+	@Benchmark
+	public ExcelUtil copyRows() {
+		ExcelUtil excelUtil = new ExcelUtil(template);
+		excelUtil.copyRows("フィードバックコメント", 6, 8, fbCount - 1);
+		return excelUtil;
+	}
+
+}
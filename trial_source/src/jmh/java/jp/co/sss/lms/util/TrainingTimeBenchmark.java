@@ -0,0 +1,161 @@
+package jp.co.sss.lms.util;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 研修時刻ユーティリティのベンチマーク
+ *
+ * <p>
+ * 解析・比較・整形のスループットを、従来の実装（Integer保持、正規表現とsplitによる解析、String.formatによる整形）と比較する。
+ * 実行：mvn -Pbenchmark test-compile exec:exec
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingTimeBenchmark {
+
+	/** 勤怠画面1か月分相当の入力時刻 */
+	private String[] timeStrs;
+	/** 解析済みの研修時刻 */
+	private TrainingTime[] trainingTimes;
+	/** 解析済みの研修時刻（従来の実装） */
+	private LegacyTrainingTime[] legacyTrainingTimes;
+	/** 定時開始（従来の実装） */
+	private LegacyTrainingTime legacyWorkStartTime;
+
+	@Setup
+	public void setup() {
+		timeStrs = new String[64];
+		trainingTimes = new TrainingTime[timeStrs.length];
+		legacyTrainingTimes = new LegacyTrainingTime[timeStrs.length];
+		legacyWorkStartTime = new LegacyTrainingTime("09:00");
+		for (int i = 0; i < timeStrs.length; i++) {
+			int minutes = 8 * 60 + i * 17 % 720;
+			timeStrs[i] = (i % 4 == 0) ? String.format("%02d%02d", minutes / 60, minutes % 60)
+					: String.format("%d:%02d", minutes / 60, minutes % 60);
+			trainingTimes[i] = TrainingTime.parse(timeStrs[i]);
+			legacyTrainingTimes[i] = new LegacyTrainingTime(timeStrs[i]);
+		}
+	}
+
+	@Benchmark
+	public void parse(Blackhole bh) {
+		for (String timeStr : timeStrs) {
+			bh.consume(TrainingTime.parse(timeStr));
+		}
+	}
+
+	@Benchmark
+	public void parseLegacy(Blackhole bh) {
+		for (String timeStr : timeStrs) {
+			bh.consume(new LegacyTrainingTime(timeStr));
+		}
+	}
+
+	@Benchmark
+	public void compare(Blackhole bh) {
+		for (TrainingTime trainingTime : trainingTimes) {
+			bh.consume(trainingTime.compareTo(Constants.SSS_WORK_START_TIME));
+		}
+	}
+
+	@Benchmark
+	public void compareLegacy(Blackhole bh) {
+		for (LegacyTrainingTime trainingTime : legacyTrainingTimes) {
+			bh.consume(trainingTime.compareTo(legacyWorkStartTime));
+		}
+	}
+
+	@Benchmark
+	public void format(Blackhole bh) {
+		for (TrainingTime trainingTime : trainingTimes) {
+			bh.consume(trainingTime.getFormattedString());
+		}
+	}
+
+	@Benchmark
+	public void formatLegacy(Blackhole bh) {
+		for (LegacyTrainingTime trainingTime : legacyTrainingTimes) {
+			bh.consume(trainingTime.getFormattedString());
+		}
+	}
+
+	@Benchmark
+	public TrainingTime now() {
+		return TrainingTime.now();
+	}
+
+	@Benchmark
+	public LegacyTrainingTime nowLegacy() {
+		return new LegacyTrainingTime();
+	}
+
+	/**
+	 * 比較用の従来の研修時刻実装
+	 */
+	public static class LegacyTrainingTime {
+
+		private Integer hour;
+		private Integer minute;
+
+		LegacyTrainingTime() {
+			SimpleDateFormat sdf = new SimpleDateFormat("HH:mm");
+			setTimeStr(sdf.format(new Date()));
+		}
+
+		LegacyTrainingTime(String timeStr) {
+			setTimeStr(timeStr);
+		}
+
+		private void setTimeStr(String timeStr) {
+			final String numRegex = "[0-9]+";
+			if (timeStr.indexOf(":") >= 0) {
+				String[] times = timeStr.split(":");
+				if (times.length != 2 || !times[0].matches(numRegex)
+						|| !times[1].matches(numRegex)) {
+					throw new IllegalArgumentException(timeStr + " is Illegal.");
+				}
+				hour = Integer.parseInt(times[0]);
+				minute = Integer.parseInt(times[1]);
+			} else if (timeStr.matches("[0-9]{4}")) {
+				hour = Integer.parseInt(timeStr.substring(0, 2));
+				minute = Integer.parseInt(timeStr.substring(2, 4));
+			} else {
+				throw new IllegalArgumentException(timeStr + " is Illegal.");
+			}
+		}
+
+		int compareTo(LegacyTrainingTime another) {
+			if (this.hour != another.hour) {
+				return this.hour.compareTo(another.hour);
+			}
+			return this.minute.compareTo(another.minute);
+		}
+
+		String getFormattedString() {
+			return String.format("%1$02d:%2$02d", hour, minute);
+		}
+
+	}
+
+}
@@ -1,5 +1,6 @@
 package jp.co.sss.lms.controller;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
@@ -10,14 +11,23 @@ import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.AttendanceRecomputeProgressDto;
 import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.form.AttendanceBulkRegistForm;
 import jp.co.sss.lms.form.AttendanceForm;
 import jp.co.sss.lms.form.DailyAttendanceForm;
 import jp.co.sss.lms.service.StudentAttendanceService;
 import jp.co.sss.lms.util.AttendanceUtil;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import net.arnx.jsonic.JSON;
 
 /**
  * 勤怠管理コントローラ
@@ -34,6 +44,10 @@ public class AttendanceController {
 	private LoginUserDto loginUserDto;
 	@Autowired
 	private AttendanceUtil attendanceUtil;
+	@Autowired
+	private LoginUserUtil loginUserUtil;
+	@Autowired
+	private MessageUtil messageUtil;
 
 	/**
 	 * 勤怠管理画面 初期表示
@@ -74,13 +88,17 @@ public class AttendanceController {
 	public String punchIn(Model model) {
 
 		// 更新前のチェック
-		String error = studentAttendanceService.punchCheck(Constants.CODE_VAL_ATWORK);
-		model.addAttribute("error", error);
+		String error = studentAttendanceService.punchCheck();
 		// 勤怠登録
 		if (error == null) {
-			String message = studentAttendanceService.setPunchIn();
-			model.addAttribute("message", message);
+			if (studentAttendanceService.setPunchIn() == null) {
+				error = studentAttendanceService.getPunchError(Constants.CODE_VAL_ATWORK);
+			} else {
+				model.addAttribute("message",
+						messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE));
+			}
 		}
+		model.addAttribute("error", error);
 		// 一覧の再取得
 		List<AttendanceManagementDto> attendanceManagementDtoList = studentAttendanceService
 				.getAttendanceManagement(loginUserDto.getCourseId(), loginUserDto.getLmsUserId());
@@ -99,13 +117,17 @@ public class AttendanceController {
 	public String punchOut(Model model) {
 
 		// 更新前のチェック
-		String error = studentAttendanceService.punchCheck(Constants.CODE_VAL_LEAVING);
-		model.addAttribute("error", error);
+		String error = studentAttendanceService.punchCheck();
 		// 勤怠登録
 		if (error == null) {
-			String message = studentAttendanceService.setPunchOut();
-			model.addAttribute("message", message);
+			if (studentAttendanceService.setPunchOut() == null) {
+				error = studentAttendanceService.getPunchError(Constants.CODE_VAL_LEAVING);
+			} else {
+				model.addAttribute("message",
+						messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE));
+			}
 		}
+		model.addAttribute("error", error);
 		// 一覧の再取得
 		List<AttendanceManagementDto> attendanceManagementDtoList = studentAttendanceService
 				.getAttendanceManagement(loginUserDto.getCourseId(), loginUserDto.getLmsUserId());
@@ -180,4 +202,147 @@ public class AttendanceController {
 		return "attendance/detail";
 	}
 
-}
\ No newline at end of file
+	/**
+	 * 勤怠一括登録画面 初期表示
+	 * 
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 */
+	@RequestMapping(path = "/bulkRegist", method = RequestMethod.GET)
+	public String bulkRegist(Model model) {
+
+		// 勤怠一括登録フォームの生成
+		AttendanceBulkRegistForm attendanceBulkRegistForm = studentAttendanceService
+				.setAttendanceBulkRegistForm();
+		model.addAttribute("attendanceBulkRegistForm", attendanceBulkRegistForm);
+
+		return "attendance/bulkRegist";
+	}
+
+	/**
+	 * 勤怠一括登録画面 『登録』ボタン押下
+	 * 
+	 * @param attendanceBulkRegistForm
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 */
+	@RequestMapping(path = "/bulkRegist", params = "complete", method = RequestMethod.POST)
+	public String bulkRegistComplete(AttendanceBulkRegistForm attendanceBulkRegistForm,
+			Model model) {
+
+		// 対象コースはログイン情報から取得
+		attendanceBulkRegistForm.setCourseId(loginUserDto.getCourseId());
+		attendanceBulkRegistForm.setCourseName(loginUserDto.getCourseName());
+
+		// 入力チェック（全項目を1回で検証）
+		String error = studentAttendanceService
+				.validateAttendanceBulkRegistForm(attendanceBulkRegistForm);
+		if (error != null) {
+			model.addAttribute("error", error);
+		} else {
+			// 一括登録
+			String message = studentAttendanceService.bulkRegist(attendanceBulkRegistForm);
+			model.addAttribute("message", message);
+		}
+
+		// 入力値を維持する
+		studentAttendanceService.setAttendanceBulkRegistPulldown(attendanceBulkRegistForm);
+		model.addAttribute("attendanceBulkRegistForm", attendanceBulkRegistForm);
+
+		return "attendance/bulkRegist";
+	}
+
+	/**
+	 * コース勤怠一覧画面 初期表示・次ページ
+	 * 
+	 * @param lastLmsUserId 前ページの最終行のLMSユーザーID
+	 * @param model
+	 * @return コース勤怠一覧画面
+	 */
+	@RequestMapping(path = "/list", method = RequestMethod.GET)
+	public String list(@RequestParam(required = false) Integer lastLmsUserId, Model model) {
+
+		// 講師・管理者のみコース全体を参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			model.addAttribute("error", messageUtil.getMessage(Constants.VALID_KEY_AUTHORIZATION));
+			return "attendance/list";
+		}
+		// 研修日（列）と受講生ごとの勤怠（行）の取得（1ページ分）
+		model.addAttribute("attendanceMatrixResultDto", studentAttendanceService
+				.getAttendanceMatrixPage(loginUserDto.getCourseId(), lastLmsUserId));
+		// 受講生ごとの平均出退勤時刻・平均勤務時間
+		model.addAttribute("latenessMap",
+				studentAttendanceService.getAttendanceLatenessMap(loginUserDto.getCourseId()));
+
+		return "attendance/list";
+	}
+
+	/**
+	 * コース勤怠一覧画面 『CSVダウンロード』ボタン押下
+	 * 
+	 * @param response
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/list", params = "download", method = RequestMethod.GET)
+	@ResponseBody
+	public void download(HttpServletResponse response) throws IOException {
+
+		// 講師・管理者のみコース全体を参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+		// 受講生1人分ずつCSVへ書き出す
+		studentAttendanceService.downloadAttendanceMatrix(loginUserDto.getCourseId(),
+				loginUserDto.getCourseName(), response);
+	}
+
+	/**
+	 * コース勤怠一覧画面 『勤怠ステータス再計算』ボタン押下
+	 * 
+	 * @param model
+	 * @return コース勤怠一覧画面
+	 */
+	@RequestMapping(path = "/list", params = "recompute", method = RequestMethod.POST)
+	public String recompute(Model model) {
+
+		// 講師・管理者のみコース全体を更新可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			model.addAttribute("error", messageUtil.getMessage(Constants.VALID_KEY_AUTHORIZATION));
+			return "attendance/list";
+		}
+		// 現在の定時設定で遅刻早退ステータスを再計算（完了を待たずに戻る）
+		if (studentAttendanceService.recomputeStatus(loginUserDto.getCourseId())) {
+			model.addAttribute("message",
+					messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_RECOMPUTE_NOTICE));
+		} else {
+			model.addAttribute("error",
+					messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_RECOMPUTE_RUNNING));
+		}
+
+		return list(null, model);
+	}
+
+	/**
+	 * 勤怠ステータス再計算 進捗取得
+	 * 
+	 * @param response
+	 * @return 進捗（JSON）
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/list", params = "progress", method = RequestMethod.GET)
+	@ResponseBody
+	public String progress(HttpServletResponse response) throws IOException {
+
+		// 講師・管理者のみ参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return null;
+		}
+		AttendanceRecomputeProgressDto attendanceRecomputeProgressDto = studentAttendanceService
+				.getRecomputeProgress(loginUserDto.getCourseId());
+		// JSON形式で返す
+		return JSON.encode(attendanceRecomputeProgressDto);
+	}
+
+}
@@ -1,6 +1,8 @@
 package jp.co.sss.lms.controller;
 
+import java.io.IOException;
 import java.util.Date;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -8,12 +10,20 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jp.co.sss.lms.dto.ExamDetailDto;
+import jp.co.sss.lms.dto.ExamItemAnalysisDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ExamSectionStatDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.service.ExamItemAnalysisService;
 import jp.co.sss.lms.service.ExamService;
+import jp.co.sss.lms.util.LoginUserUtil;
+import net.arnx.jsonic.JSON;
 
 /**
  * 試験コントローラー
@@ -27,7 +37,11 @@ public class ExamController {
 	@Autowired
 	private ExamService examService;
 	@Autowired
+	private ExamItemAnalysisService examItemAnalysisService;
+	@Autowired
 	private LoginUserDto loginUserDto;
+	@Autowired
+	private LoginUserUtil loginUserUtil;
 
 	/**
 	 * 試験詳細画面 初期表示
@@ -91,8 +105,15 @@ public class ExamController {
 	@RequestMapping(path = "/question", method = RequestMethod.POST)
 	public String question(@ModelAttribute ExamQuestionForm examQuestionForm) {
 
+		// 試験開始（確認画面から戻った場合は受験中の試験を続ける）
+		if (examQuestionForm.getAttemptId() == null
+				&& !examService.startExamAttempt(examQuestionForm)) {
+			return "illegal";
+		}
 		// 試験問題画面フォームの設定
-		examService.setExamQuestionForm(examQuestionForm);
+		if (!examService.setExamQuestionForm(examQuestionForm)) {
+			return "illegal";
+		}
 
 		return "exam/question";
 	}
@@ -107,8 +128,10 @@ public class ExamController {
 	@RequestMapping(path = "/answerCheck", method = RequestMethod.POST)
 	public String answerCheck(ExamQuestionForm examQuestionForm, Model model) {
 
-		// 試験問題画面フォームの設定
-		examService.setExamQuestionForm(examQuestionForm);
+		// 試験問題画面フォームの設定（回答を反映）
+		if (!examService.setExamQuestionForm(examQuestionForm)) {
+			return "illegal";
+		}
 
 		return "exam/answerCheck";
 	}
@@ -123,8 +146,11 @@ public class ExamController {
 	@RequestMapping(path = "/result", method = RequestMethod.POST)
 	public String complete(ExamQuestionForm examQuestionForm, Model model) {
 
-		// 試験結果登録
+		// 試験結果登録（受験中でない場合は登録済み）
 		Integer examResultId = examService.insert(examQuestionForm);
+		if (examResultId == null) {
+			return "illegal";
+		}
 
 		// 試験結果詳細の取得
 		ExamResultDetailDto examResultDetailDto = examService.getExamResultDetail(examResultId);
@@ -133,4 +159,74 @@ public class ExamController {
 		return "exam/result";
 	}
 
+	/**
+	 * 試験問題分析（JSON）
+	 * 
+	 * @param examId
+	 * @param response
+	 * @return 試験問題分析DTOリスト（JSON）
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/itemAnalysis", method = RequestMethod.GET)
+	@ResponseBody
+	public String itemAnalysis(Integer examId, HttpServletResponse response) throws IOException {
+
+		// 講師・管理者のみ参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return null;
+		}
+		List<ExamItemAnalysisDto> examItemAnalysisDtoList = examItemAnalysisService
+				.getExamItemAnalysisList(examId);
+		// JSON形式で返す
+		return JSON.encode(examItemAnalysisDtoList);
+	}
+
+	/**
+	 * 試験統計（受験回数・平均点・得点分布）
+	 * 
+	 * @param examSectionId
+	 * @param response
+	 * @return 試験統計DTO（JSON）
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/sectionStat", method = RequestMethod.GET)
+	@ResponseBody
+	public String sectionStat(Integer examSectionId, HttpServletResponse response)
+			throws IOException {
+
+		// 講師・管理者のみ参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return null;
+		}
+		ExamSectionStatDto examSectionStatDto = examService.getExamSectionStat(examSectionId);
+		// JSON形式で返す
+		return JSON.encode(examSectionStatDto);
+	}
+
+	/**
+	 * 試験問題分析 開始
+	 * 
+	 * @param examId   試験ID（未指定の場合は全試験）
+	 * @param response
+	 * @return 開始した場合：true、分析を実行中の場合：false（JSON）
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/itemAnalysis", method = RequestMethod.POST)
+	@ResponseBody
+	public String startItemAnalysis(@RequestParam(required = false) Integer examId,
+			HttpServletResponse response) throws IOException {
+
+		// 講師・管理者のみ実行可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return null;
+		}
+		// 分析は完了を待たずに戻る（結果は試験問題分析で参照する）
+		boolean started = examItemAnalysisService.start(examId);
+		// JSON形式で返す
+		return JSON.encode(started);
+	}
+
 }
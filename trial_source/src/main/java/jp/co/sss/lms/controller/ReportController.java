@@ -2,19 +2,30 @@ package jp.co.sss.lms.controller;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import jakarta.servlet.http.HttpServletResponse;
+import jp.co.sss.lms.dto.DailyReportSearchResultDto;
+import jp.co.sss.lms.dto.IntelligibilityHistogramDto;
 import jp.co.sss.lms.form.DailyReportDownloadForm;
+import jp.co.sss.lms.form.DailyReportListForm;
 import jp.co.sss.lms.form.DailyReportSubmitForm;
+import jp.co.sss.lms.service.DailyReportDraftService;
 import jp.co.sss.lms.service.ReportService;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import net.arnx.jsonic.JSON;
 
 /**
  * レポートコントローラー
@@ -27,6 +38,12 @@ public class ReportController {
 
 	@Autowired
 	private ReportService reportService;
+	@Autowired
+	private DailyReportDraftService dailyReportDraftService;
+	@Autowired
+	private LoginUserUtil loginUserUtil;
+	@Autowired
+	private MessageUtil messageUtil;
 
 	/**
 	 * レポート登録画面 初期表示
@@ -62,6 +79,19 @@ public class ReportController {
 		return "redirect:/section/detail?sectionId=" + dailyReportSubmitForm.getSectionId();
 	}
 
+	/**
+	 * レポート登録画面 入力内容の自動保存
+	 * 
+	 * @param dailyReportSubmitForm
+	 */
+	@RequestMapping(path = "/draft", method = RequestMethod.POST)
+	@ResponseBody
+	public void draft(DailyReportSubmitForm dailyReportSubmitForm) {
+
+		// レポート下書き保存
+		dailyReportDraftService.save(dailyReportSubmitForm);
+	}
+
 	/**
 	 * レポート詳細画面の初期表示
 	 * 
@@ -90,4 +120,96 @@ public class ReportController {
 				dailyReportDownloadForm.getDailyReportSubmitId(), response);
 	}
 
+	/**
+	 * ユーザー詳細画面 『一括ダウンロード（レポート）』ボタン押下
+	 * 
+	 * @param dailyReportDownloadForm
+	 * @param response
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/downloadList", method = RequestMethod.POST)
+	@ResponseBody
+	public void downloadList(DailyReportDownloadForm dailyReportDownloadForm,
+			HttpServletResponse response) throws IOException {
+
+		// レポート一括ダウンロード
+		reportService.downloadList(dailyReportDownloadForm.getDailyReportIdList(),
+				dailyReportDownloadForm.getDailyReportSubmitIdList(), response);
+	}
+
+	/**
+	 * コースのレポート一覧画面 初期表示・次ページ
+	 * 
+	 * @param dailyReportListForm
+	 * @param model
+	 * @return コースのレポート一覧画面
+	 * @throws ParseException
+	 */
+	@RequestMapping(path = "/list", method = RequestMethod.GET)
+	public String list(@ModelAttribute DailyReportListForm dailyReportListForm, Model model)
+			throws ParseException {
+
+		// 講師・管理者のみコース全体を参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			model.addAttribute("error", messageUtil.getMessage(Constants.VALID_KEY_AUTHORIZATION));
+			return "report/list";
+		}
+		model.addAttribute("dailyReportListResultDto",
+				reportService.getCourseDailyReportList(dailyReportListForm));
+
+		return "report/list";
+	}
+
+	/**
+	 * レポート全文検索（JSON）
+	 * 
+	 * @param keyword
+	 * @param page
+	 * @param response
+	 * @return 検索結果（JSON）
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/search", method = RequestMethod.GET)
+	@ResponseBody
+	public String search(@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) Integer page, HttpServletResponse response)
+			throws IOException {
+
+		// 講師・管理者のみ参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return null;
+		}
+		DailyReportSearchResultDto dailyReportSearchResultDto = reportService.search(keyword, page);
+		// JSON形式で返す
+		return JSON.encode(dailyReportSearchResultDto);
+	}
+
+	/**
+	 * 理解度分布（JSON）
+	 * 
+	 * @param dateFrom
+	 * @param dateTo
+	 * @param response
+	 * @return 理解度分布（JSON）
+	 * @throws ParseException
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/intelligibility", method = RequestMethod.GET)
+	@ResponseBody
+	public String intelligibility(@RequestParam(required = false) String dateFrom,
+			@RequestParam(required = false) String dateTo, HttpServletResponse response)
+			throws ParseException, IOException {
+
+		// 講師・管理者のみ参照可能
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return null;
+		}
+		List<IntelligibilityHistogramDto> intelligibilityHistogramDtoList = reportService
+				.getIntelligibilityHistogramList(dateFrom, dateTo);
+		// JSON形式で返す
+		return JSON.encode(intelligibilityHistogramDtoList);
+	}
+
 }
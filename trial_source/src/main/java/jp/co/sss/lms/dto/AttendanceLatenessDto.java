@@ -0,0 +1,29 @@
+package jp.co.sss.lms.dto;
+
+import jp.co.sss.lms.util.TrainingTime;
+import lombok.Data;
+
+/**
+ * コース勤怠集計（遅刻早退・勤務時間）DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceLatenessDto {
+
+	/** LMSユーザID */
+	private Integer lmsUserId;
+	/** 出勤日数（出退勤時刻とも入力済みの日数） */
+	private Integer workDayCount;
+	/** 遅刻回数（定時開始より後の出勤） */
+	private Integer tardyCount;
+	/** 早退回数（定時終了より前の退勤） */
+	private Integer leavingEarlyCount;
+	/** 平均出勤時刻 */
+	private TrainingTime averageStartTime;
+	/** 平均退勤時刻 */
+	private TrainingTime averageEndTime;
+	/** 平均勤務時間（分、中抜け時間を除く） */
+	private Integer averageWorkMinutes;
+
+}
@@ -0,0 +1,36 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * コース勤怠一覧（受講生×研修日）取得用DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceMatrixDto {
+
+	/** LMSユーザID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** 日付 */
+	private Date trainingDate;
+	/** 出勤時間 */
+	private String trainingStartTime;
+	/** 退勤時間 */
+	private String trainingEndTime;
+	/** 勤怠状況 */
+	private Short status;
+	/** 遅刻回数（受講生単位） */
+	private Integer tardyCount;
+	/** 早退回数（受講生単位） */
+	private Integer leavingEarlyCount;
+	/** 欠席回数（受講生単位） */
+	private Integer absentCount;
+	/** 過去日の未入力件数（受講生単位） */
+	private Integer unfilledCount;
+
+}
@@ -0,0 +1,25 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * コース勤怠一覧結果DTO
+ *
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceMatrixResultDto {
+
+	/** 研修日リスト（列） */
+	private List<Date> dateList;
+	/** 1ページの受講生数 */
+	private Integer pageSize;
+	/** 次ページが有るか */
+	private Boolean hasNext;
+	/** 受講生行リスト */
+	private List<AttendanceMatrixRowDto> rowList;
+
+}
@@ -0,0 +1,28 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * コース勤怠一覧 受講生行DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceMatrixRowDto {
+
+	/** LMSユーザID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** 研修日ごとの勤怠表示（研修日の並び順） */
+	private String[] cells;
+	/** 遅刻回数 */
+	private Integer tardyCount;
+	/** 早退回数 */
+	private Integer leavingEarlyCount;
+	/** 欠席回数 */
+	private Integer absentCount;
+	/** 過去日の未入力件数 */
+	private Integer unfilledCount;
+
+}
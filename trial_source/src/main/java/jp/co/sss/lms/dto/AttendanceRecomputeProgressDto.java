@@ -0,0 +1,24 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 勤怠ステータス再計算 進捗DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceRecomputeProgressDto {
+
+	/** コースID */
+	private Integer courseId;
+	/** 対象件数 */
+	private Integer totalCount;
+	/** 処理済件数 */
+	private Integer processedCount;
+	/** 更新件数 */
+	private Integer updatedCount;
+	/** 完了フラグ */
+	private Boolean completed;
+
+}
@@ -0,0 +1,20 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * レポート下書きDTO（下書きのJSONの内容）
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class DailyReportDraftDto {
+
+	/** 学習項目 */
+	private String[] intFieldNameArray;
+	/** 理解度 */
+	private Short[] intFieldValueArray;
+	/** 報告内容 */
+	private String[] contentArray;
+
+}
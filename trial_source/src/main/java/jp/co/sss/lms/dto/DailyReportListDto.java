@@ -0,0 +1,32 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * コースのレポート一覧DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class DailyReportListDto {
+
+	/** 日報提出ID（未提出の場合はnull） */
+	private Integer dailyReportSubmitId;
+	/** 日報ID */
+	private Integer dailyReportId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** 日報名 */
+	private String reportName;
+	/** 日付 */
+	private Date date;
+	/** フィードバックカウント */
+	private Integer fbCount;
+	/** フィードバック日 */
+	private Date lastFeedbackDate;
+
+}
@@ -0,0 +1,24 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * コースのレポート一覧結果DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class DailyReportListResultDto {
+
+	/** 絞込 */
+	private String status;
+	/** 1ページの件数 */
+	private Integer pageSize;
+	/** 次ページが有るか */
+	private Boolean hasNext;
+	/** 一覧 */
+	private List<DailyReportListDto> dailyReportListDtoList;
+
+}
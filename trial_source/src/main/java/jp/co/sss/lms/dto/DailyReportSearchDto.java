@@ -0,0 +1,32 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * レポート全文検索DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class DailyReportSearchDto {
+
+	/** 日報提出ID */
+	private Integer dailyReportSubmitId;
+	/** 日報ID */
+	private Integer dailyReportId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** レポート名 */
+	private String reportName;
+	/** 日付 */
+	private Date date;
+	/** 内容（インデックス作成時のみ） */
+	private String content;
+	/** スコア */
+	private Double score;
+
+}
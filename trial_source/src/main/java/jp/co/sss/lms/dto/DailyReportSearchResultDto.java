@@ -0,0 +1,28 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * レポート全文検索結果DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class DailyReportSearchResultDto {
+
+	/** 検索語 */
+	private String keyword;
+	/** ページ番号（1始まり） */
+	private Integer page;
+	/** 1ページの件数 */
+	private Integer pageSize;
+	/** 該当件数 */
+	private Integer totalCount;
+	/** インデックス作成中か（作成中は作成済みのレポートのみ検索される） */
+	private Boolean building;
+	/** 検索結果 */
+	private List<DailyReportSearchDto> dailyReportSearchDtoList;
+
+}
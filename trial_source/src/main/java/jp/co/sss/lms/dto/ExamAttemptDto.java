@@ -0,0 +1,157 @@
+package jp.co.sss.lms.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.SessionScope;
+
+import jp.co.sss.lms.util.ExamSnapshotCache.ExamSnapshot;
+
+/**
+ * 受験中試験DTO
+ *
+ * <p>
+ * 受験中の試験の回答と開始日時をセッションで保持する。画面とは受験IDと回答の差分のみをやり取りし、経過時間はサーバーで計測する。
+ * 回答は問題順に1問1バイト（未回答は0、選択肢は1～4）で保持する。
+ * 受験中に試験が編集されても、表示・採点は開始時の試験問題スナップショットで行う。
+ * 二重送信・複数タブからの同時リクエストに備え、状態の参照・変更は同期する。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@SessionScope
+public class ExamAttemptDto implements Serializable {
+
+	/** シリアルバージョンUID */
+	private static final long serialVersionUID = 1L;
+
+	/** 受験ID（受験中でない場合はnull） */
+	private String attemptId;
+	/** 試験問題スナップショット（開始時の版） */
+	private ExamSnapshot examSnapshot;
+	/** セクションID */
+	private Integer sectionId;
+	/** 試験・セクション紐付けID */
+	private Integer examSectionId;
+	/** 回答（問題順、未回答は0） */
+	private byte[] answers;
+	/** 開始日時 */
+	private long startTime;
+
+	/**
+	 * 受験開始（受験中の試験は破棄する）
+	 *
+	 * @param examSnapshot  試験問題スナップショット
+	 * @param sectionId
+	 * @param examSectionId
+	 * @param now           開始日時
+	 * @return 受験ID
+	 */
+	public synchronized String start(ExamSnapshot examSnapshot, Integer sectionId,
+			Integer examSectionId, long now) {
+		this.attemptId = UUID.randomUUID().toString();
+		this.examSnapshot = examSnapshot;
+		this.sectionId = sectionId;
+		this.examSectionId = examSectionId;
+		this.answers = new byte[examSnapshot.size()];
+		this.startTime = now;
+		return attemptId;
+	}
+
+	/**
+	 * 受験中判定
+	 *
+	 * @param attemptId
+	 * @return 受験IDの試験を受験中の場合：true
+	 */
+	public synchronized boolean isCurrent(String attemptId) {
+		return this.attemptId != null && this.attemptId.equals(attemptId);
+	}
+
+	/**
+	 * 回答の反映（指定された回答のみ上書きする）
+	 *
+	 * @param attemptId
+	 * @param answer    問題順の回答（未指定・選択肢の範囲外は反映しない）
+	 * @return 反映した場合：true、受験中でない場合：false
+	 */
+	public synchronized boolean applyAnswer(String attemptId, Short[] answer) {
+		if (!isCurrent(attemptId)) {
+			return false;
+		}
+		if (answer != null) {
+			for (int i = 0; i < answer.length && i < answers.length; i++) {
+				if (answer[i] != null && answer[i] >= 1 && answer[i] <= 4) {
+					answers[i] = answer[i].byteValue();
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 受験終了
+	 *
+	 * @param attemptId
+	 * @return 終了した場合：true、受験中でない場合（終了済み・別の試験を開始済み）：false
+	 */
+	public synchronized boolean finish(String attemptId) {
+		if (!isCurrent(attemptId)) {
+			return false;
+		}
+		this.attemptId = null;
+		return true;
+	}
+
+	/**
+	 * 試験問題スナップショット取得
+	 *
+	 * @return 開始時の試験問題スナップショット
+	 */
+	public synchronized ExamSnapshot getExamSnapshot() {
+		return examSnapshot;
+	}
+
+	/**
+	 * セクションID取得
+	 *
+	 * @return セクションID
+	 */
+	public synchronized Integer getSectionId() {
+		return sectionId;
+	}
+
+	/**
+	 * 試験・セクション紐付けID取得
+	 *
+	 * @return 試験・セクション紐付けID
+	 */
+	public synchronized Integer getExamSectionId() {
+		return examSectionId;
+	}
+
+	/**
+	 * 開始日時取得
+	 *
+	 * @return 開始日時
+	 */
+	public synchronized long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * 回答取得
+	 *
+	 * @return 問題順の回答（未回答は0）
+	 */
+	public synchronized short[] getReplies() {
+		short[] replies = new short[answers == null ? 0 : answers.length];
+		for (int i = 0; i < replies.length; i++) {
+			replies[i] = answers[i];
+		}
+		return replies;
+	}
+
+}
@@ -0,0 +1,38 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 試験問題分析DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamItemAnalysisDto {
+
+	/** 問題ID */
+	private Integer questionId;
+	/** 問題 */
+	private String question;
+	/** 正答 */
+	private Short answerNum;
+	/** 受験者数（評点対象） */
+	private Integer attemptCount;
+	/** 正答率 */
+	private Double difficulty;
+	/** 識別力（項目－残余の点双列相関） */
+	private Double discrimination;
+	/** 回答数（未回答・選択肢1～4） */
+	private int[] replyCount;
+	/** 易しすぎる問題 */
+	private boolean tooEasy;
+	/** 難しすぎる問題 */
+	private boolean tooHard;
+	/** 識別力の低い問題 */
+	private boolean lowDiscrimination;
+	/** 分析日時 */
+	private Date lastModifiedDate;
+
+}
@@ -1,5 +1,6 @@
 package jp.co.sss.lms.dto;
 
+import java.util.Date;
 import java.util.List;
 
 import lombok.Data;
@@ -18,6 +19,8 @@ public class ExamQuestionDto {
 	private String examName;
 	/** 制限時間 */
 	private Integer limitTime;
+	/** 最終更新日時（試験・問題の最新） */
+	private Date lastModifiedDate;
 	/** 問題DTOリスト */
 	private List<QuestionDto> questionDtoList;
 
@@ -0,0 +1,30 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 試験統計DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamSectionStatDto {
+
+	/** 試験セクションID */
+	private Integer examSectionId;
+	/** 受験回数 */
+	private Integer attemptCount;
+	/** 受験回数（評点対象） */
+	private Integer markCount;
+	/** 平均点（評点対象） */
+	private Double averageScore;
+	/** 問題数 */
+	private Integer questionCount;
+	/** 得点分布（得点ごとの人数、添字＝得点） */
+	private int[] scoreCount;
+	/** 更新日時 */
+	private Date lastModifiedDate;
+
+}
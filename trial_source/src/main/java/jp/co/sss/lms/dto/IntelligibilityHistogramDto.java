@@ -0,0 +1,28 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 理解度分布DTO（セクション・日付・学習項目毎）
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class IntelligibilityHistogramDto {
+
+	/** セクションID（コースの同日のセクションが無い場合は0） */
+	private Integer sectionId;
+	/** 日付 */
+	private Date date;
+	/** 学習項目 */
+	private String fieldName;
+	/** 理解度毎の件数（添字0が理解度1） */
+	private int[] histogram;
+	/** 件数 */
+	private Integer totalCount;
+	/** 平均理解度 */
+	private Double average;
+
+}
@@ -2,6 +2,7 @@ package jp.co.sss.lms.dto;
 
 import org.apache.poi.ss.usermodel.Workbook;
 
+import jp.co.sss.lms.util.XlsxTemplateFiller;
 import lombok.Data;
 
 /**
@@ -14,6 +15,8 @@ public class WorkbookDto {
 
 	/** ワークブック */
 	private Workbook wb;
+	/** テンプレートの直接書込（設定されている場合はワークブックの代わりに書き込む） */
+	private XlsxTemplateFiller xlsxTemplateFiller;
 	/** ワークブック名 */
 	private String wbName;
 
@@ -0,0 +1,36 @@
+package jp.co.sss.lms.entity;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * コース定時設定エンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TCourseSchedule {
+
+	/** コース定時設定ID */
+	private Integer courseScheduleId;
+	/** コースID */
+	private Integer courseId;
+	/** 研修日（NULLの場合はコース共通） */
+	private Date trainingDate;
+	/** 定時開始時刻 */
+	private String workStartTime;
+	/** 定時終了時刻 */
+	private String workEndTime;
+	/** 削除フラグ */
+	private Short deleteFlg;
+	/** 初回作成者 */
+	private Integer firstCreateUser;
+	/** 初回作成日時 */
+	private Date firstCreateDate;
+	/** 最終更新者 */
+	private Integer lastModifiedUser;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+
+}
@@ -0,0 +1,38 @@
+package jp.co.sss.lms.entity;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * レポート下書きエンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TDailyReportDraft {
+
+	/** レポート下書きID */
+	private Integer dailyReportDraftId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** 日報ID */
+	private Integer dailyReportId;
+	/** 日付 */
+	private Date date;
+	/** 下書き（入力内容のJSON） */
+	private String draft;
+	/** アカウントID */
+	private Integer accountId;
+	/** 削除フラグ */
+	private Short deleteFlg;
+	/** 初回作成者 */
+	private Integer firstCreateUser;
+	/** 初回作成日時 */
+	private Date firstCreateDate;
+	/** 最終更新者 */
+	private Integer lastModifiedUser;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+
+}
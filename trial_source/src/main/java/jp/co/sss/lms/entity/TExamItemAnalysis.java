@@ -0,0 +1,40 @@
+package jp.co.sss.lms.entity;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 試験問題分析エンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TExamItemAnalysis {
+
+	/** 試験ID */
+	private Integer examId;
+	/** 問題ID */
+	private Integer questionId;
+	/** 受験者数（評点対象） */
+	private Integer attemptCount;
+	/** 正答数 */
+	private Integer correctCount;
+	/** 正答率 */
+	private Double difficulty;
+	/** 識別力（項目－残余の点双列相関） */
+	private Double discrimination;
+	/** 未回答数 */
+	private Integer noAnswerCount;
+	/** 選択肢1の回答数 */
+	private Integer choice1Count;
+	/** 選択肢2の回答数 */
+	private Integer choice2Count;
+	/** 選択肢3の回答数 */
+	private Integer choice3Count;
+	/** 選択肢4の回答数 */
+	private Integer choice4Count;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+
+}
@@ -0,0 +1,20 @@
+package jp.co.sss.lms.entity;
+
+import lombok.Data;
+
+/**
+ * 試験得点分布エンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TExamSectionScore {
+
+	/** 試験・セクション紐付けID */
+	private Integer examSectionId;
+	/** 得点 */
+	private Short score;
+	/** 件数（評点対象） */
+	private Integer count;
+
+}
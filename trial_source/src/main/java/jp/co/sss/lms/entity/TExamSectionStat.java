@@ -0,0 +1,28 @@
+package jp.co.sss.lms.entity;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 試験統計エンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TExamSectionStat {
+
+	/** 試験・セクション紐付けID */
+	private Integer examSectionId;
+	/** 受験回数 */
+	private Integer attemptCount;
+	/** 評点対象の件数 */
+	private Integer markCount;
+	/** 評点対象の得点合計 */
+	private Long markScoreSum;
+	/** 問題数 */
+	private Integer questionCount;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+
+}
@@ -0,0 +1,32 @@
+package jp.co.sss.lms.entity;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 理解度集計エンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TIntelligibilityRollup {
+
+	/** 理解度集計ID */
+	private Integer intelligibilityRollupId;
+	/** コースID */
+	private Integer courseId;
+	/** セクションID（コースの同日のセクションが無い場合は0） */
+	private Integer sectionId;
+	/** 日付 */
+	private Date date;
+	/** 学習項目 */
+	private String fieldName;
+	/** 理解度 */
+	private Short fieldValue;
+	/** 件数 */
+	private Integer count;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+
+}
@@ -197,6 +197,7 @@ public class LoginSessionFilter implements Filter {
 		studentAcessList.add("/lms/report/detail");
 		studentAcessList.add("/lms/report/regist");
 		studentAcessList.add("/lms/report/complete");
+		studentAcessList.add("/lms/report/draft");
 		studentAcessList.add("/lms/report/download");
 		studentAcessList.add("/lms/report/feedback/regist");
 		studentAcessList.add("/lms/report/feedback/delete");
@@ -234,6 +235,8 @@ public class LoginSessionFilter implements Filter {
 		teacherAcessList.add("/lms/report/list");
 		teacherAcessList.add("/lms/report/detail");
 		teacherAcessList.add("/lms/report/downloadList");
+		teacherAcessList.add("/lms/report/search");
+		teacherAcessList.add("/lms/report/intelligibility");
 		teacherAcessList.add("/lms/report/regist");
 		teacherAcessList.add("/lms/report/feedback/delete");
 		teacherAcessList.add("/lms/report/feedback/regist");
@@ -245,6 +248,8 @@ public class LoginSessionFilter implements Filter {
 		teacherAcessList.add("/lms/exam/resultDetail");
 		teacherAcessList.add("/lms/exam/resultList");
 		teacherAcessList.add("/lms/exam/deleteResultList");
+		teacherAcessList.add("/lms/exam/itemAnalysis");
+		teacherAcessList.add("/lms/exam/sectionStat");
 		teacherAcessList.add("/lms/attendance/list");
 		teacherAcessList.add("/lms/attendance/detail");
 		teacherAcessList.add("/lms/attendance/bulkRegist");
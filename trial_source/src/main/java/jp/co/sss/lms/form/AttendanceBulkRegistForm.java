@@ -0,0 +1,71 @@
+package jp.co.sss.lms.form;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * 勤怠一括登録フォーム
+ *
+ * @author 東京ITスクール
+ */
+@Data
+public class AttendanceBulkRegistForm {
+
+	/** コースID */
+	private Integer courseId;
+	/** コース名 */
+	private String courseName;
+	/** 対象期間（開始日） */
+	private String trainingDateFrom;
+	/** 対象期間（終了日） */
+	private String trainingDateTo;
+	/** 出勤時間 */
+	private String trainingStartTime;
+	/** 退勤時間 */
+	private String trainingEndTime;
+	/** 研修開始時刻-時 */
+	private String trainingStartTimeHour;
+	/** 研修開始時刻-分 */
+	private String trainingStartTimeMinute;
+	/** 研修終了時刻-時 */
+	private String trainingEndTimeHour;
+	/** 研修終了時刻-分 */
+	private String trainingEndTimeMinute;
+	/** 中抜け時間 */
+	private Integer blankTime;
+	/** 備考 */
+	private String note;
+
+	/** 中抜け時間(プルダウン) */
+	private Map<Integer, String> blankTimes;
+	/** 勤務時間-時(プルダウン) */
+	private List<String> workHour;
+	/** 勤務時間-分(プルダウン) */
+	private List<String> workMinute;
+
+	/**
+	 * 時と分からtrainingStartTimeを組み立て
+	 * @return なし
+	 */
+	public void combineTrainingStartTime() {
+		this.trainingStartTime = "";
+		if (trainingStartTimeHour != null && !trainingStartTimeHour.isEmpty() &&
+				trainingStartTimeMinute != null && !trainingStartTimeMinute.isEmpty()) {
+			this.trainingStartTime = trainingStartTimeHour + ":" + trainingStartTimeMinute;
+		}
+	}
+
+	/**
+	 * 時と分からtrainingEndTimeを組み立て
+	 * @return なし
+	 */
+	public void combineTrainingEndTime() {
+		this.trainingEndTime = "";
+		if (trainingEndTimeHour != null && !trainingEndTimeHour.isEmpty() &&
+				trainingEndTimeMinute != null && !trainingEndTimeMinute.isEmpty()) {
+			this.trainingEndTime = trainingEndTimeHour + ":" + trainingEndTimeMinute;
+		}
+	}
+}
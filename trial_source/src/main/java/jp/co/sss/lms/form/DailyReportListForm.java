@@ -0,0 +1,24 @@
+package jp.co.sss.lms.form;
+
+import lombok.Data;
+
+/**
+ * コースのレポート一覧フォーム
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class DailyReportListForm {
+
+	/** 絞込（未指定：提出済み全件、unsubmitted：未提出、noFeedback：フィードバック無し） */
+	private String status;
+	/** 前ページの最終行の日付（yyyy/M/d） */
+	private String lastDate;
+	/** 前ページの最終行の日報提出ID */
+	private Integer lastDailyReportSubmitId;
+	/** 前ページの最終行のLMSユーザーID（未提出） */
+	private Integer lastLmsUserId;
+	/** 前ページの最終行の日報ID（未提出） */
+	private Integer lastDailyReportId;
+
+}
@@ -13,6 +13,8 @@ import lombok.Data;
 @Data
 public class ExamQuestionForm {
 
+	/** 受験ID */
+	private String attemptId;
 	/** 試験ID */
 	private Integer examId;
 	/** セクションID */
@@ -27,7 +29,7 @@ public class ExamQuestionForm {
 	private List<QuestionDto> questionDtoList;
 	/** 回答リスト */
 	private Short[] answer;
-	/** 経過時間 */
+	/** 経過時間（サーバーで計測、ミリ秒） */
 	private Integer time;
 	/** 試験結果ID */
 	private Integer examResultId;
@@ -1,5 +1,8 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -14,7 +17,7 @@ import jp.co.sss.lms.dto.ExamQuestionDto;
 public interface MExamMapper {
 
 	/**
-	 * 試験問題DTO取得
+	 * 試験問題DTO取得（削除されていない問題・正答を含む）
 	 * 
 	 * @param examId
 	 * @param deleteFlg
@@ -23,4 +26,22 @@ public interface MExamMapper {
 	ExamQuestionDto getExamQuestion(@Param("examId") Integer examId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 試験・問題の最終更新日時取得（削除された問題を含む）
+	 * 
+	 * @param examId
+	 * @param deleteFlg
+	 * @return 最終更新日時（試験が存在しない場合はnull）
+	 */
+	Date getExamLastModifiedDate(@Param("examId") Integer examId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 試験ID一覧取得
+	 * 
+	 * @param deleteFlg
+	 * @return 試験IDリスト（試験ID順）
+	 */
+	List<Integer> getExamIdList(@Param("deleteFlg") Short deleteFlg);
+
 }
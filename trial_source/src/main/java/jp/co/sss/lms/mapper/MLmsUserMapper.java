@@ -1,5 +1,7 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -23,4 +25,15 @@ public interface MLmsUserMapper {
 	UserDetailDto getUserDetail(@Param("lmsUserId") Integer lmsUserId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * コースの受講生のLMSユーザーID取得
+	 * 
+	 * @param courseId
+	 * @param role
+	 * @param deleteFlg
+	 * @return LMSユーザーIDリスト
+	 */
+	List<Integer> findLmsUserIdListByCourseId(@Param("courseId") Integer courseId,
+			@Param("role") String role, @Param("deleteFlg") Short deleteFlg);
+
 }
@@ -1,11 +1,13 @@
 package jp.co.sss.lms.mapper;
 
 import java.util.Date;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.dto.SectionServiceSectionDto;
+import jp.co.sss.lms.entity.MSection;
 
 /**
  * セクションマスタマッパー
@@ -46,4 +48,14 @@ public interface MSectionMapper {
 	Integer getSectionCountByCourseId(@Param("courseId") Integer courseId,
 			@Param("date") Date date);
 
+	/**
+	 * コース研修日カレンダー取得
+	 * 
+	 * @param courseId
+	 * @param deleteFlg
+	 * @return セクション（日付・セクション名）リスト
+	 */
+	List<MSection> getCourseCalendar(@Param("courseId") Integer courseId,
+			@Param("deleteFlg") Short deleteFlg);
+
 }
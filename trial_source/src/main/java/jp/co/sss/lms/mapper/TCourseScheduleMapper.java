@@ -0,0 +1,28 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TCourseSchedule;
+
+/**
+ * コース定時設定マッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TCourseScheduleMapper {
+
+	/**
+	 * コース定時設定取得
+	 * 
+	 * @param courseId
+	 * @param deleteFlg
+	 * @return コース定時設定リスト（コース共通の設定が先頭）
+	 */
+	List<TCourseSchedule> findByCourseId(@Param("courseId") Integer courseId,
+			@Param("deleteFlg") Short deleteFlg);
+
+}
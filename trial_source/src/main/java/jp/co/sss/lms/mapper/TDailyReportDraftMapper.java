@@ -0,0 +1,53 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TDailyReportDraft;
+
+/**
+ * レポート下書きマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TDailyReportDraftMapper {
+
+	/**
+	 * レポート下書き取得
+	 * 
+	 * @param lmsUserId
+	 * @param dailyReportId
+	 * @param date
+	 * @param deleteFlg
+	 * @return レポート下書き
+	 */
+	TDailyReportDraft findByKey(@Param("lmsUserId") Integer lmsUserId,
+			@Param("dailyReportId") Integer dailyReportId, @Param("date") Date date,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * レポート下書き一括登録・更新<br>
+	 * 既に保存されている下書きより古いものは反映しない。
+	 * 
+	 * @param tDailyReportDraftList
+	 * @return 登録・更新結果
+	 */
+	Boolean upsertList(
+			@Param("tDailyReportDraftList") List<TDailyReportDraft> tDailyReportDraftList);
+
+	/**
+	 * レポート下書き削除
+	 * 
+	 * @param lmsUserId
+	 * @param dailyReportId
+	 * @param date
+	 * @return 削除結果
+	 */
+	Boolean delete(@Param("lmsUserId") Integer lmsUserId,
+			@Param("dailyReportId") Integer dailyReportId, @Param("date") Date date);
+
+}
@@ -1,5 +1,7 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -38,4 +40,15 @@ public interface TDailyReportSubmitDetailMapper {
 	 */
 	Boolean insert(TDailyReportSubmitDetail tDailyReportSubmitDetail);
 
+	/**
+	 * 日報提出詳細一括登録・更新<br>
+	 * 項目番号が一致する行は内容が変わった場合のみ更新し、無い行は登録する。登録する件数を超える項目番号の行は削除する。
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param tDailyReportSubmitDetailList
+	 * @return 登録・更新結果
+	 */
+	Boolean upsertList(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("tDailyReportSubmitDetailList") List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList);
+
 }
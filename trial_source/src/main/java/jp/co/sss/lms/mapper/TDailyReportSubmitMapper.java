@@ -1,5 +1,6 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -7,6 +8,8 @@ import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
 import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.dto.DailyReportListDto;
+import jp.co.sss.lms.dto.DailyReportSearchDto;
 import jp.co.sss.lms.entity.TDailyReportSubmit;
 
 /**
@@ -33,6 +36,14 @@ public interface TDailyReportSubmitMapper {
 	 */
 	Boolean update(TDailyReportSubmit tDailyReportSubmit);
 
+	/**
+	 * 日報提出の行ロック取得（トランザクション終了まで同じ日報提出の更新を待たせる）
+	 * 
+	 * @param dailyReportSubmitId
+	 * @return 日報提出ID（存在しない場合はnull）
+	 */
+	Integer lockById(@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
+
 	/**
 	 * レポート提出リスト取得
 	 * 
@@ -65,4 +76,71 @@ public interface TDailyReportSubmitMapper {
 	DailyReportDto getDailyReportDto(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 日報提出IDの最大値取得
+	 * 
+	 * @param deleteFlg
+	 * @return 日報提出IDの最大値
+	 */
+	Integer getMaxDailyReportSubmitId(@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 全文検索インデックス用レポート取得（日報提出IDの範囲）
+	 * 
+	 * @param from      日報提出ID（以上）
+	 * @param to        日報提出ID（未満）
+	 * @param deleteFlg
+	 * @return レポート全文検索DTOリスト（日報提出詳細の内容を項目番号順に連結）
+	 */
+	List<DailyReportSearchDto> findSearchDocList(@Param("from") Integer from,
+			@Param("to") Integer to, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 全文検索結果の表示用レポート取得
+	 * 
+	 * @param dailyReportSubmitIdList
+	 * @param deleteFlg
+	 * @return レポート全文検索DTOリスト
+	 */
+	List<DailyReportSearchDto> findSearchList(
+			@Param("dailyReportSubmitIdList") List<Integer> dailyReportSubmitIdList,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * コースのレポート一覧取得（提出済み）
+	 * 
+	 * @param courseId
+	 * @param role                    受講生のロール
+	 * @param noFeedback              フィードバック無しのみの場合：true
+	 * @param lastDate                前ページの最終行の日付（先頭ページはnull）
+	 * @param lastDailyReportSubmitId 前ページの最終行の日報提出ID
+	 * @param limit                   取得件数
+	 * @param deleteFlg
+	 * @return コースのレポート一覧DTOリスト（日付・日報提出IDの降順）
+	 */
+	List<DailyReportListDto> getCourseDailyReportList(@Param("courseId") Integer courseId,
+			@Param("role") String role, @Param("noFeedback") boolean noFeedback,
+			@Param("lastDate") Date lastDate,
+			@Param("lastDailyReportSubmitId") Integer lastDailyReportSubmitId,
+			@Param("limit") Integer limit, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * コースのレポート一覧取得（未提出）
+	 * 
+	 * @param courseId
+	 * @param role              受講生のロール
+	 * @param baseDate          基準日（この日までのセクションが対象）
+	 * @param lastDate          前ページの最終行の日付（先頭ページはnull）
+	 * @param lastLmsUserId     前ページの最終行のLMSユーザーID
+	 * @param lastDailyReportId 前ページの最終行の日報ID
+	 * @param limit             取得件数
+	 * @param deleteFlg
+	 * @return コースのレポート一覧DTOリスト（日付・LMSユーザーID・日報IDの降順）
+	 */
+	List<DailyReportListDto> getCourseUnsubmittedList(@Param("courseId") Integer courseId,
+			@Param("role") String role, @Param("baseDate") Date baseDate,
+			@Param("lastDate") Date lastDate, @Param("lastLmsUserId") Integer lastLmsUserId,
+			@Param("lastDailyReportId") Integer lastDailyReportId, @Param("limit") Integer limit,
+			@Param("deleteFlg") Short deleteFlg);
+
 }
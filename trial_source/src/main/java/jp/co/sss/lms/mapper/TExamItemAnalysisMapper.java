@@ -0,0 +1,37 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TExamItemAnalysis;
+
+/**
+ * 試験問題分析マッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TExamItemAnalysisMapper {
+
+	/**
+	 * 試験問題分析の置換<br>
+	 * 試験の分析結果を登録・更新し、登録する問題に含まれない問題の行は削除する。
+	 * 
+	 * @param examId
+	 * @param tExamItemAnalysisList
+	 * @return 登録・更新結果
+	 */
+	Boolean replaceList(@Param("examId") Integer examId,
+			@Param("tExamItemAnalysisList") List<TExamItemAnalysis> tExamItemAnalysisList);
+
+	/**
+	 * 試験問題分析取得（試験ID）
+	 * 
+	 * @param examId
+	 * @return 試験問題分析エンティティリスト（問題ID順）
+	 */
+	List<TExamItemAnalysis> findByExamId(@Param("examId") Integer examId);
+
+}
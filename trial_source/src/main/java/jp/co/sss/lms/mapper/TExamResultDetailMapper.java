@@ -1,6 +1,10 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import jp.co.sss.lms.entity.TExamResultDetail;
 
@@ -20,4 +24,28 @@ public interface TExamResultDetailMapper {
 	 */
 	Boolean insert(TExamResultDetail tExamResultDetail);
 
+	/**
+	 * 試験結果詳細一括登録
+	 * 
+	 * @param tExamResultDetailList
+	 * @return 登録結果
+	 */
+	Boolean insertList(
+			@Param("tExamResultDetailList") List<TExamResultDetail> tExamResultDetailList);
+
+	/**
+	 * 試験問題分析用の試験結果詳細取得
+	 * 
+	 * <p>
+	 * 試験の評点対象の試験結果詳細（試験結果ID・問題ID・回答のみ）を試験結果ID順に1行ずつresultHandlerへ渡す。
+	 * 全件をメモリに読み込まないよう、読み取り専用のトランザクション内で呼び出すこと（カーソルで取得する）。
+	 * </p>
+	 * 
+	 * @param examId
+	 * @param deleteFlg
+	 * @param resultHandler
+	 */
+	void getAnalysisDetail(@Param("examId") Integer examId, @Param("deleteFlg") Short deleteFlg,
+			ResultHandler<TExamResultDetail> resultHandler);
+
 }
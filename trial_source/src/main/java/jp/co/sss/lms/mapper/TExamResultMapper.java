@@ -58,6 +58,15 @@ public interface TExamResultMapper {
 	 */
 	Boolean insert(TExamResult tExamResult);
 
+	/**
+	 * 試験結果登録（評点フラグ判定）<br>
+	 * 同じ試験の試験結果が無い場合のみ評点フラグを立てる。同時に登録された試験結果が先に評点対象となった場合は登録しない。
+	 * 
+	 * @param tExamResult
+	 * @return 登録結果（登録しなかった場合はfalse）
+	 */
+	Boolean insertWithMarkFlg(TExamResult tExamResult);
+
 	/**
 	 * 試験件数取得
 	 * 
@@ -0,0 +1,49 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TExamSectionScore;
+import jp.co.sss.lms.entity.TExamSectionStat;
+
+/**
+ * 試験統計マッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TExamSectionStatMapper {
+
+	/**
+	 * 試験結果の反映<br>
+	 * 登録済みの試験結果を試験統計に加算する。評点対象の場合は得点合計・得点分布にも加算する。<br>
+	 * 問題数は試験問題テーブルの現在の件数で更新する。
+	 * 
+	 * @param examResultId
+	 * @param lastModifiedDate
+	 * @param deleteFlg
+	 * @return 更新結果
+	 */
+	Boolean applyResult(@Param("examResultId") Integer examResultId,
+			@Param("lastModifiedDate") Date lastModifiedDate, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 試験統計取得
+	 * 
+	 * @param examSectionId
+	 * @return 試験統計エンティティ（試験結果が無い場合はnull）
+	 */
+	TExamSectionStat findByExamSectionId(@Param("examSectionId") Integer examSectionId);
+
+	/**
+	 * 得点分布取得
+	 * 
+	 * @param examSectionId
+	 * @return 試験得点分布エンティティリスト（得点順）
+	 */
+	List<TExamSectionScore> getScoreList(@Param("examSectionId") Integer examSectionId);
+
+}
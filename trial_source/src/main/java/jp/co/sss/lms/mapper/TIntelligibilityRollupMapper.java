@@ -0,0 +1,45 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TIntelligibilityRollup;
+
+/**
+ * 理解度集計マッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TIntelligibilityRollupMapper {
+
+	/**
+	 * 理解度集計の増減<br>
+	 * 日報提出の現在の理解度を、提出者のコース・同日のセクション・日付・学習項目・理解度毎に件数×増減分だけ加算する。<br>
+	 * 提出者が複数のコースに所属する場合は、提出日にセクションの有るコース（同順位はコースIDの小さいコース）にのみ加算する。
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param delta              増減分（提出前の内容を取り消す場合は-1、提出後の内容を反映する場合は1）
+	 * @param lastModifiedDate
+	 * @param deleteFlg
+	 * @return 更新結果
+	 */
+	Boolean applyDelta(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("delta") Integer delta, @Param("lastModifiedDate") Date lastModifiedDate,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 理解度集計取得（コース・期間）
+	 * 
+	 * @param courseId
+	 * @param dateFrom
+	 * @param dateTo
+	 * @return 理解度集計リスト（日付・セクション・学習項目・理解度順）
+	 */
+	List<TIntelligibilityRollup> findByCourseId(@Param("courseId") Integer courseId,
+			@Param("dateFrom") Date dateFrom, @Param("dateTo") Date dateTo);
+
+}
@@ -5,9 +5,13 @@ import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import jp.co.sss.lms.dto.AttendanceLatenessDto;
 import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.AttendanceMatrixDto;
 import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.util.TrainingTime;
 
 /**
  * 勤怠情報（受講生入力）テーブルマッパー
@@ -49,6 +53,30 @@ public interface TStudentAttendanceMapper {
 	List<AttendanceManagementDto> getAttendanceManagement(@Param("courseId") Integer courseId,
 			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 勤怠情報（受講生入力）取得（コースID）
+	 * 
+	 * @param courseId
+	 * @param role
+	 * @param deleteFlg
+	 * @return 勤怠情報（受講生入力）エンティティ（受講生入力勤怠情報IDの昇順）
+	 */
+	List<TStudentAttendance> findByCourseId(@Param("courseId") Integer courseId,
+			@Param("role") String role, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 過去日の勤怠未入力件数取得
+	 * 
+	 * @param courseId
+	 * @param lmsUserId
+	 * @param deleteFlg
+	 * @param currentDate
+	 * @return 勤怠未入力件数
+	 */
+	int getUnfilledPastCount(@Param("courseId") Integer courseId,
+			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg,
+			@Param("currentDate") Date currentDate);
+
 	/**
 	 * 勤怠情報（受講生入力）登録
 	 * 
@@ -65,4 +93,102 @@ public interface TStudentAttendanceMapper {
 	 */
 	Boolean update(TStudentAttendance tStudentAttendance);
 
+	/**
+	 * 出勤打刻（研修日の勤怠情報を登録・更新）
+	 * 
+	 * <p>
+	 * LMSユーザーID＆日付で1文の登録・更新を行い、未登録・削除済み・出勤時刻未入力の場合のみ反映する。
+	 * 二重送信などで同時に実行された場合も、反映されるのは1回のみ。
+	 * </p>
+	 * 
+	 * @param tStudentAttendance
+	 * @return 登録・更新後の勤怠情報（既に出勤時刻が入力されている場合はnull）
+	 */
+	TStudentAttendance punchIn(TStudentAttendance tStudentAttendance);
+
+	/**
+	 * 退勤打刻（研修日の勤怠情報を更新）
+	 * 
+	 * <p>
+	 * 出勤時刻が取得時から変わっておらず、退勤時刻が未入力の場合のみ反映する。
+	 * </p>
+	 * 
+	 * @param tStudentAttendance
+	 * @return 更新後の勤怠情報（既に退勤時刻が入力されている場合などはnull）
+	 */
+	TStudentAttendance punchOut(TStudentAttendance tStudentAttendance);
+
+	/**
+	 * 勤怠情報（受講生入力）一括登録・更新
+	 * 
+	 * @param tStudentAttendanceList
+	 * @return 登録・更新結果
+	 */
+	Boolean upsertList(
+			@Param("tStudentAttendanceList") List<TStudentAttendance> tStudentAttendanceList);
+
+	/**
+	 * 勤怠情報（受講生入力）ステータス一括更新
+	 * 
+	 * @param tStudentAttendanceList 受講生入力勤怠情報IDと更新後のステータス
+	 * @param lastModifiedUser
+	 * @param lastModifiedDate
+	 * @return 更新件数
+	 */
+	int updateStatusList(
+			@Param("tStudentAttendanceList") List<TStudentAttendance> tStudentAttendanceList,
+			@Param("lastModifiedUser") Integer lastModifiedUser,
+			@Param("lastModifiedDate") Date lastModifiedDate);
+
+	/**
+	 * 勤怠情報（受講生入力）コース一括登録・更新
+	 * 
+	 * @param courseId
+	 * @param role
+	 * @param tStudentAttendance 登録内容（LMSユーザーID・企業アカウントID以外）
+	 * @return 登録・更新結果
+	 */
+	Boolean upsertByCourseId(@Param("courseId") Integer courseId, @Param("role") String role,
+			@Param("tStudentAttendance") TStudentAttendance tStudentAttendance);
+
+	/**
+	 * コース勤怠一覧（受講生×研修日）取得
+	 * 
+	 * <p>
+	 * 受講生ID・研修日の昇順で1行ずつresultHandlerへ渡す。
+	 * 対象の受講生は、lastLmsUserIdより後の受講生をlimit人まで（いずれもnullの場合は全員）。
+	 * </p>
+	 * 
+	 * @param courseId
+	 * @param role
+	 * @param deleteFlg
+	 * @param lastLmsUserId 前ページの最終行のLMSユーザーID
+	 * @param limit         受講生数の上限
+	 * @param resultHandler
+	 */
+	void getAttendanceMatrix(@Param("courseId") Integer courseId, @Param("role") String role,
+			@Param("deleteFlg") Short deleteFlg, @Param("lastLmsUserId") Integer lastLmsUserId,
+			@Param("limit") Integer limit, ResultHandler<AttendanceMatrixDto> resultHandler);
+
+	/**
+	 * コース勤怠集計（遅刻早退・勤務時間）取得
+	 * 
+	 * <p>
+	 * 時刻の分換算列で、研修日単位 → コース単位 → 既定の定時の順に解決した定時と比較して集計する。欠席の日は対象外。
+	 * </p>
+	 * 
+	 * @param courseId
+	 * @param role
+	 * @param deleteFlg
+	 * @param absentStatus  欠席のステータス
+	 * @param workStartTime 既定の定時開始時刻
+	 * @param workEndTime   既定の定時終了時刻
+	 * @return コース勤怠集計DTOリスト（受講生IDの昇順）
+	 */
+	List<AttendanceLatenessDto> getAttendanceLateness(@Param("courseId") Integer courseId,
+			@Param("role") String role, @Param("deleteFlg") Short deleteFlg,
+			@Param("absentStatus") Short absentStatus,
+			@Param("workStartTime") TrainingTime workStartTime,
+			@Param("workEndTime") TrainingTime workEndTime);
+
 }
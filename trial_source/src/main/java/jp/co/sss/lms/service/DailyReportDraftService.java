@@ -0,0 +1,197 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.dto.DailyReportDraftDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TDailyReportDraft;
+import jp.co.sss.lms.form.DailyReportSubmitForm;
+import jp.co.sss.lms.mapper.TDailyReportDraftMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.LoginUserUtil;
+import net.arnx.jsonic.JSON;
+
+/**
+ * レポート下書きサービス
+ *
+ * <p>
+ * レポート登録画面の入力内容を自動保存する。保存要求はメモリ上に受講生・日報・日付毎の最新の1件のみ保持し（連続した保存は1件にまとまる）、
+ * 一定間隔（setting.report.draft.flushSecond）でまとめて下書きテーブルに書き込む。保存要求の処理ではDBにアクセスしない。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class DailyReportDraftService {
+
+	/** 1回の書込件数の上限 */
+	private static final int FLUSH_BATCH_SIZE = 500;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private LoginUserDto loginUserDto;
+	@Autowired
+	private LoginUserUtil loginUserUtil;
+	@Autowired
+	private TDailyReportDraftMapper tDailyReportDraftMapper;
+
+	@Value("${setting.report.draft.flushSecond}")
+	private Integer flushSecond;
+
+	/** 書込待ちの下書き */
+	private final Map<DraftKey, TDailyReportDraft> draftMap = new ConcurrentHashMap<>();
+	/** 書込と削除の排他 */
+	private final Object flushLock = new Object();
+	/** 書込用スレッド */
+	private final ScheduledExecutorService flushExecutorService = Executors
+			.newSingleThreadScheduledExecutor();
+
+	/**
+	 * 定期書込の開始
+	 */
+	@PostConstruct
+	public void start() {
+		flushExecutorService.scheduleWithFixedDelay(this::flush, flushSecond, flushSecond,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 定期書込の停止（書込待ちの下書きは書き込む）
+	 */
+	@PreDestroy
+	public void stop() {
+		flushExecutorService.shutdown();
+		flush();
+	}
+
+	/**
+	 * レポート下書き保存<br>
+	 * 受講生のみ保存する。書込は定期書込で行う。
+	 *
+	 * @param dailyReportSubmitForm
+	 */
+	public void save(DailyReportSubmitForm dailyReportSubmitForm) {
+		if (!loginUserUtil.isStudent() || dailyReportSubmitForm.getDailyReportId() == null
+				|| dailyReportSubmitForm.getDate() == null) {
+			return;
+		}
+		DailyReportDraftDto dailyReportDraftDto = new DailyReportDraftDto();
+		dailyReportDraftDto.setIntFieldNameArray(dailyReportSubmitForm.getIntFieldNameArray());
+		dailyReportDraftDto.setIntFieldValueArray(dailyReportSubmitForm.getIntFieldValueArray());
+		dailyReportDraftDto.setContentArray(dailyReportSubmitForm.getContentArray());
+
+		Date now = new Date();
+		TDailyReportDraft tDailyReportDraft = new TDailyReportDraft();
+		tDailyReportDraft.setLmsUserId(loginUserDto.getLmsUserId());
+		tDailyReportDraft.setDailyReportId(dailyReportSubmitForm.getDailyReportId());
+		tDailyReportDraft.setDate(dailyReportSubmitForm.getDate());
+		tDailyReportDraft.setDraft(JSON.encode(dailyReportDraftDto));
+		tDailyReportDraft.setAccountId(loginUserDto.getAccountId());
+		tDailyReportDraft.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tDailyReportDraft.setFirstCreateUser(loginUserDto.getLmsUserId());
+		tDailyReportDraft.setFirstCreateDate(now);
+		tDailyReportDraft.setLastModifiedUser(loginUserDto.getLmsUserId());
+		tDailyReportDraft.setLastModifiedDate(now);
+
+		// 書込前の下書きは最新のもので置き換える
+		draftMap.put(new DraftKey(tDailyReportDraft.getLmsUserId(),
+				tDailyReportDraft.getDailyReportId(), tDailyReportDraft.getDate().getTime()),
+				tDailyReportDraft);
+	}
+
+	/**
+	 * レポート下書き取得<br>
+	 * 書込待ちの下書きがあればそれを、無ければ下書きテーブルから取得する。
+	 *
+	 * @param lmsUserId
+	 * @param dailyReportId
+	 * @param date
+	 * @return レポート下書きDTO（下書きが無い場合はnull）
+	 */
+	public DailyReportDraftDto getDraft(Integer lmsUserId, Integer dailyReportId, Date date) {
+		TDailyReportDraft tDailyReportDraft = draftMap
+				.get(new DraftKey(lmsUserId, dailyReportId, date.getTime()));
+		if (tDailyReportDraft == null) {
+			tDailyReportDraft = tDailyReportDraftMapper.findByKey(lmsUserId, dailyReportId, date,
+					Constants.DB_FLG_FALSE);
+		}
+		if (tDailyReportDraft == null) {
+			return null;
+		}
+		return JSON.decode(tDailyReportDraft.getDraft(), DailyReportDraftDto.class);
+	}
+
+	/**
+	 * レポート下書き削除（レポート提出時）
+	 *
+	 * @param lmsUserId
+	 * @param dailyReportId
+	 * @param date
+	 */
+	public void delete(Integer lmsUserId, Integer dailyReportId, Date date) {
+		// 書込中の下書きが削除後に書き込まれないよう、書込と排他する
+		synchronized (flushLock) {
+			draftMap.remove(new DraftKey(lmsUserId, dailyReportId, date.getTime()));
+			tDailyReportDraftMapper.delete(lmsUserId, dailyReportId, date);
+		}
+	}
+
+	/**
+	 * 書込待ちの下書きを下書きテーブルに書き込む
+	 */
+	public void flush() {
+		synchronized (flushLock) {
+			while (!draftMap.isEmpty()) {
+				List<TDailyReportDraft> tDailyReportDraftList = new ArrayList<>();
+				Iterator<Map.Entry<DraftKey, TDailyReportDraft>> iterator = draftMap.entrySet()
+						.iterator();
+				while (iterator.hasNext() && tDailyReportDraftList.size() < FLUSH_BATCH_SIZE) {
+					Map.Entry<DraftKey, TDailyReportDraft> entry = iterator.next();
+					// 取り出す間に更新された下書きは次回書き込む
+					if (draftMap.remove(entry.getKey(), entry.getValue())) {
+						tDailyReportDraftList.add(entry.getValue());
+					}
+				}
+				if (tDailyReportDraftList.isEmpty()) {
+					return;
+				}
+				try {
+					tDailyReportDraftMapper.upsertList(tDailyReportDraftList);
+				} catch (RuntimeException e) {
+					// 書き込めなかった下書きは、より新しい下書きが無ければ次回書き込む
+					for (TDailyReportDraft tDailyReportDraft : tDailyReportDraftList) {
+						draftMap.putIfAbsent(new DraftKey(tDailyReportDraft.getLmsUserId(),
+								tDailyReportDraft.getDailyReportId(),
+								tDailyReportDraft.getDate().getTime()), tDailyReportDraft);
+					}
+					logger.warn("レポート下書きの書込に失敗しました。" + tDailyReportDraftList.size() + "件", e);
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 下書きのキー（LMSユーザーID・日報ID・日付）
+	 */
+	private record DraftKey(Integer lmsUserId, Integer dailyReportId, long date) {
+	}
+
+}
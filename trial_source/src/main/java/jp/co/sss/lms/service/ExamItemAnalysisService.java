@@ -0,0 +1,430 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.dto.ExamItemAnalysisDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.entity.TExamItemAnalysis;
+import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamItemAnalysisMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamSnapshotCache;
+import jp.co.sss.lms.util.ExamSnapshotCache.ExamSnapshot;
+
+/**
+ * 試験問題分析サービス
+ *
+ * <p>
+ * 評点対象（初回）の試験結果から、問題毎の正答率・識別力（項目－残余の点双列相関）・選択肢毎の回答数を求め、試験問題分析テーブルに保存する。
+ * 試験結果詳細はカーソルで試験結果ID順に読み込み、一定件数の受験者毎にまとめてフォーク／ジョインプールで集計する。
+ * 保持するのは集計中のまとまりと問題毎の合計のみのため、試験結果詳細の件数によらずメモリ使用量は一定となる。
+ * 正誤は現在の正答で判定する。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class ExamItemAnalysisService {
+
+	/** 1回の集計にまとめる受験者数 */
+	private static final int CHUNK_SIZE = 1000;
+	/** 集計中のまとまりの上限（並列数に対する倍数） */
+	private static final int MAX_CHUNK_PER_THREAD = 2;
+	/** 易しすぎる問題の正答率 */
+	private static final double TOO_EASY_DIFFICULTY = 0.9;
+	/** 難しすぎる問題の正答率 */
+	private static final double TOO_HARD_DIFFICULTY = 0.3;
+	/** 識別力の低い問題の識別力 */
+	private static final double LOW_DISCRIMINATION = 0.2;
+	/** 評価に必要な受験者数 */
+	private static final int MIN_ATTEMPT_COUNT = 10;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private MExamMapper mExamMapper;
+	@Autowired
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Autowired
+	private TExamItemAnalysisMapper tExamItemAnalysisMapper;
+	@Autowired
+	private ExamSnapshotCache examSnapshotCache;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/** 試験結果詳細の読込用（読み取り専用） */
+	private TransactionTemplate readOnlyTransactionTemplate;
+	/** 分析実行中フラグ */
+	private final AtomicBoolean running = new AtomicBoolean();
+	/** 分析用スレッド */
+	private final ExecutorService analysisExecutorService = Executors.newSingleThreadExecutor();
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+		readOnlyTransactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * 分析用スレッドの停止
+	 */
+	@PreDestroy
+	public void stop() {
+		analysisExecutorService.shutdownNow();
+	}
+
+	/**
+	 * 試験問題分析の開始<br>
+	 * 分析は分析用スレッドで行い、完了を待たずに戻る。
+	 *
+	 * @param examId 試験ID（nullの場合は全試験）
+	 * @return 開始した場合：true、分析を実行中の場合：false
+	 */
+	public boolean start(Integer examId) {
+		if (!running.compareAndSet(false, true)) {
+			return false;
+		}
+		try {
+			analysisExecutorService.execute(() -> {
+				try {
+					List<Integer> examIdList = examId == null
+							? mExamMapper.getExamIdList(Constants.DB_FLG_FALSE)
+							: List.of(examId);
+					for (Integer id : examIdList) {
+						analyze(id);
+					}
+				} catch (RuntimeException e) {
+					logger.warn("試験問題分析に失敗しました。", e);
+				} finally {
+					running.set(false);
+				}
+			});
+		} catch (RuntimeException e) {
+			running.set(false);
+			throw e;
+		}
+		return true;
+	}
+
+	/**
+	 * 試験問題分析（1試験）
+	 *
+	 * @param examId
+	 * @return 分析した受験者数（試験が存在しない場合は0）
+	 */
+	public int analyze(Integer examId) {
+		ExamSnapshot examSnapshot = examSnapshotCache.get(examId);
+		if (examSnapshot == null || examSnapshot.size() == 0) {
+			return 0;
+		}
+		// 問題ID→問題番号・正答
+		int questionCount = examSnapshot.size();
+		Map<Integer, Integer> questionIndexMap = new HashMap<>();
+		short[] answerNums = new short[questionCount];
+		for (int i = 0; i < questionCount; i++) {
+			questionIndexMap.put(examSnapshot.getQuestionId(i), i);
+			answerNums[i] = examSnapshot.getAnswerNum(i);
+		}
+
+		long startTime = System.currentTimeMillis();
+		DetailAccumulator accumulator = new DetailAccumulator(questionIndexMap, answerNums);
+		readOnlyTransactionTemplate.executeWithoutResult(status -> {
+			tExamResultDetailMapper.getAnalysisDetail(examId, Constants.DB_FLG_FALSE, accumulator);
+			accumulator.flush();
+		});
+		ItemStats total = accumulator.getTotal();
+
+		// 分析結果の保存
+		Date now = new Date();
+		List<TExamItemAnalysis> tExamItemAnalysisList = new ArrayList<>(questionCount);
+		for (int i = 0; i < questionCount; i++) {
+			TExamItemAnalysis tExamItemAnalysis = new TExamItemAnalysis();
+			tExamItemAnalysis.setExamId(examId);
+			tExamItemAnalysis.setQuestionId(examSnapshot.getQuestionId(i));
+			tExamItemAnalysis.setAttemptCount(total.attemptCount);
+			tExamItemAnalysis.setCorrectCount(total.correctCount[i]);
+			tExamItemAnalysis.setDifficulty(total.getDifficulty(i));
+			tExamItemAnalysis.setDiscrimination(total.getDiscrimination(i));
+			tExamItemAnalysis.setNoAnswerCount(total.replyCount[i][0]);
+			tExamItemAnalysis.setChoice1Count(total.replyCount[i][1]);
+			tExamItemAnalysis.setChoice2Count(total.replyCount[i][2]);
+			tExamItemAnalysis.setChoice3Count(total.replyCount[i][3]);
+			tExamItemAnalysis.setChoice4Count(total.replyCount[i][4]);
+			tExamItemAnalysis.setLastModifiedDate(now);
+			tExamItemAnalysisList.add(tExamItemAnalysis);
+		}
+		tExamItemAnalysisMapper.replaceList(examId, tExamItemAnalysisList);
+
+		logger.info("試験問題を分析しました。試験ID：" + examId + "、受験者数：" + total.attemptCount + "、処理時間："
+				+ (System.currentTimeMillis() - startTime) + "ms");
+		return total.attemptCount;
+	}
+
+	/**
+	 * 試験問題分析の取得
+	 *
+	 * @param examId
+	 * @return 試験問題分析DTOリスト（問題順、分析していない問題は含まない）
+	 */
+	public List<ExamItemAnalysisDto> getExamItemAnalysisList(Integer examId) {
+		ExamSnapshot examSnapshot = examSnapshotCache.get(examId);
+		if (examSnapshot == null) {
+			return List.of();
+		}
+		Map<Integer, TExamItemAnalysis> tExamItemAnalysisMap = new HashMap<>();
+		for (TExamItemAnalysis tExamItemAnalysis : tExamItemAnalysisMapper.findByExamId(examId)) {
+			tExamItemAnalysisMap.put(tExamItemAnalysis.getQuestionId(), tExamItemAnalysis);
+		}
+		List<ExamItemAnalysisDto> examItemAnalysisDtoList = new ArrayList<>();
+		List<QuestionDto> questionDtoList = examSnapshot.createQuestionDtoList();
+		for (int i = 0; i < examSnapshot.size(); i++) {
+			TExamItemAnalysis tExamItemAnalysis = tExamItemAnalysisMap
+					.get(examSnapshot.getQuestionId(i));
+			if (tExamItemAnalysis == null) {
+				continue;
+			}
+			ExamItemAnalysisDto examItemAnalysisDto = new ExamItemAnalysisDto();
+			examItemAnalysisDto.setQuestionId(tExamItemAnalysis.getQuestionId());
+			examItemAnalysisDto.setQuestion(questionDtoList.get(i).getQuestion());
+			examItemAnalysisDto.setAnswerNum(examSnapshot.getAnswerNum(i));
+			examItemAnalysisDto.setAttemptCount(tExamItemAnalysis.getAttemptCount());
+			examItemAnalysisDto.setDifficulty(tExamItemAnalysis.getDifficulty());
+			examItemAnalysisDto.setDiscrimination(tExamItemAnalysis.getDiscrimination());
+			examItemAnalysisDto.setReplyCount(new int[] { tExamItemAnalysis.getNoAnswerCount(),
+					tExamItemAnalysis.getChoice1Count(), tExamItemAnalysis.getChoice2Count(),
+					tExamItemAnalysis.getChoice3Count(), tExamItemAnalysis.getChoice4Count() });
+			// 受験者が少ない問題は評価しない
+			if (tExamItemAnalysis.getAttemptCount() >= MIN_ATTEMPT_COUNT) {
+				Double difficulty = tExamItemAnalysis.getDifficulty();
+				Double discrimination = tExamItemAnalysis.getDiscrimination();
+				examItemAnalysisDto.setTooEasy(difficulty != null && difficulty > TOO_EASY_DIFFICULTY);
+				examItemAnalysisDto.setTooHard(difficulty != null && difficulty < TOO_HARD_DIFFICULTY);
+				examItemAnalysisDto.setLowDiscrimination(
+						discrimination == null || discrimination < LOW_DISCRIMINATION);
+			}
+			examItemAnalysisDto.setLastModifiedDate(tExamItemAnalysis.getLastModifiedDate());
+			examItemAnalysisDtoList.add(examItemAnalysisDto);
+		}
+		return examItemAnalysisDtoList;
+	}
+
+	/**
+	 * 試験結果詳細の集計<br>
+	 * カーソルで読み込んだ試験結果詳細を受験者毎の回答にまとめ、一定件数毎にフォーク／ジョインプールで集計する。
+	 */
+	private static final class DetailAccumulator implements ResultHandler<TExamResultDetail> {
+
+		/** 問題ID→問題番号 */
+		private final Map<Integer, Integer> questionIndexMap;
+		/** 問題順の正答 */
+		private final short[] answerNums;
+		/** 集計中のまとまりの上限 */
+		private final int maxTaskCount = ForkJoinPool.commonPool().getParallelism()
+				* MAX_CHUNK_PER_THREAD;
+		/** 集計中のまとまり */
+		private final Deque<ForkJoinTask<ItemStats>> taskDeque = new ArrayDeque<>();
+		/** 合計 */
+		private final ItemStats total;
+		/** 読込中のまとまり（受験者毎の回答） */
+		private short[][] chunk = new short[CHUNK_SIZE][];
+		/** 読込中のまとまりの受験者数 */
+		private int chunkCount;
+		/** 読込中の受験者の試験結果ID */
+		private Integer currentExamResultId;
+		/** 読込中の受験者の回答 */
+		private short[] replies;
+
+		DetailAccumulator(Map<Integer, Integer> questionIndexMap, short[] answerNums) {
+			this.questionIndexMap = questionIndexMap;
+			this.answerNums = answerNums;
+			this.total = new ItemStats(answerNums.length);
+		}
+
+		@Override
+		public void handleResult(ResultContext<? extends TExamResultDetail> resultContext) {
+			TExamResultDetail tExamResultDetail = resultContext.getResultObject();
+			if (!tExamResultDetail.getExamResultId().equals(currentExamResultId)) {
+				// まとまりは次の受験者の読込開始時に集計する（最後の受験者の回答が揃ってから渡す）
+				if (chunkCount == CHUNK_SIZE) {
+					flush();
+				}
+				currentExamResultId = tExamResultDetail.getExamResultId();
+				replies = new short[answerNums.length];
+				chunk[chunkCount++] = replies;
+			}
+			Integer index = questionIndexMap.get(tExamResultDetail.getQuestionId());
+			Short reply = tExamResultDetail.getReply();
+			// 削除された問題と、選択肢の範囲外の回答（未回答扱い）は集計しない
+			if (index != null && reply != null && reply >= 1 && reply <= 4) {
+				replies[index] = reply;
+			}
+		}
+
+		/**
+		 * 読込中のまとまりの集計開始
+		 */
+		void flush() {
+			if (chunkCount == 0) {
+				return;
+			}
+			short[][] attempts = chunk;
+			int count = chunkCount;
+			taskDeque.addLast(ForkJoinPool.commonPool()
+					.submit(() -> ItemStats.of(attempts, count, answerNums)));
+			chunk = new short[CHUNK_SIZE][];
+			chunkCount = 0;
+			// 集計中のまとまりが上限に達したら、古いものから合計する
+			while (taskDeque.size() >= maxTaskCount) {
+				total.merge(taskDeque.removeFirst().join());
+			}
+		}
+
+		/**
+		 * 合計取得（集計中のまとまりの完了を待つ）
+		 *
+		 * @return 合計
+		 */
+		ItemStats getTotal() {
+			while (!taskDeque.isEmpty()) {
+				total.merge(taskDeque.removeFirst().join());
+			}
+			return total;
+		}
+
+	}
+
+	/**
+	 * 問題毎の集計（まとまり毎に作成し、合計に加算する）
+	 */
+	static final class ItemStats {
+
+		/** 受験者数 */
+		private int attemptCount;
+		/** 得点の合計 */
+		private long scoreSum;
+		/** 得点の二乗の合計 */
+		private long scoreSquareSum;
+		/** 問題毎の正答数 */
+		private final int[] correctCount;
+		/** 問題毎の正答した受験者の得点の合計 */
+		private final long[] correctScoreSum;
+		/** 問題毎の回答数（未回答・選択肢1～4） */
+		private final int[][] replyCount;
+
+		ItemStats(int questionCount) {
+			correctCount = new int[questionCount];
+			correctScoreSum = new long[questionCount];
+			replyCount = new int[questionCount][5];
+		}
+
+		/**
+		 * まとまりの集計
+		 *
+		 * @param attempts   受験者毎の問題順の回答（未回答は0）
+		 * @param count      受験者数
+		 * @param answerNums 問題順の正答
+		 * @return 集計
+		 */
+		static ItemStats of(short[][] attempts, int count, short[] answerNums) {
+			ItemStats itemStats = new ItemStats(answerNums.length);
+			for (int a = 0; a < count; a++) {
+				short[] replies = attempts[a];
+				int score = 0;
+				for (int i = 0; i < answerNums.length; i++) {
+					if (replies[i] != 0 && replies[i] == answerNums[i]) {
+						score++;
+					}
+				}
+				for (int i = 0; i < answerNums.length; i++) {
+					itemStats.replyCount[i][replies[i]]++;
+					if (replies[i] != 0 && replies[i] == answerNums[i]) {
+						itemStats.correctCount[i]++;
+						itemStats.correctScoreSum[i] += score;
+					}
+				}
+				itemStats.attemptCount++;
+				itemStats.scoreSum += score;
+				itemStats.scoreSquareSum += (long) score * score;
+			}
+			return itemStats;
+		}
+
+		/**
+		 * 集計の加算
+		 *
+		 * @param other
+		 */
+		void merge(ItemStats other) {
+			attemptCount += other.attemptCount;
+			scoreSum += other.scoreSum;
+			scoreSquareSum += other.scoreSquareSum;
+			for (int i = 0; i < correctCount.length; i++) {
+				correctCount[i] += other.correctCount[i];
+				correctScoreSum[i] += other.correctScoreSum[i];
+				for (int r = 0; r < replyCount[i].length; r++) {
+					replyCount[i][r] += other.replyCount[i][r];
+				}
+			}
+		}
+
+		/**
+		 * 正答率
+		 *
+		 * @param index
+		 * @return 正答率（受験者がいない場合はnull）
+		 */
+		Double getDifficulty(int index) {
+			return attemptCount == 0 ? null : (double) correctCount[index] / attemptCount;
+		}
+
+		/**
+		 * 識別力（問題の正誤と、その問題を除いた得点との相関係数）
+		 *
+		 * @param index
+		 * @return 識別力（全員が正答・誤答した場合など、求められない場合はnull）
+		 */
+		Double getDiscrimination(int index) {
+			double n = attemptCount;
+			// x：問題の正誤（0/1）、y：その問題を除いた得点
+			double sumX = correctCount[index];
+			double sumY = scoreSum - sumX;
+			double sumXY = correctScoreSum[index] - sumX;
+			double sumYY = scoreSquareSum - 2.0 * correctScoreSum[index] + sumX;
+			double varX = n * sumX - sumX * sumX;
+			double varY = n * sumYY - sumY * sumY;
+			if (varX <= 0 || varY <= 0) {
+				return null;
+			}
+			return (n * sumXY - sumX * sumY) / Math.sqrt(varX * varY);
+		}
+
+	}
+
+}
@@ -1,27 +1,31 @@
 package jp.co.sss.lms.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import jp.co.sss.lms.dto.ExamAttemptDto;
 import jp.co.sss.lms.dto.ExamDetailDto;
-import jp.co.sss.lms.dto.ExamQuestionDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ExamSectionStatDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.dto.QuestionDto;
-import jp.co.sss.lms.entity.MQuestion;
 import jp.co.sss.lms.entity.TExamResult;
 import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.entity.TExamSectionScore;
+import jp.co.sss.lms.entity.TExamSectionStat;
 import jp.co.sss.lms.form.ExamQuestionForm;
-import jp.co.sss.lms.mapper.MExamMapper;
-import jp.co.sss.lms.mapper.MQuestionMapper;
 import jp.co.sss.lms.mapper.TExamResultDetailMapper;
 import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.mapper.TExamSectionStatMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamSnapshotCache;
+import jp.co.sss.lms.util.ExamSnapshotCache.ExamSnapshot;
 
 /**
  * 試験情報サービス
@@ -31,16 +35,21 @@ import jp.co.sss.lms.util.Constants;
 @Service
 public class ExamService {
 
+	/** 制限時間経過後に回答を受け付ける猶予（自動送信の通信時間、ミリ秒） */
+	private static final long TIME_LIMIT_GRACE_MSEC = 30_000L;
+
 	@Autowired
 	private TExamResultMapper tExamResultMapper;
 	@Autowired
-	private MExamMapper mExamMapper;
-	@Autowired
 	private TExamResultDetailMapper tExamResultDetailMapper;
 	@Autowired
-	private MQuestionMapper mQuestionMapper;
+	private TExamSectionStatMapper tExamSectionStatMapper;
+	@Autowired
+	private ExamSnapshotCache examSnapshotCache;
 	@Autowired
 	private LoginUserDto loginUserDto;
+	@Autowired
+	private ExamAttemptDto examAttemptDto;
 
 	/**
 	 * 試験詳細情報を取得
@@ -85,81 +94,164 @@ public class ExamService {
 	}
 
 	/**
-	 * 試験問題画面フォームの設定
+	 * 試験統計取得<br>
+	 * 受験回数・平均点・得点分布を試験統計テーブルから取得する。
+	 * 
+	 * @param examSectionId
+	 * @return 試験統計DTO（試験結果が無い場合はnull）
+	 */
+	public ExamSectionStatDto getExamSectionStat(Integer examSectionId) {
+
+		TExamSectionStat tExamSectionStat = tExamSectionStatMapper
+				.findByExamSectionId(examSectionId);
+		if (tExamSectionStat == null) {
+			return null;
+		}
+		ExamSectionStatDto examSectionStatDto = new ExamSectionStatDto();
+		examSectionStatDto.setExamSectionId(tExamSectionStat.getExamSectionId());
+		examSectionStatDto.setAttemptCount(tExamSectionStat.getAttemptCount());
+		examSectionStatDto.setMarkCount(tExamSectionStat.getMarkCount());
+		examSectionStatDto.setQuestionCount(tExamSectionStat.getQuestionCount());
+		examSectionStatDto.setLastModifiedDate(tExamSectionStat.getLastModifiedDate());
+		if (tExamSectionStat.getMarkCount() > 0) {
+			examSectionStatDto.setAverageScore(
+					(double) tExamSectionStat.getMarkScoreSum() / tExamSectionStat.getMarkCount());
+		}
+		// 得点分布（得点0～問題数、問題数の減った試験の過去の得点も含める）
+		List<TExamSectionScore> tExamSectionScoreList = tExamSectionStatMapper
+				.getScoreList(examSectionId);
+		int maxScore = tExamSectionStat.getQuestionCount() == null ? 0
+				: tExamSectionStat.getQuestionCount();
+		for (TExamSectionScore tExamSectionScore : tExamSectionScoreList) {
+			maxScore = Math.max(maxScore, tExamSectionScore.getScore());
+		}
+		int[] scoreCount = new int[maxScore + 1];
+		for (TExamSectionScore tExamSectionScore : tExamSectionScoreList) {
+			scoreCount[tExamSectionScore.getScore()] = tExamSectionScore.getCount();
+		}
+		examSectionStatDto.setScoreCount(scoreCount);
+
+		return examSectionStatDto;
+	}
+
+	/**
+	 * 受験開始<br>
+	 * 回答・開始日時はセッションで保持し、画面には受験IDのみを渡す。
 	 * 
 	 * @param examQuestionForm
+	 * @return 開始した場合：true、試験が存在しない場合：false
 	 */
-	public void setExamQuestionForm(ExamQuestionForm examQuestionForm) {
-		// 試験問題情報を取得
-		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestion(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
-		BeanUtils.copyProperties(examQuestionDto, examQuestionForm);
-		// 試験問題情報を基に試験問題DTO．問題DTOリスト．回答リストを設定
-		for (QuestionDto questionDto : examQuestionForm.getQuestionDtoList()) {
-			List<String> answerList = new LinkedList<>();
-			answerList.add(questionDto.getChoice1());
-			answerList.add(questionDto.getChoice2());
-			answerList.add(questionDto.getChoice3());
-			answerList.add(questionDto.getChoice4());
-			questionDto.setAnswerList(answerList);
+	public boolean startExamAttempt(ExamQuestionForm examQuestionForm) {
+		ExamSnapshot examSnapshot = examSnapshotCache.get(examQuestionForm.getExamId());
+		if (examSnapshot == null) {
+			return false;
 		}
-		// 経過時間の初期化
-		if (examQuestionForm.getTime() == null) {
-			examQuestionForm.setTime(0);
+		String attemptId = examAttemptDto.start(examSnapshot, examQuestionForm.getSectionId(),
+				examQuestionForm.getExamSectionId(), System.currentTimeMillis());
+		examQuestionForm.setAttemptId(attemptId);
+		return true;
+	}
+
+	/**
+	 * 試験問題画面フォームの設定<br>
+	 * 送信された回答を受験中の試験に反映し、回答・経過時間はセッションの値を設定する。制限時間の経過後に送信された回答は反映しない。
+	 * 
+	 * @param examQuestionForm
+	 * @return 設定した場合：true、受験中でない場合：false
+	 */
+	public boolean setExamQuestionForm(ExamQuestionForm examQuestionForm) {
+		String attemptId = examQuestionForm.getAttemptId();
+		if (!examAttemptDto.isCurrent(attemptId)) {
+			return false;
 		}
-		// 回答の再設定
-		int questionCount = examQuestionDto.getQuestionDtoList().size();
-		Short[] answerArray = new Short[questionCount];
-		Short[] userAnswer = examQuestionForm.getAnswer();
-		if (userAnswer != null) {
-			for (int i = 0; i < userAnswer.length; i++) {
-				answerArray[i] = userAnswer[i];
-			}
+		// 試験問題情報を取得（開始時のスナップショット、問題・回答リストは都度作成する）
+		ExamSnapshot examSnapshot = examAttemptDto.getExamSnapshot();
+		// 回答の反映（制限時間内に送信されたもののみ）
+		long elapsedTime = System.currentTimeMillis() - examAttemptDto.getStartTime();
+		if (!isTimeOver(examSnapshot, elapsedTime)
+				&& !examAttemptDto.applyAnswer(attemptId, examQuestionForm.getAnswer())) {
+			return false;
+		}
+		examQuestionForm.setExamId(examSnapshot.getExamId());
+		examQuestionForm.setSectionId(examAttemptDto.getSectionId());
+		examQuestionForm.setExamSectionId(examAttemptDto.getExamSectionId());
+		examQuestionForm.setExamName(examSnapshot.getExamName());
+		examQuestionForm.setLimitTime(examSnapshot.getLimitTime());
+		examQuestionForm.setQuestionDtoList(examSnapshot.createQuestionDtoList());
+		// 経過時間（残り時間の表示用）
+		examQuestionForm.setTime((int) getRecordTime(examSnapshot, elapsedTime));
+		// 回答の設定（未回答はnull）
+		short[] replies = examAttemptDto.getReplies();
+		Short[] answerArray = new Short[examSnapshot.size()];
+		for (int i = 0; i < answerArray.length && i < replies.length; i++) {
+			answerArray[i] = replies[i] == 0 ? null : replies[i];
 		}
 		examQuestionForm.setAnswer(answerArray);
+		return true;
+	}
+
+	/**
+	 * 制限時間の経過判定（自動送信の通信時間を猶予する）
+	 * 
+	 * @param examSnapshot
+	 * @param elapsedTime  経過時間（ミリ秒）
+	 * @return 判定結果
+	 */
+	private boolean isTimeOver(ExamSnapshot examSnapshot, long elapsedTime) {
+		return examSnapshot.getLimitTime() != null
+				&& elapsedTime > examSnapshot.getLimitTime() * 60_000L + TIME_LIMIT_GRACE_MSEC;
+	}
+
+	/**
+	 * 記録する経過時間（制限時間を上限とする）
+	 * 
+	 * @param examSnapshot
+	 * @param elapsedTime  経過時間（ミリ秒）
+	 * @return 経過時間（ミリ秒）
+	 */
+	private long getRecordTime(ExamSnapshot examSnapshot, long elapsedTime) {
+		if (examSnapshot.getLimitTime() == null) {
+			return elapsedTime;
+		}
+		return Math.min(elapsedTime, examSnapshot.getLimitTime() * 60_000L);
 	}
 
 	/**
-	 * 試験結果登録
+	 * 試験結果登録<br>
+	 * 回答・経過時間はセッションで保持した値を使用し、受験は終了する（二重送信は登録しない）。
+	 * 評点フラグは試験結果の登録と同じSQLで判定し、試験結果詳細は1回のSQLで一括登録する。試験統計も同じトランザクションで加算する。
 	 * 
 	 * @param examQuestionForm
-	 * @return examResultId
+	 * @return examResultId（受験中でない場合はnull）
 	 */
+	@Transactional
 	public Integer insert(ExamQuestionForm examQuestionForm) {
 
-		// 試験IDに紐づく試験問題リストを取得
-		List<MQuestion> mQuestionList = mQuestionMapper.findByExamId(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
+		String attemptId = examQuestionForm.getAttemptId();
+		if (!examAttemptDto.isCurrent(attemptId)) {
+			return null;
+		}
+		// 開始時の試験問題（表示と同じスナップショット）で採点する
+		ExamSnapshot examSnapshot = examAttemptDto.getExamSnapshot();
+		long elapsedTime = System.currentTimeMillis() - examAttemptDto.getStartTime();
+		// 問題順の回答（未回答は0）
+		short[] replies = examAttemptDto.getReplies();
+		if (!examAttemptDto.finish(attemptId)) {
+			return null;
+		}
+		examQuestionForm.setExamId(examSnapshot.getExamId());
+		examQuestionForm.setSectionId(examAttemptDto.getSectionId());
+		examQuestionForm.setExamSectionId(examAttemptDto.getExamSectionId());
 
 		// 現在日時情報
 		Date now = new Date();
 
-		// 試験結果エンティティを生成
+		// 試験結果の設定（得点設定）
 		TExamResult tExamResult = new TExamResult();
-
-		// 得点設定
-		Short score = 0;
-		Short[] answerArray = examQuestionForm.getAnswer();
-		for (int i = 0; i < answerArray.length; i++) {
-			if (answerArray[i] != null && answerArray[i] == mQuestionList.get(i).getAnswerNum()) {
-				score++;
-			}
-		}
-
-		// 試験結果件数取得
-		Integer examCount = tExamResultMapper.getExamCount(examQuestionForm.getExamSectionId(),
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
-
-		// 試験結果の設定
 		tExamResult.setExamSectionId(examQuestionForm.getExamSectionId());
 		tExamResult.setLmsUserId(loginUserDto.getLmsUserId());
-		tExamResult.setScore(score);
-		tExamResult.setTime(examQuestionForm.getTime());
-		if (examCount == 0) {
-			tExamResult.setMarkFlg(Constants.DB_FLG_TRUE);
-		} else {
-			tExamResult.setMarkFlg(Constants.DB_FLG_FALSE);
-		}
+		tExamResult.setScore((short) examSnapshot.countCorrect(replies));
+		tExamResult.setTime((int) getRecordTime(examSnapshot, elapsedTime));
 		tExamResult.setAccountId(loginUserDto.getAccountId());
 		tExamResult.setDeleteFlg(Constants.DB_FLG_FALSE);
 		tExamResult.setFirstCreateUser(loginUserDto.getLmsUserId());
@@ -167,31 +259,36 @@ public class ExamService {
 		tExamResult.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tExamResult.setLastModifiedDate(now);
 
-		// 試験結果へ登録
-		tExamResultMapper.insert(tExamResult);
+		// 試験結果へ登録（同じ試験の試験結果が無い場合のみ評点対象）
+		// 同時に登録された初回の試験結果が先に評点対象となった場合は登録されないため、再度登録する（評点対象外となる）
+		if (!tExamResultMapper.insertWithMarkFlg(tExamResult)) {
+			tExamResultMapper.insertWithMarkFlg(tExamResult);
+		}
+
+		// 試験統計へ反映（受験回数・評点対象の得点合計・得点分布・問題数）
+		tExamSectionStatMapper.applyResult(tExamResult.getExamResultId(), now,
+				Constants.DB_FLG_FALSE);
 
-		// 試験結果詳細登録
-		for (int j = 0; j < mQuestionList.size(); j++) {
-			// 試験結果詳細を生成
+		// 試験結果詳細を生成
+		List<TExamResultDetail> tExamResultDetailList = new ArrayList<>(replies.length);
+		for (int j = 0; j < replies.length; j++) {
 			TExamResultDetail tExamResultDetail = new TExamResultDetail();
 			tExamResultDetail.setExamResultId(tExamResult.getExamResultId());
 			tExamResultDetail.setLmsUserId(loginUserDto.getLmsUserId());
-			tExamResultDetail.setQuestionId(mQuestionList.get(j).getQuestionId());
-			Short reply = 0;
-			try {
-				reply = examQuestionForm.getAnswer()[j];
-			} catch (Exception e) {
-				reply = 0;
-			}
-			tExamResultDetail.setReply(reply);
+			tExamResultDetail.setQuestionId(examSnapshot.getQuestionId(j));
+			// 未回答はnullで登録する
+			tExamResultDetail.setReply(replies[j] == 0 ? null : replies[j]);
 			tExamResultDetail.setAccountId(loginUserDto.getAccountId());
 			tExamResultDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
 			tExamResultDetail.setFirstCreateUser(loginUserDto.getLmsUserId());
 			tExamResultDetail.setFirstCreateDate(now);
 			tExamResultDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tExamResultDetail.setLastModifiedDate(now);
-			// 試験結果詳細へ登録
-			tExamResultDetailMapper.insert(tExamResultDetail);
+			tExamResultDetailList.add(tExamResultDetail);
+		}
+		// 試験結果詳細へ一括登録
+		if (!tExamResultDetailList.isEmpty()) {
+			tExamResultDetailMapper.insertList(tExamResultDetailList);
 		}
 
 		return tExamResult.getExamResultId();
@@ -12,8 +12,11 @@ import jp.co.sss.lms.dto.WorkbookDto;
 import jp.co.sss.lms.mapper.TMeetingMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.ExcelSheetWriter;
+import jp.co.sss.lms.util.ExcelTemplateCache;
 import jp.co.sss.lms.util.ExcelUtil;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.XlsxTemplateFiller;
 
 /**
  * 面談情報サービス
@@ -29,6 +32,8 @@ public class MeetingService {
 	private MessageUtil messageUtil;
 	@Autowired
 	private DateUtil dateUtil;
+	@Autowired
+	private ExcelTemplateCache excelTemplateCache;
 
 	/**
 	 * 面談記録ファイルのダウンロード
@@ -47,19 +52,24 @@ public class MeetingService {
 		// テンプレートファイルのパスを設定
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
 		String excelFilePath = commonFileDir + "/" + meetingDownloadDto.getFileName();
-		ExcelUtil excelUtil = new ExcelUtil(excelFilePath);
+		// 数式を含まないテンプレートは、POIを使用せずに直接書き込む
+		XlsxTemplateFiller xlsxTemplateFiller = excelTemplateCache.openFiller(excelFilePath);
+		ExcelUtil excelUtil = xlsxTemplateFiller == null ? excelTemplateCache.open(excelFilePath)
+				: null;
+		ExcelSheetWriter excelSheetWriter = xlsxTemplateFiller != null ? xlsxTemplateFiller
+				: excelUtil;
 
 		// 企業名
-		excelUtil.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowCompany(),
+		excelSheetWriter.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowCompany(),
 				meetingDownloadDto.getClmCompany(), meetingDownloadDto.getCompanyName());
 		// ユーザー名
-		excelUtil.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowUser(),
+		excelSheetWriter.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowUser(),
 				meetingDownloadDto.getClmUser(), meetingDownloadDto.getInterviewee());
 		// 面談実施日
-		excelUtil.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowDate(),
+		excelSheetWriter.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowDate(),
 				meetingDownloadDto.getClmDate(), meetingDownloadDto.getInterviewDate());
 		// 面談実施者
-		excelUtil.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowDate(),
+		excelSheetWriter.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowDate(),
 				meetingDownloadDto.getClmUser(), meetingDownloadDto.getInterviewer());
 		// 面談内容
 		int rowTechnical = meetingDownloadDto.getRowMeeting() - 1;
@@ -68,13 +78,13 @@ public class MeetingService {
 			int row = meetingDetailDto.getQuestionType() == 0 ? rowTechnical : rowHuman;
 			int col = meetingDownloadDto.getClmMeeting();
 			// 質問
-			excelUtil.setVal(meetingDownloadDto.getSheetName(), ++row, col,
+			excelSheetWriter.setVal(meetingDownloadDto.getSheetName(), ++row, col,
 					meetingDetailDto.getQuestion());
 			// 回答
-			excelUtil.setVal(meetingDownloadDto.getSheetName(), row, ++col,
+			excelSheetWriter.setVal(meetingDownloadDto.getSheetName(), row, ++col,
 					meetingDetailDto.getAnswer());
 			// フォロー
-			excelUtil.setVal(meetingDownloadDto.getSheetName(), row, ++col,
+			excelSheetWriter.setVal(meetingDownloadDto.getSheetName(), row, ++col,
 					meetingDetailDto.getFollow());
 			if (meetingDetailDto.getQuestionType() == 0) {
 				rowTechnical = row;
@@ -84,8 +94,12 @@ public class MeetingService {
 		}
 
 		WorkbookDto workbookDto = new WorkbookDto();
-		workbookDto.setWb(excelUtil.getWb());
-		workbookDto.getWb().setForceFormulaRecalculation(true);
+		if (xlsxTemplateFiller != null) {
+			workbookDto.setXlsxTemplateFiller(xlsxTemplateFiller);
+		} else {
+			workbookDto.setWb(excelUtil.getWb());
+			workbookDto.getWb().setForceFormulaRecalculation(true);
+		}
 
 		String[] fileName = meetingDownloadDto.getFileName().split("\\.");
 		String bookName = "";
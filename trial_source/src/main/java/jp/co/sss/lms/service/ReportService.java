@@ -2,35 +2,63 @@ package jp.co.sss.lms.service;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jp.co.sss.lms.dto.DailyReportDetailDto;
+import jp.co.sss.lms.dto.DailyReportDraftDto;
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
 import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.dto.DailyReportListDto;
+import jp.co.sss.lms.dto.DailyReportListResultDto;
 import jp.co.sss.lms.dto.DailyReportFbDto;
+import jp.co.sss.lms.dto.DailyReportSearchDto;
+import jp.co.sss.lms.dto.DailyReportSearchResultDto;
 import jp.co.sss.lms.dto.IntelligibilityDto;
+import jp.co.sss.lms.dto.IntelligibilityHistogramDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.dto.WorkbookDto;
 import jp.co.sss.lms.entity.TDailyReportSubmit;
 import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
 import jp.co.sss.lms.entity.TIntelligibility;
+import jp.co.sss.lms.entity.TIntelligibilityRollup;
+import jp.co.sss.lms.form.DailyReportListForm;
 import jp.co.sss.lms.form.DailyReportSubmitForm;
+import jp.co.sss.lms.mapper.MLmsUserMapper;
 import jp.co.sss.lms.mapper.TCourseDailyReportMapper;
 import jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper;
 import jp.co.sss.lms.mapper.TDailyReportSubmitMapper;
 import jp.co.sss.lms.mapper.TIntelligibilityMapper;
+import jp.co.sss.lms.mapper.TIntelligibilityRollupMapper;
 import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DailyReportSearchIndex;
 import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.ExcelSheetWriter;
+import jp.co.sss.lms.util.ExcelTemplateCache;
 import jp.co.sss.lms.util.ExcelUtil;
 import jp.co.sss.lms.util.LoginUserUtil;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.XlsxTemplateFiller;
 
 /**
  * レポート情報サービス
@@ -40,6 +68,26 @@ import jp.co.sss.lms.util.MessageUtil;
 @Service
 public class ReportService {
 
+	/** 一括ダウンロードでワークブックを作成するスレッド数 */
+	private static final int DOWNLOAD_THREAD_COUNT = Math.max(1,
+			Math.min(4, Runtime.getRuntime().availableProcessors()));
+	/** 一括ダウンロードで書込待ちにするワークブックの最大数 */
+	private static final int DOWNLOAD_PREFETCH = DOWNLOAD_THREAD_COUNT * 2;
+	/** 全文検索の1ページの件数 */
+	private static final int SEARCH_PAGE_SIZE = 20;
+	/** コースのレポート一覧の1ページの件数 */
+	private static final int LIST_PAGE_SIZE = 50;
+	/** コースのレポート一覧の絞込：未提出 */
+	private static final String LIST_STATUS_UNSUBMITTED = "unsubmitted";
+	/** コースのレポート一覧の絞込：フィードバック無し */
+	private static final String LIST_STATUS_NO_FEEDBACK = "noFeedback";
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** 一括ダウンロード用スレッドプール（同時に複数の一括ダウンロードがあっても共有する） */
+	private final ExecutorService downloadExecutorService = Executors
+			.newFixedThreadPool(DOWNLOAD_THREAD_COUNT);
+
 	@Autowired
 	private LoginUserDto loginUserDto;
 	@Autowired
@@ -49,6 +97,14 @@ public class ReportService {
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
+	private ExcelTemplateCache excelTemplateCache;
+	@Autowired
+	private DailyReportDraftService dailyReportDraftService;
+	@Autowired
+	private DailyReportSearchIndex dailyReportSearchIndex;
+	@Autowired
+	private MLmsUserMapper mLmsUserMapper;
+	@Autowired
 	private TCourseDailyReportMapper tCourseDailyReportMapper;
 	@Autowired
 	private TSectionDailyReportMapper tSectionDailyReportMapper;
@@ -58,6 +114,8 @@ public class ReportService {
 	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
 	@Autowired
 	private TIntelligibilityMapper tIntelligibilityMapper;
+	@Autowired
+	private TIntelligibilityRollupMapper tIntelligibilityRollupMapper;
 
 	/**
 	 * レポート情報取得
@@ -131,14 +189,45 @@ public class ReportService {
 		dailyReportSubmitForm.setRangeFromArray(rangeFromArray);
 		dailyReportSubmitForm.setRangeToArray(rangeToArray);
 		dailyReportSubmitForm.setContentArray(contentArray);
+
+		// 受講生の場合は下書きがあれば入力内容を復元する
+		if (loginUserUtil.isStudent() && dailyReportSubmitForm.getDate() != null) {
+			DailyReportDraftDto dailyReportDraftDto = dailyReportDraftService.getDraft(
+					loginUserDto.getLmsUserId(), dailyReportSubmitForm.getDailyReportId(),
+					dailyReportSubmitForm.getDate());
+			if (dailyReportDraftDto != null) {
+				copyDraft(dailyReportDraftDto.getContentArray(), contentArray);
+				copyDraft(dailyReportDraftDto.getIntFieldNameArray(),
+						dailyReportSubmitForm.getIntFieldNameArray());
+				copyDraft(dailyReportDraftDto.getIntFieldValueArray(),
+						dailyReportSubmitForm.getIntFieldValueArray());
+			}
+		}
 	}
 
 	/**
-	 * レポート登録
+	 * 下書きの内容をフォームの配列に写す（項目数が変わった場合は共通する項目のみ）
+	 * 
+	 * @param draftArray
+	 * @param formArray
+	 */
+	private <T> void copyDraft(T[] draftArray, T[] formArray) {
+		if (draftArray == null || formArray == null) {
+			return;
+		}
+		System.arraycopy(draftArray, 0, formArray, 0, Math.min(draftArray.length, formArray.length));
+	}
+
+	/**
+	 * レポート登録<br>
+	 * 日報提出・日報提出詳細・理解度を1トランザクションで登録・更新する。<br>
+	 * 理解度集計には提出前後の差分（提出前の理解度を-1、提出後の理解度を+1）を反映する。<br>
+	 * 同じレポートの同時再提出で提出前の理解度を二重に取り消さないよう、再提出時は先に日報提出の行をロックする。
 	 * 
 	 * @param form
 	 * @throws ParseException
 	 */
+	@Transactional
 	public void submit(DailyReportSubmitForm dailyReportSubmitForm) throws ParseException {
 
 		Date today = new Date();
@@ -162,21 +251,14 @@ public class ReportService {
 		} else {
 			tDailyReportSubmit
 					.setDailyReportSubmitId(dailyReportSubmitForm.getDailyReportSubmitId());
+			// 同じレポートの再提出はコミットまで待たせ、ロック後の提出前の理解度を理解度集計から取り消す
+			tDailyReportSubmitMapper.lockById(tDailyReportSubmit.getDailyReportSubmitId());
+			tIntelligibilityRollupMapper.applyDelta(tDailyReportSubmit.getDailyReportSubmitId(), -1,
+					today, Constants.DB_FLG_FALSE);
 			tDailyReportSubmitMapper.update(tDailyReportSubmit);
-			// 日報提出詳細の削除
-			Integer countSubmitDetail = tDailyReportSubmitDetailMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countSubmitDetail > 0) {
-				tDailyReportSubmitDetailMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
-			// 理解度の削除
-			Integer countIntelligibility = tIntelligibilityMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countIntelligibility > 0) {
-				tIntelligibilityMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
 		}
-		// レポート詳細登録
+		// レポート詳細登録・更新（内容が変わった項目のみ更新し、無い項目は登録する）
+		List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList = new ArrayList<>();
 		for (int i = 0; i < dailyReportSubmitForm.getContentArray().length; i++) {
 			TDailyReportSubmitDetail tDailyReportSubmitDetail = new TDailyReportSubmitDetail();
 			tDailyReportSubmitDetail
@@ -189,9 +271,16 @@ public class ReportService {
 			tDailyReportSubmitDetail.setFirstCreateDate(today);
 			tDailyReportSubmitDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tDailyReportSubmitDetail.setLastModifiedDate(today);
-			tDailyReportSubmitDetailMapper.insert(tDailyReportSubmitDetail);
+			tDailyReportSubmitDetailList.add(tDailyReportSubmitDetail);
+		}
+		if (!tDailyReportSubmitDetailList.isEmpty()) {
+			tDailyReportSubmitDetailMapper.upsertList(tDailyReportSubmit.getDailyReportSubmitId(),
+					tDailyReportSubmitDetailList);
+		} else if (dailyReportSubmitForm.getDailyReportSubmitId() != null) {
+			tDailyReportSubmitDetailMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
 		}
-		// 理解度登録
+		// 理解度登録・更新（内容が変わった項目のみ更新し、無い項目は登録する）
+		List<TIntelligibility> tIntelligibilityList = new ArrayList<>();
 		if (dailyReportSubmitForm.getIntFieldNameArray() != null) {
 			for (int j = 0; j < dailyReportSubmitForm.getIntFieldNameArray().length; j++) {
 				TIntelligibility tIntelligibility = new TIntelligibility();
@@ -206,8 +295,200 @@ public class ReportService {
 				tIntelligibility.setFirstCreateDate(today);
 				tIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
 				tIntelligibility.setLastModifiedDate(today);
-				tIntelligibilityMapper.insert(tIntelligibility);
+				tIntelligibilityList.add(tIntelligibility);
+			}
+		}
+		if (!tIntelligibilityList.isEmpty()) {
+			tIntelligibilityMapper.upsertList(tDailyReportSubmit.getDailyReportSubmitId(),
+					tIntelligibilityList);
+		} else if (dailyReportSubmitForm.getDailyReportSubmitId() != null) {
+			tIntelligibilityMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
+		}
+		// 提出後の理解度を理解度集計に反映する
+		tIntelligibilityRollupMapper.applyDelta(tDailyReportSubmit.getDailyReportSubmitId(), 1,
+				today, Constants.DB_FLG_FALSE);
+		// 提出したレポートの下書きを削除
+		dailyReportDraftService.delete(lmsUserId, tDailyReportSubmit.getDailyReportId(),
+				tDailyReportSubmit.getDate());
+
+		// 全文検索インデックスはコミット後に更新する
+		Runnable updateIndex = () -> dailyReportSearchIndex.put(
+				tDailyReportSubmit.getDailyReportSubmitId(), lmsUserId, tDailyReportSubmit.getDate(),
+				dailyReportSubmitForm.getContentArray());
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					updateIndex.run();
+				}
+			});
+		} else {
+			updateIndex.run();
+		}
+	}
+
+	/**
+	 * レポート全文検索<br>
+	 * ログインユーザーのコースの受講生のレポートを、全文検索インデックスから検索する。
+	 * 
+	 * @param keyword
+	 * @param page    ページ番号（1始まり）
+	 * @return レポート全文検索結果DTO
+	 */
+	public DailyReportSearchResultDto search(String keyword, Integer page) {
+		List<Integer> lmsUserIdList = mLmsUserMapper.findLmsUserIdListByCourseId(
+				loginUserDto.getCourseId(), Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE);
+		List<DailyReportSearchDto> hitList = dailyReportSearchIndex.search(keyword, lmsUserIdList);
+
+		int pageNo = page == null || page < 1 ? 1 : page;
+		int from = Math.min((pageNo - 1) * SEARCH_PAGE_SIZE, hitList.size());
+		List<DailyReportSearchDto> pageList = new ArrayList<>(
+				hitList.subList(from, Math.min(from + SEARCH_PAGE_SIZE, hitList.size())));
+
+		// 表示するページ分のみ受講生名・レポート名を取得する
+		if (!pageList.isEmpty()) {
+			List<Integer> dailyReportSubmitIdList = new ArrayList<>();
+			for (DailyReportSearchDto dailyReportSearchDto : pageList) {
+				dailyReportSubmitIdList.add(dailyReportSearchDto.getDailyReportSubmitId());
+			}
+			Map<Integer, DailyReportSearchDto> detailMap = new HashMap<>();
+			for (DailyReportSearchDto detail : tDailyReportSubmitMapper
+					.findSearchList(dailyReportSubmitIdList, Constants.DB_FLG_FALSE)) {
+				detailMap.put(detail.getDailyReportSubmitId(), detail);
+			}
+			for (DailyReportSearchDto dailyReportSearchDto : pageList) {
+				DailyReportSearchDto detail = detailMap
+						.get(dailyReportSearchDto.getDailyReportSubmitId());
+				if (detail != null) {
+					dailyReportSearchDto.setDailyReportId(detail.getDailyReportId());
+					dailyReportSearchDto.setUserName(detail.getUserName());
+					dailyReportSearchDto.setReportName(detail.getReportName());
+				}
+			}
+		}
+
+		DailyReportSearchResultDto dailyReportSearchResultDto = new DailyReportSearchResultDto();
+		dailyReportSearchResultDto.setKeyword(keyword);
+		dailyReportSearchResultDto.setPage(pageNo);
+		dailyReportSearchResultDto.setPageSize(SEARCH_PAGE_SIZE);
+		dailyReportSearchResultDto.setTotalCount(hitList.size());
+		dailyReportSearchResultDto.setBuilding(!dailyReportSearchIndex.isReady());
+		dailyReportSearchResultDto.setDailyReportSearchDtoList(pageList);
+		return dailyReportSearchResultDto;
+	}
+
+	/**
+	 * コースのレポート一覧取得<br>
+	 * ログインユーザーのコースの受講生のレポートを、前ページの最終行から1ページ分取得する（キーセットページング）。
+	 * 次ページの有無はページ件数＋1件取得して判定する。
+	 * 
+	 * @param dailyReportListForm
+	 * @return コースのレポート一覧結果DTO
+	 * @throws ParseException
+	 */
+	public DailyReportListResultDto getCourseDailyReportList(
+			DailyReportListForm dailyReportListForm) throws ParseException {
+		String status = dailyReportListForm.getStatus();
+		Date lastDate = StringUtils.isBlank(dailyReportListForm.getLastDate()) ? null
+				: dateUtil.parse(dailyReportListForm.getLastDate());
+
+		List<DailyReportListDto> dailyReportListDtoList;
+		if (LIST_STATUS_UNSUBMITTED.equals(status)) {
+			if (lastDate != null && (dailyReportListForm.getLastLmsUserId() == null
+					|| dailyReportListForm.getLastDailyReportId() == null)) {
+				lastDate = null;
+			}
+			dailyReportListDtoList = tDailyReportSubmitMapper.getCourseUnsubmittedList(
+					loginUserDto.getCourseId(), Constants.CODE_VAL_ROLL_STUDENT, new Date(),
+					lastDate, dailyReportListForm.getLastLmsUserId(),
+					dailyReportListForm.getLastDailyReportId(), LIST_PAGE_SIZE + 1,
+					Constants.DB_FLG_FALSE);
+		} else {
+			if (lastDate != null && dailyReportListForm.getLastDailyReportSubmitId() == null) {
+				lastDate = null;
+			}
+			dailyReportListDtoList = tDailyReportSubmitMapper.getCourseDailyReportList(
+					loginUserDto.getCourseId(), Constants.CODE_VAL_ROLL_STUDENT,
+					LIST_STATUS_NO_FEEDBACK.equals(status), lastDate,
+					dailyReportListForm.getLastDailyReportSubmitId(), LIST_PAGE_SIZE + 1,
+					Constants.DB_FLG_FALSE);
+		}
+
+		DailyReportListResultDto dailyReportListResultDto = new DailyReportListResultDto();
+		dailyReportListResultDto.setStatus(status);
+		dailyReportListResultDto.setPageSize(LIST_PAGE_SIZE);
+		dailyReportListResultDto.setHasNext(dailyReportListDtoList.size() > LIST_PAGE_SIZE);
+		dailyReportListResultDto.setDailyReportListDtoList(dailyReportListDtoList.subList(0,
+				Math.min(LIST_PAGE_SIZE, dailyReportListDtoList.size())));
+		return dailyReportListResultDto;
+	}
+
+	/**
+	 * 理解度分布取得<br>
+	 * ログインユーザーのコースの理解度を、セクション・日付・学習項目毎に理解度集計から取得する。
+	 * 
+	 * @param dateFrom 開始日（yyyy/M/d、未指定の場合は当日）
+	 * @param dateTo   終了日（yyyy/M/d、未指定の場合は開始日）
+	 * @return 理解度分布DTOリスト
+	 * @throws ParseException
+	 */
+	public List<IntelligibilityHistogramDto> getIntelligibilityHistogramList(String dateFrom,
+			String dateTo) throws ParseException {
+		Date from = StringUtils.isBlank(dateFrom) ? dateUtil.parse(dateUtil.toString(new Date()))
+				: dateUtil.parse(dateFrom);
+		Date to = StringUtils.isBlank(dateTo) ? from : dateUtil.parse(dateTo);
+
+		List<IntelligibilityHistogramDto> intelligibilityHistogramDtoList = new ArrayList<>();
+		IntelligibilityHistogramDto intelligibilityHistogramDto = null;
+		long sum = 0;
+		// 集計は日付・セクション・学習項目・理解度順
+		for (TIntelligibilityRollup tIntelligibilityRollup : tIntelligibilityRollupMapper
+				.findByCourseId(loginUserDto.getCourseId(), from, to)) {
+			if (intelligibilityHistogramDto == null
+					|| !intelligibilityHistogramDto.getDate().equals(tIntelligibilityRollup.getDate())
+					|| !intelligibilityHistogramDto.getSectionId()
+							.equals(tIntelligibilityRollup.getSectionId())
+					|| !intelligibilityHistogramDto.getFieldName()
+							.equals(tIntelligibilityRollup.getFieldName())) {
+				setAverage(intelligibilityHistogramDto, sum);
+				intelligibilityHistogramDto = new IntelligibilityHistogramDto();
+				intelligibilityHistogramDto.setSectionId(tIntelligibilityRollup.getSectionId());
+				intelligibilityHistogramDto.setDate(tIntelligibilityRollup.getDate());
+				intelligibilityHistogramDto.setFieldName(tIntelligibilityRollup.getFieldName());
+				intelligibilityHistogramDto.setHistogram(new int[0]);
+				intelligibilityHistogramDto.setTotalCount(0);
+				intelligibilityHistogramDtoList.add(intelligibilityHistogramDto);
+				sum = 0;
+			}
+			int fieldValue = tIntelligibilityRollup.getFieldValue();
+			int count = tIntelligibilityRollup.getCount();
+			if (fieldValue < 1) {
+				continue;
 			}
+			// 理解度の段階数はレポート毎に異なるため、最大の理解度に合わせて拡張する
+			if (intelligibilityHistogramDto.getHistogram().length < fieldValue) {
+				intelligibilityHistogramDto.setHistogram(
+						Arrays.copyOf(intelligibilityHistogramDto.getHistogram(), fieldValue));
+			}
+			intelligibilityHistogramDto.getHistogram()[fieldValue - 1] += count;
+			intelligibilityHistogramDto
+					.setTotalCount(intelligibilityHistogramDto.getTotalCount() + count);
+			sum += (long) fieldValue * count;
+		}
+		setAverage(intelligibilityHistogramDto, sum);
+		return intelligibilityHistogramDtoList;
+	}
+
+	/**
+	 * 平均理解度の設定
+	 * 
+	 * @param intelligibilityHistogramDto
+	 * @param sum                         理解度の合計
+	 */
+	private void setAverage(IntelligibilityHistogramDto intelligibilityHistogramDto, long sum) {
+		if (intelligibilityHistogramDto != null && intelligibilityHistogramDto.getTotalCount() > 0) {
+			intelligibilityHistogramDto
+					.setAverage((double) sum / intelligibilityHistogramDto.getTotalCount());
 		}
 	}
 
@@ -225,6 +506,55 @@ public class ReportService {
 		ExcelUtil.downloadBook(workbookDto, response);
 	}
 
+	/**
+	 * レポート一括ダウンロード<br>
+	 * ワークブックは並列に作成し、作成できたものから順にZIPへ書き込む。<br>
+	 * ファイルサイズの合計が上限（setting.deliverables.download.fileSize）を超える場合は、超えた分を含めず、その旨の通知をZIPに含める。
+	 * 
+	 * @param dailyReportIdList
+	 * @param dailyReportSubmitIdList
+	 * @param response
+	 * @throws IOException
+	 */
+	public void downloadList(String[] dailyReportIdList, String[] dailyReportSubmitIdList,
+			HttpServletResponse response) throws IOException {
+		List<Callable<WorkbookDto>> workbookTaskList = new ArrayList<>();
+		if (dailyReportIdList != null && dailyReportSubmitIdList != null) {
+			for (int i = 0; i < Math.min(dailyReportIdList.length,
+					dailyReportSubmitIdList.length); i++) {
+				Integer dailyReportId = Integer.valueOf(dailyReportIdList[i]);
+				Integer dailyReportSubmitId = Integer.valueOf(dailyReportSubmitIdList[i]);
+				workbookTaskList.add(() -> getWorkbookDto(dailyReportId, dailyReportSubmitId));
+			}
+		}
+
+		// 一括ダウンロードの最大ファイルサイズ(MB)
+		long maxFileSize = Long
+				.parseLong(messageUtil.getMessage("setting.deliverables.download.fileSize"))
+				* 1024 * 1024;
+		String maxFileSizeText = messageUtil.getMessage("setting.deliverables.download.fileSize")
+				+ "MB";
+		int count = ExcelUtil.downloadBookInZip("レポート", workbookTaskList,
+				downloadExecutorService, DOWNLOAD_PREFETCH, maxFileSize,
+				writtenCount -> messageUtil.getMessage(
+						Constants.VALID_KEY_MAXFILEAMOUNT_DOWNLOAD_TRUNCATED,
+						new String[] { maxFileSizeText, String.valueOf(workbookTaskList.size()),
+								String.valueOf(writtenCount) }),
+				response);
+		if (count < workbookTaskList.size()) {
+			logger.warn("一括ダウンロードの最大ファイルサイズを超えたため、" + (workbookTaskList.size() - count)
+					+ "件のレポートを含めませんでした。");
+		}
+	}
+
+	/**
+	 * 一括ダウンロード用スレッドプールの停止
+	 */
+	@PreDestroy
+	public void shutdown() {
+		downloadExecutorService.shutdownNow();
+	}
+
 	/**
 	 * ワークブックDTO取得
 	 * 
@@ -245,28 +575,37 @@ public class ReportService {
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
 		String excelFilePath = commonFileDir + "/" + dailyReportDownloadDto.getFileName();
 
-		ExcelUtil excelUtil = new ExcelUtil(excelFilePath);
+		// 数式を含まないテンプレートは、フィードバックの行のコピーが不要であればPOIを使用せずに直接書き込む
+		int fbCount = dailyReportDownloadDto.getDailyReportFbDtoList() == null ? 0
+				: dailyReportDownloadDto.getDailyReportFbDtoList().size();
+		XlsxTemplateFiller xlsxTemplateFiller = fbCount <= 1
+				? excelTemplateCache.openFiller(excelFilePath)
+				: null;
+		ExcelUtil excelUtil = xlsxTemplateFiller == null ? excelTemplateCache.open(excelFilePath)
+				: null;
+		ExcelSheetWriter excelSheetWriter = xlsxTemplateFiller != null ? xlsxTemplateFiller
+				: excelUtil;
 
 		// 企業名
-		excelUtil.setVal(dailyReportDownloadDto.getSheetName(),
+		excelSheetWriter.setVal(dailyReportDownloadDto.getSheetName(),
 				dailyReportDownloadDto.getRowCompany() - 1,
 				dailyReportDownloadDto.getClmCompany() - 1,
 				dailyReportDownloadDto.getCompanyName());
 
 		// ユーザー名
-		excelUtil.setVal(dailyReportDownloadDto.getSheetName(),
+		excelSheetWriter.setVal(dailyReportDownloadDto.getSheetName(),
 				dailyReportDownloadDto.getRowUser() - 1, dailyReportDownloadDto.getClmUser() - 1,
 				dailyReportDownloadDto.getUserName());
 
 		// 日付
-		excelUtil.setVal(dailyReportDownloadDto.getSheetName(),
+		excelSheetWriter.setVal(dailyReportDownloadDto.getSheetName(),
 				dailyReportDownloadDto.getRowDate() - 1, dailyReportDownloadDto.getClmDate() - 1,
 				dailyReportDownloadDto.getDate());
 
 		// 「日報提出詳細テーブル」と「日報詳細マスタ」のデータを設定する。
 		for (DailyReportDetailDto dailyReportDetailDto : dailyReportDownloadDto
 				.getDailyReportDetailDtoList()) {
-			excelUtil.setVal(dailyReportDownloadDto.getSheetName(),
+			excelSheetWriter.setVal(dailyReportDownloadDto.getSheetName(),
 					dailyReportDetailDto.getRow() - 1, dailyReportDetailDto.getClm() - 1,
 					dailyReportDetailDto.getContent());
 		}
@@ -278,10 +617,10 @@ public class ReportService {
 
 			for (IntelligibilityDto intelligibilityDto : dailyReportDownloadDto
 					.getIntelligibilityDtoList()) {
-				excelUtil.setVal(dailyReportDownloadDto.getSheetName(), rowIntelFld - 1,
+				excelSheetWriter.setVal(dailyReportDownloadDto.getSheetName(), rowIntelFld - 1,
 						dailyReportDownloadDto.getClmIntelFld() - 1,
 						intelligibilityDto.getFieldName());
-				excelUtil.setVal(dailyReportDownloadDto.getSheetName(), rowIntel - 1,
+				excelSheetWriter.setVal(dailyReportDownloadDto.getSheetName(), rowIntel - 1,
 						dailyReportDownloadDto.getClmIntel() - 1,
 						intelligibilityDto.getFieldValue());
 				rowIntelFld++;
@@ -290,26 +629,29 @@ public class ReportService {
 		}
 
 		if (dailyReportDownloadDto.getDailyReportFbDtoList() != null) {
-			if (dailyReportDownloadDto.getDailyReportFbDtoList().size() > 1) {
-				for (int i = 1; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
-					excelUtil.sheetCopy("フィードバックコメント", 6, 8, i);
-				}
+			// 2件目以降のフィードバックの行をまとめてコピーする
+			if (fbCount > 1) {
+				excelUtil.copyRows("フィードバックコメント", 6, 8, fbCount - 1);
 			}
 			for (int i = 0; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
 				DailyReportFbDto dailyReportFbDto = dailyReportDownloadDto.getDailyReportFbDtoList()
 						.get(i);
 				// 指定位置にフィードバックしたユーザを設定
-				excelUtil.setVal("フィードバックコメント", 6 + (i * 2), 0, dailyReportFbDto.getUserName());
+				excelSheetWriter.setVal("フィードバックコメント", 6 + (i * 2), 0, dailyReportFbDto.getUserName());
 				// 指定位置にコメントを入力した日付を設定
-				excelUtil.setVal("フィードバックコメント", 6 + (i * 2), 17, dailyReportFbDto.getDate());
+				excelSheetWriter.setVal("フィードバックコメント", 6 + (i * 2), 17, dailyReportFbDto.getFirstCreateDate());
 				// 指定位置に入力内容を設定
-				excelUtil.setVal("フィードバックコメント", 7 + (i * 2), 10, dailyReportFbDto.getContent());
+				excelSheetWriter.setVal("フィードバックコメント", 7 + (i * 2), 10, dailyReportFbDto.getContent());
 			}
 		}
 
 		WorkbookDto workbookDto = new WorkbookDto();
-		workbookDto.setWb(excelUtil.getWb());
-		workbookDto.getWb().setForceFormulaRecalculation(true);
+		if (xlsxTemplateFiller != null) {
+			workbookDto.setXlsxTemplateFiller(xlsxTemplateFiller);
+		} else {
+			workbookDto.setWb(excelUtil.getWb());
+			workbookDto.getWb().setForceFormulaRecalculation(true);
+		}
 
 		String[] fileName = dailyReportDownloadDto.getFileName().split("\\.");
 		String bookName = "";
@@ -1,24 +1,56 @@
 package jp.co.sss.lms.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URLEncoder;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+
+import jp.co.sss.lms.dto.AttendanceLatenessDto;
 import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.AttendanceMatrixDto;
+import jp.co.sss.lms.dto.AttendanceMatrixResultDto;
+import jp.co.sss.lms.dto.AttendanceMatrixRowDto;
+import jp.co.sss.lms.dto.AttendanceRecomputeProgressDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.entity.TStudentAttendance;
 import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.form.AttendanceBulkRegistForm;
 import jp.co.sss.lms.form.AttendanceForm;
 import jp.co.sss.lms.form.DailyAttendanceForm;
 import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
 import jp.co.sss.lms.util.AttendanceUtil;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.CourseCalendarCache;
+import jp.co.sss.lms.util.CourseCalendarCache.CourseCalendar;
 import jp.co.sss.lms.util.DateUtil;
 import jp.co.sss.lms.util.LoginUserUtil;
 import jp.co.sss.lms.util.MessageUtil;
@@ -44,6 +76,46 @@ public class StudentAttendanceService {
 	private LoginUserDto loginUserDto;
 	@Autowired
 	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Autowired
+	private CourseCalendarCache courseCalendarCache;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/** コース勤怠一覧の1ページの受講生数 */
+	private static final int MATRIX_PAGE_SIZE = 50;
+	/** 勤怠ステータス再計算の1チャンク（1回の更新）あたりの件数 */
+	private static final int RECOMPUTE_CHUNK_SIZE = 1000;
+	/** 勤怠ステータス再計算の並列数 */
+	private static final int RECOMPUTE_PARALLELISM = 4;
+	/** 完了した勤怠ステータス再計算の進捗の保持時間（進捗が取得されなかった場合） */
+	private static final long RECOMPUTE_PROGRESS_RETENTION_MSEC = 10 * 60_000L;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/** コースID毎の勤怠ステータス再計算の進捗（完了後、進捗の取得時または保持時間の経過後に削除する） */
+	private final Map<Integer, RecomputeProgress> recomputeProgressMap = new ConcurrentHashMap<>();
+	/** 勤怠ステータス再計算用スレッドプール（共通プールは使わない） */
+	private final ForkJoinPool recomputePool = new ForkJoinPool(RECOMPUTE_PARALLELISM);
+
+	/** コース勤怠一覧の読込用（読み取り専用） */
+	private TransactionTemplate readOnlyTransactionTemplate;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+		readOnlyTransactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * 勤怠ステータス再計算用スレッドの停止
+	 */
+	@PreDestroy
+	public void stop() {
+		recomputePool.shutdownNow();
+	}
 
 	/**
 	 * 勤怠一覧情報取得
@@ -55,8 +127,8 @@ public class StudentAttendanceService {
 	public List<AttendanceManagementDto> getAttendanceManagement(Integer courseId,
 			Integer lmsUserId) {
 		// 勤怠管理リストの取得
-		List<AttendanceManagementDto> attendanceManagementDtoList = tStudentAttendanceMapper
-				.getAttendanceManagement(courseId, lmsUserId, Constants.DB_FLG_FALSE);
+		List<AttendanceManagementDto> attendanceManagementDtoList = createAttendanceManagementList(
+				courseId, lmsUserId, Constants.DB_FLG_FALSE);
 		for (AttendanceManagementDto dto : attendanceManagementDtoList) {
 			// 中抜け時間を設定
 			if (dto.getBlankTime() != null) {
@@ -72,13 +144,53 @@ public class StudentAttendanceService {
 		return attendanceManagementDtoList;
 	}
 
+	/**
+	 * 研修日カレンダーと受講生の勤怠情報を突き合わせ、勤怠管理画面用DTOリストを作成
+	 * 
+	 * @param courseId
+	 * @param lmsUserId
+	 * @param deleteFlg
+	 * @return 勤怠管理画面用DTOリスト
+	 */
+	private List<AttendanceManagementDto> createAttendanceManagementList(Integer courseId,
+			Integer lmsUserId, Short deleteFlg) {
+		// コース共通の研修日カレンダー（キャッシュ）
+		CourseCalendar calendar = courseCalendarCache.get(courseId);
+		// 受講生の勤怠情報を研修日で引けるようにする
+		Map<Long, TStudentAttendance> tStudentAttendanceMap = new HashMap<>();
+		for (TStudentAttendance entity : tStudentAttendanceMapper.findByLmsUserId(lmsUserId,
+				deleteFlg)) {
+			tStudentAttendanceMap.put(CourseCalendarCache.toEpochDay(entity.getTrainingDate()),
+					entity);
+		}
+		long today = CourseCalendarCache.toEpochDay(new Date());
+		List<AttendanceManagementDto> attendanceManagementDtoList = new ArrayList<>(
+				calendar.size());
+		for (int i = 0; i < calendar.size(); i++) {
+			AttendanceManagementDto dto = new AttendanceManagementDto();
+			TStudentAttendance entity = tStudentAttendanceMap.get(calendar.getEpochDay(i));
+			if (entity != null) {
+				BeanUtils.copyProperties(entity, dto);
+				dto.setLmsUserId(String.valueOf(entity.getLmsUserId()));
+			}
+			dto.setTrainingDate(calendar.getTrainingDate(i));
+			dto.setSectionName(calendar.getSectionName(i));
+			dto.setIsToday(calendar.getEpochDay(i) == today);
+			attendanceManagementDtoList.add(dto);
+		}
+		return attendanceManagementDtoList;
+	}
+
 	/**
 	 * 出退勤更新前のチェック
 	 * 
-	 * @param attendanceType
+	 * <p>
+	 * 研修日の勤怠情報の状態（出勤済み・退勤済みなど）は、打刻時の登録・更新文の条件で判定する。
+	 * </p>
+	 * 
 	 * @return エラーメッセージ
 	 */
-	public String punchCheck(Short attendanceType) {
+	public String punchCheck() {
 		Date trainingDate = attendanceUtil.getTrainingDate();
 		// 権限チェック
 		if (!loginUserUtil.isStudent()) {
@@ -88,95 +200,86 @@ public class StudentAttendanceService {
 		if (!attendanceUtil.isWorkDay(loginUserDto.getCourseId(), trainingDate)) {
 			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_NOTWORKDAY);
 		}
+		return null;
+	}
+
+	/**
+	 * 出退勤が反映されなかった理由の取得
+	 * 
+	 * @param attendanceType
+	 * @return エラーメッセージ
+	 */
+	public String getPunchError(Short attendanceType) {
+		Date trainingDate = attendanceUtil.getTrainingDate();
 		// 登録情報チェック
 		TStudentAttendance tStudentAttendance = tStudentAttendanceMapper
 				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
 						Constants.DB_FLG_FALSE);
 		switch (attendanceType) {
-		case Constants.CODE_VAL_ATWORK:
-			if (tStudentAttendance != null
-					&& !tStudentAttendance.getTrainingStartTime().equals("")) {
-				// 本日の勤怠情報は既に入力されています。直接編集してください。
-				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
-			}
-			break;
 		case Constants.CODE_VAL_LEAVING:
 			if (tStudentAttendance == null
 					|| tStudentAttendance.getTrainingStartTime().equals("")) {
 				// 出勤情報がないため退勤情報を入力出来ません。
 				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHINEMPTY);
 			}
-			if (!tStudentAttendance.getTrainingEndTime().equals("")) {
-				// 本日の勤怠情報は既に入力されています。直接編集してください。
-				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
-			}
-			TrainingTime trainingStartTime = new TrainingTime(
-					tStudentAttendance.getTrainingStartTime());
-			TrainingTime trainingEndTime = new TrainingTime();
-			if (trainingStartTime.compareTo(trainingEndTime) > 0) {
+			if (tStudentAttendance.getTrainingEndTime().equals("")) {
 				// 退勤時刻は出勤時刻より後でなければいけません。
 				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGE);
 			}
 			break;
 		}
-		return null;
+		// 本日の勤怠情報は既に入力されています。直接編集してください。
+		return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
 	}
 
 	/**
 	 * 出勤ボタン処理
 	 * 
-	 * @return 完了メッセージ
+	 * <p>
+	 * 研修日の勤怠情報を1文で登録・更新する。二重送信や複数タブから同時に押下された場合も、反映されるのは1回のみ。
+	 * </p>
+	 * 
+	 * @return 登録・更新後の勤怠情報（既に出勤時刻が入力されている場合はnull）
 	 */
-	public String setPunchIn() {
+	public TStudentAttendance setPunchIn() {
 		// 当日日付
 		Date date = new Date();
 		// 本日の研修日
 		Date trainingDate = attendanceUtil.getTrainingDate();
 		// 現在の研修時刻
-		TrainingTime trainingStartTime = new TrainingTime();
+		TrainingTime trainingStartTime = TrainingTime.now();
 		// 遅刻早退ステータス
-		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
-				null);
-		// 研修日の勤怠情報取得
-		TStudentAttendance tStudentAttendance = tStudentAttendanceMapper
-				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
-						Constants.DB_FLG_FALSE);
-		if (tStudentAttendance == null) {
-			// 登録処理
-			tStudentAttendance = new TStudentAttendance();
-			tStudentAttendance.setLmsUserId(loginUserDto.getLmsUserId());
-			tStudentAttendance.setTrainingDate(trainingDate);
-			tStudentAttendance.setTrainingStartTime(trainingStartTime.toString());
-			tStudentAttendance.setTrainingEndTime("");
-			tStudentAttendance.setStatus(attendanceStatusEnum.code);
-			tStudentAttendance.setNote("");
-			tStudentAttendance.setAccountId(loginUserDto.getAccountId());
-			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
-			tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
-			tStudentAttendance.setFirstCreateDate(date);
-			tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
-			tStudentAttendance.setLastModifiedDate(date);
-			tStudentAttendance.setBlankTime(null);
-			tStudentAttendanceMapper.insert(tStudentAttendance);
-		} else {
-			// 更新処理
-			tStudentAttendance.setTrainingStartTime(trainingStartTime.toString());
-			tStudentAttendance.setStatus(attendanceStatusEnum.code);
-			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
-			tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
-			tStudentAttendance.setLastModifiedDate(date);
-			tStudentAttendanceMapper.update(tStudentAttendance);
-		}
-		// 完了メッセージ
-		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
+		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil
+				.getStatus(loginUserDto.getCourseId(), trainingDate, trainingStartTime, null);
+		// 登録・更新処理
+		TStudentAttendance tStudentAttendance = new TStudentAttendance();
+		tStudentAttendance.setLmsUserId(loginUserDto.getLmsUserId());
+		tStudentAttendance.setTrainingDate(trainingDate);
+		tStudentAttendance.setTrainingStartTime(trainingStartTime.toString());
+		tStudentAttendance.setTrainingEndTime("");
+		tStudentAttendance.setStatus(attendanceStatusEnum.code);
+		tStudentAttendance.setNote("");
+		tStudentAttendance.setAccountId(loginUserDto.getAccountId());
+		tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
+		tStudentAttendance.setFirstCreateDate(date);
+		tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
+		tStudentAttendance.setLastModifiedDate(date);
+		tStudentAttendance.setBlankTime(null);
+		return tStudentAttendanceMapper.punchIn(tStudentAttendance);
 	}
 
 	/**
 	 * 退勤ボタン処理
 	 * 
-	 * @return 完了メッセージ
+	 * <p>
+	 * 出勤時刻が取得時から変わっておらず、退勤時刻が未入力の場合のみ1文で更新する。
+	 * 二重送信や複数タブから同時に押下された場合も、反映されるのは1回のみ。
+	 * </p>
+	 * 
+	 * @return 更新後の勤怠情報（出勤時刻が未入力・既に退勤時刻が入力されている場合などはnull）
 	 */
-	public String setPunchOut() {
+	public TStudentAttendance setPunchOut() {
 		// 当日日付
 		Date date = new Date();
 		// 本日の研修日
@@ -185,22 +288,27 @@ public class StudentAttendanceService {
 		TStudentAttendance tStudentAttendance = tStudentAttendanceMapper
 				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
 						Constants.DB_FLG_FALSE);
+		if (tStudentAttendance == null || tStudentAttendance.getTrainingStartTime() == null
+				|| tStudentAttendance.getTrainingStartTime().isEmpty()) {
+			return null;
+		}
 		// 出退勤時刻
-		TrainingTime trainingStartTime = new TrainingTime(
+		TrainingTime trainingStartTime = TrainingTime.parse(
 				tStudentAttendance.getTrainingStartTime());
-		TrainingTime trainingEndTime = new TrainingTime();
+		TrainingTime trainingEndTime = TrainingTime.now();
+		if (trainingStartTime.compareTo(trainingEndTime) > 0) {
+			return null;
+		}
 		// 遅刻早退ステータス
-		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
-				trainingEndTime);
+		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(
+				loginUserDto.getCourseId(), trainingDate, trainingStartTime, trainingEndTime);
 		// 更新処理
 		tStudentAttendance.setTrainingEndTime(trainingEndTime.toString());
 		tStudentAttendance.setStatus(attendanceStatusEnum.code);
 		tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
 		tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tStudentAttendance.setLastModifiedDate(date);
-		tStudentAttendanceMapper.update(tStudentAttendance);
-		// 完了メッセージ
-		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
+		return tStudentAttendanceMapper.punchOut(tStudentAttendance);
 	}
 
 	/**
@@ -249,16 +357,9 @@ public class StudentAttendanceService {
 			dailyAttendanceForm.setDispTrainingDate(dateUtil
 					.dateToString(attendanceManagementDto.getTrainingDate(), "yyyy年M月d日(E)"));
 			dailyAttendanceForm.setStatusDispName(attendanceManagementDto.getStatusDispName());
-			// 勤怠Utilを使用した時間・分抽出task26修正分
-			dailyAttendanceForm.setTrainingStartTimeHour(
-					attendanceUtil.extractHour(attendanceManagementDto.getTrainingStartTime()));
-			dailyAttendanceForm.setTrainingStartTimeMinute(
-					attendanceUtil.extractMinute(attendanceManagementDto.getTrainingStartTime()));
-
-			dailyAttendanceForm.setTrainingEndTimeHour(
-					attendanceUtil.extractHour(attendanceManagementDto.getTrainingEndTime()));
-			dailyAttendanceForm.setTrainingEndTimeMinute(
-					attendanceUtil.extractMinute(attendanceManagementDto.getTrainingEndTime()));
+			// 出退勤時刻を時・分に分割（1時刻につき1回）task26修正分
+			dailyAttendanceForm.splitTrainingStartTime();
+			dailyAttendanceForm.splitTrainingEndTime();
 			attendanceForm.getAttendanceList().add(dailyAttendanceForm);
 		}
 		return attendanceForm;
@@ -276,12 +377,16 @@ public class StudentAttendanceService {
 		Integer lmsUserId = loginUserUtil.isStudent() ? loginUserDto.getLmsUserId()
 				: attendanceForm.getLmsUserId();
 
-		// 現在の勤怠情報（受講生入力）リストを取得
-		List<TStudentAttendance> tStudentAttendanceList = tStudentAttendanceMapper
-				.findByLmsUserId(lmsUserId, Constants.DB_FLG_FALSE);
+		// 現在の勤怠情報（受講生入力）を研修日で引けるようにする
+		Map<Date, TStudentAttendance> tStudentAttendanceMap = new HashMap<>();
+		for (TStudentAttendance entity : tStudentAttendanceMapper.findByLmsUserId(lmsUserId,
+				Constants.DB_FLG_FALSE)) {
+			tStudentAttendanceMap.put(entity.getTrainingDate(), entity);
+		}
 
 		// 入力された情報を更新用のエンティティに移し替え
 		Date date = new Date();
+		List<TStudentAttendance> upsertList = new ArrayList<>();
 		for (DailyAttendanceForm dailyAttendanceForm : attendanceForm.getAttendanceList()) {
 
 			// 時分を結合 - 新規追加
@@ -295,122 +400,599 @@ public class StudentAttendanceService {
 			// 研修日付
 			tStudentAttendance
 					.setTrainingDate(dateUtil.parse(dailyAttendanceForm.getTrainingDate()));
-			// 現在の勤怠情報リストのうち、研修日が同じものを更新用エンティティで上書き
-			for (TStudentAttendance entity : tStudentAttendanceList) {
-				if (entity.getTrainingDate().equals(tStudentAttendance.getTrainingDate())) {
-					tStudentAttendance = entity;
-					break;
-				}
+			// 現在の勤怠情報のうち、研修日が同じものを元に更新用エンティティを作成
+			TStudentAttendance current = tStudentAttendanceMap
+					.get(tStudentAttendance.getTrainingDate());
+			if (current != null) {
+				BeanUtils.copyProperties(current, tStudentAttendance);
+			} else {
+				tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
+				tStudentAttendance.setFirstCreateDate(date);
 			}
 			tStudentAttendance.setLmsUserId(lmsUserId);
 			tStudentAttendance.setAccountId(loginUserDto.getAccountId());
 			// 出勤時刻整形
 			TrainingTime trainingStartTime = null;
-			trainingStartTime = new TrainingTime(dailyAttendanceForm.getTrainingStartTime());
+			trainingStartTime = TrainingTime.parse(dailyAttendanceForm.getTrainingStartTime());
 			tStudentAttendance.setTrainingStartTime(trainingStartTime.getFormattedString());
 			// 退勤時刻整形
 			TrainingTime trainingEndTime = null;
-			trainingEndTime = new TrainingTime(dailyAttendanceForm.getTrainingEndTime());
+			trainingEndTime = TrainingTime.parse(dailyAttendanceForm.getTrainingEndTime());
 			tStudentAttendance.setTrainingEndTime(trainingEndTime.getFormattedString());
 			// 中抜け時間
 			tStudentAttendance.setBlankTime(dailyAttendanceForm.getBlankTime());
 			// 遅刻早退ステータス
 			if ((trainingStartTime != null || trainingEndTime != null)
 					&& !dailyAttendanceForm.getStatusDispName().equals("欠席")) {
-				AttendanceStatusEnum attendanceStatusEnum = attendanceUtil
-						.getStatus(trainingStartTime, trainingEndTime);
+				AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(
+						loginUserDto.getCourseId(), tStudentAttendance.getTrainingDate(),
+						trainingStartTime, trainingEndTime);
 				tStudentAttendance.setStatus(attendanceStatusEnum.code);
 			}
 			// 備考
 			tStudentAttendance.setNote(dailyAttendanceForm.getNote());
+			// 変更のない日は更新対象外
+			if (current != null && !isChanged(current, tStudentAttendance)) {
+				continue;
+			}
 			// 更新者と更新日時
 			tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tStudentAttendance.setLastModifiedDate(date);
 			// 削除フラグ
 			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
 			// 登録用Listへ追加
-			tStudentAttendanceList.add(tStudentAttendance);
+			upsertList.add(tStudentAttendance);
 		}
-		// 登録・更新処理
-		for (TStudentAttendance tStudentAttendance : tStudentAttendanceList) {
-			if (tStudentAttendance.getStudentAttendanceId() == null) {
-				tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
-				tStudentAttendance.setFirstCreateDate(date);
-				tStudentAttendanceMapper.insert(tStudentAttendance);
+		// 登録・更新処理（変更のあった日のみ1文で反映）
+		if (!upsertList.isEmpty()) {
+			tStudentAttendanceMapper.upsertList(upsertList);
+		}
+		// 完了メッセージ
+		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
+	}
+
+	/**
+	 * 勤怠一括登録フォームの初期値設定
+	 * 
+	 * @return 勤怠一括登録フォーム
+	 */
+	public AttendanceBulkRegistForm setAttendanceBulkRegistForm() {
+		AttendanceBulkRegistForm attendanceBulkRegistForm = new AttendanceBulkRegistForm();
+		attendanceBulkRegistForm.setCourseId(loginUserDto.getCourseId());
+		attendanceBulkRegistForm.setCourseName(loginUserDto.getCourseName());
+		String today = dateUtil.toString(new Date(), Constants.DEFAULT_DATE_FORMAT);
+		attendanceBulkRegistForm.setTrainingDateFrom(today);
+		attendanceBulkRegistForm.setTrainingDateTo(today);
+		setAttendanceBulkRegistPulldown(attendanceBulkRegistForm);
+		return attendanceBulkRegistForm;
+	}
+
+	/**
+	 * 勤怠一括登録フォームのプルダウン設定
+	 * 
+	 * @param attendanceBulkRegistForm
+	 */
+	public void setAttendanceBulkRegistPulldown(AttendanceBulkRegistForm attendanceBulkRegistForm) {
+		attendanceBulkRegistForm.setBlankTimes(attendanceUtil.setBlankTime());
+		attendanceBulkRegistForm.setWorkHour(attendanceUtil.setWorkHour());
+		attendanceBulkRegistForm.setWorkMinute(attendanceUtil.setWorkMinute());
+	}
+
+	/**
+	 * 勤怠一括登録フォームの入力チェック
+	 * 
+	 * @param attendanceBulkRegistForm
+	 * @return エラーメッセージ（エラーなしの場合はnull）
+	 */
+	public String validateAttendanceBulkRegistForm(
+			AttendanceBulkRegistForm attendanceBulkRegistForm) {
+
+		List<String> errorMessages = new ArrayList<>();
+
+		// 権限チェック
+		if (!loginUserUtil.isTeacher() && !loginUserUtil.isAdmin()) {
+			return messageUtil.getMessage(Constants.VALID_KEY_AUTHORIZATION);
+		}
+
+		// 時分を結合
+		attendanceBulkRegistForm.combineTrainingStartTime();
+		attendanceBulkRegistForm.combineTrainingEndTime();
+
+		// 対象期間の日付形式・前後関係チェック
+		Date trainingDateFrom = parseBulkRegistDate(attendanceBulkRegistForm.getTrainingDateFrom());
+		Date trainingDateTo = parseBulkRegistDate(attendanceBulkRegistForm.getTrainingDateTo());
+		if (trainingDateFrom == null) {
+			errorMessages.add(messageUtil.getMessage(Constants.VALID_KEY_DATEFORMAT, new String[] { "対象期間（開始日）" }));
+		}
+		if (trainingDateTo == null) {
+			errorMessages.add(messageUtil.getMessage(Constants.VALID_KEY_DATEFORMAT, new String[] { "対象期間（終了日）" }));
+		}
+		if (trainingDateFrom != null && trainingDateTo != null
+				&& trainingDateFrom.after(trainingDateTo)) {
+			errorMessages.add(messageUtil.getMessage(Constants.VALID_KEY_DATECOMPARE,
+					new String[] { "対象期間（開始日）", "対象期間（終了日）" }));
+		}
+
+		// 時・分の片方のみの入力チェック
+		if (isEmptyString(attendanceBulkRegistForm.getTrainingStartTimeHour()) != isEmptyString(
+				attendanceBulkRegistForm.getTrainingStartTimeMinute())) {
+			errorMessages.add(messageUtil.getMessage(Constants.INPUT_INVALID, new String[] { "出勤時間" }));
+		}
+		if (isEmptyString(attendanceBulkRegistForm.getTrainingEndTimeHour()) != isEmptyString(
+				attendanceBulkRegistForm.getTrainingEndTimeMinute())) {
+			errorMessages.add(messageUtil.getMessage(Constants.INPUT_INVALID, new String[] { "退勤時間" }));
+		}
+
+		// 出勤時間は必須
+		TrainingTime trainingStartTime = TrainingTime
+				.parse(attendanceBulkRegistForm.getTrainingStartTime());
+		TrainingTime trainingEndTime = TrainingTime
+				.parse(attendanceBulkRegistForm.getTrainingEndTime());
+		if (trainingStartTime.isBlank()) {
+			if (trainingEndTime.isNotBlank()) {
+				errorMessages
+						.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHINEMPTY));
 			} else {
-				tStudentAttendanceMapper.update(tStudentAttendance);
+				errorMessages.add(messageUtil.getMessage(Constants.VALID_KEY_REQUIRED, new String[] { "出勤時間" }));
+			}
+		} else if (trainingEndTime.isNotBlank()) {
+			// 出勤時間 > 退勤時間のチェック
+			int workTimeMinutes = trainingEndTime.toMinutes() - trainingStartTime.toMinutes();
+			if (workTimeMinutes <= 0) {
+				errorMessages.add(messageUtil.getMessage(
+						Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGEBULK,
+						new String[] { "出勤時間・退勤時間" }));
+			} else if (attendanceBulkRegistForm.getBlankTime() != null
+					&& workTimeMinutes < attendanceBulkRegistForm.getBlankTime()) {
+				// 中抜け時間が勤務時間を超えるチェック
+				errorMessages
+						.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_BLANKTIMEERROR));
 			}
 		}
+
+		// 備考の文字数チェック（100文字以内）
+		if (attendanceBulkRegistForm.getNote() != null
+				&& attendanceBulkRegistForm.getNote().length() > 100) {
+			errorMessages.add(messageUtil.getMessage(Constants.VALID_KEY_MAXLENGTH, new String[] { "備考", "100" }));
+		}
+
+		// エラーメッセージがある場合は結合して返す
+		if (!errorMessages.isEmpty()) {
+			return String.join("\n", errorMessages);
+		}
+
+		// 対象期間に研修日が含まれるかチェック
+		if (getBulkRegistTrainingDates(attendanceBulkRegistForm.getCourseId(), trainingDateFrom,
+				trainingDateTo).isEmpty()) {
+			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_NOTWORKDAY);
+		}
+
+		return null; // エラーなし
+	}
+
+	/**
+	 * 勤怠一括登録
+	 * 
+	 * <p>
+	 * 入力内容はコース内の受講生全員で共通のため、研修日ごとに遅刻早退ステータスを判定し（定時は研修日単位で異なりうる）、1文で登録・更新する。
+	 * 対象期間の全研修日を1トランザクションで登録・更新する（途中で失敗した場合は全日分を取り消す）。
+	 * </p>
+	 * 
+	 * @param attendanceBulkRegistForm 入力チェック済みのフォーム
+	 * @return 完了メッセージ
+	 */
+	@Transactional
+	public String bulkRegist(AttendanceBulkRegistForm attendanceBulkRegistForm) {
+
+		TrainingTime trainingStartTime = TrainingTime
+				.parse(attendanceBulkRegistForm.getTrainingStartTime());
+		TrainingTime trainingEndTime = TrainingTime
+				.parse(attendanceBulkRegistForm.getTrainingEndTime());
+		// 登録内容（研修日と遅刻早退ステータス以外は全日共通）
+		Date date = new Date();
+		TStudentAttendance tStudentAttendance = new TStudentAttendance();
+		tStudentAttendance.setTrainingStartTime(trainingStartTime.getFormattedString());
+		tStudentAttendance.setTrainingEndTime(trainingEndTime.getFormattedString());
+		tStudentAttendance.setBlankTime(attendanceBulkRegistForm.getBlankTime());
+		tStudentAttendance.setNote(attendanceBulkRegistForm.getNote() == null ? ""
+				: attendanceBulkRegistForm.getNote());
+		tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
+		tStudentAttendance.setFirstCreateDate(date);
+		tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
+		tStudentAttendance.setLastModifiedDate(date);
+
+		// 研修日ごとにコース内の受講生全員分を登録・更新
+		for (Date trainingDate : getBulkRegistTrainingDates(attendanceBulkRegistForm.getCourseId(),
+				parseBulkRegistDate(attendanceBulkRegistForm.getTrainingDateFrom()),
+				parseBulkRegistDate(attendanceBulkRegistForm.getTrainingDateTo()))) {
+			tStudentAttendance.setTrainingDate(trainingDate);
+			// 遅刻早退ステータス
+			tStudentAttendance.setStatus(attendanceUtil.getStatus(
+					attendanceBulkRegistForm.getCourseId(), trainingDate, trainingStartTime,
+					trainingEndTime).code);
+			tStudentAttendanceMapper.upsertByCourseId(attendanceBulkRegistForm.getCourseId(),
+					Constants.CODE_VAL_ROLL_STUDENT, tStudentAttendance);
+		}
 		// 完了メッセージ
 		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
 	}
 
 	/**
-	 * 勤怠未入力件数取得
+	 * 対象期間内の研修日を取得
 	 * 
-	 * @param lmsUserId LMSユーザーID
-	 * @param deleteFlg 削除フラグ
-	 * @param currentDate 現在日付
-	 * @return 未入力件数
+	 * @param courseId
+	 * @param trainingDateFrom
+	 * @param trainingDateTo
+	 * @return 研修日リスト（重複なし・昇順）
 	 */
-	public int getUnfilledPastCount(Integer lmsUserId, Short deleteFlg, Date currentDate) {
-		// a. SimpleDateFormatクラスでフォーマットパターンを設定
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-
-		//ここでdateを呼び出す
+	private List<Date> getBulkRegistTrainingDates(Integer courseId, Date trainingDateFrom,
+			Date trainingDateTo) {
+		CourseCalendar calendar = courseCalendarCache.get(courseId);
+		long from = CourseCalendarCache.toEpochDay(trainingDateFrom);
+		long to = CourseCalendarCache.toEpochDay(trainingDateTo);
+		List<Date> trainingDateList = new ArrayList<>();
+		long previous = Long.MIN_VALUE;
+		for (int i = 0; i < calendar.size(); i++) {
+			long epochDay = calendar.getEpochDay(i);
+			if (epochDay >= from && epochDay <= to && epochDay != previous) {
+				trainingDateList.add(calendar.getTrainingDate(i));
+				previous = epochDay;
+			}
+		}
+		return trainingDateList;
+	}
 
-		// 1. APIを呼び出して勤怠情報を取得
-		// コースIDはログイン情報から取得
-		Integer courseId = loginUserDto.getCourseId();
-		List<AttendanceManagementDto> attendanceManagementDtoList = tStudentAttendanceMapper
-				.getAttendanceManagement(courseId, lmsUserId, deleteFlg);
+	/**
+	 * 対象期間の日付変換
+	 * 
+	 * @param dateStr
+	 * @return 日付（空または日付形式でない場合はnull）
+	 */
+	private Date parseBulkRegistDate(String dateStr) {
+		if (isEmptyString(dateStr)) {
+			return null;
+		}
+		try {
+			return dateUtil.parse(dateStr, Constants.DEFAULT_DATE_FORMAT);
+		} catch (ParseException e) {
+			return null;
+		}
+	}
 
-		// 取得したデータを正しく表示
-		for (AttendanceManagementDto dto : attendanceManagementDtoList) {
-			// 中抜け時間を設定
-			if (dto.getBlankTime() != null) {
-				TrainingTime blankTime = attendanceUtil.calcBlankTime(dto.getBlankTime());
-				dto.setBlankTimeValue(String.valueOf(blankTime));
+	/**
+	 * コース勤怠一覧の研修日リスト取得
+	 * 
+	 * @param courseId
+	 * @return 研修日リスト（重複なし・昇順）
+	 */
+	public List<Date> getAttendanceMatrixDateList(Integer courseId) {
+		CourseCalendar calendar = courseCalendarCache.get(courseId);
+		List<Date> dateList = new ArrayList<>(calendar.size());
+		long previous = Long.MIN_VALUE;
+		for (int i = 0; i < calendar.size(); i++) {
+			if (calendar.getEpochDay(i) != previous) {
+				dateList.add(calendar.getTrainingDate(i));
+				previous = calendar.getEpochDay(i);
 			}
-			// 遅刻早退区分判定
-			AttendanceStatusEnum statusEnum = AttendanceStatusEnum.getEnum(dto.getStatus());
-			if (statusEnum != null) {
-				dto.setStatusDispName(statusEnum.name);
+		}
+		return dateList;
+	}
+
+	/**
+	 * コース勤怠一覧取得（1ページ分）<br>
+	 * 前ページの最終行の受講生より後の受講生を1ページ分取得する（キーセットページング）。
+	 * 次ページの有無はページ件数＋1人分取得して判定する。
+	 * 
+	 * @param courseId
+	 * @param lastLmsUserId 前ページの最終行のLMSユーザーID（先頭ページの場合はnull）
+	 * @return コース勤怠一覧結果DTO
+	 */
+	public AttendanceMatrixResultDto getAttendanceMatrixPage(Integer courseId,
+			Integer lastLmsUserId) {
+		List<Date> dateList = getAttendanceMatrixDateList(courseId);
+		List<AttendanceMatrixRowDto> rowList = new ArrayList<>(MATRIX_PAGE_SIZE + 1);
+		getAttendanceMatrix(courseId, dateList, lastLmsUserId, MATRIX_PAGE_SIZE + 1, rowList::add);
+		boolean hasNext = rowList.size() > MATRIX_PAGE_SIZE;
+		if (hasNext) {
+			rowList.remove(MATRIX_PAGE_SIZE);
+		}
+		AttendanceMatrixResultDto attendanceMatrixResultDto = new AttendanceMatrixResultDto();
+		attendanceMatrixResultDto.setDateList(dateList);
+		attendanceMatrixResultDto.setPageSize(MATRIX_PAGE_SIZE);
+		attendanceMatrixResultDto.setHasNext(hasNext);
+		attendanceMatrixResultDto.setRowList(rowList);
+		return attendanceMatrixResultDto;
+	}
+
+	/**
+	 * コース勤怠一覧取得
+	 * 
+	 * <p>
+	 * 受講生×研修日の勤怠を1回のクエリで順に読み込み、受講生1人分がそろうたびに行DTOをrowConsumerへ渡す。
+	 * 自動コミットではドライバが結果を全件読み込んでしまうため、読み取り専用のトランザクション内でカーソルから読み込む。
+	 * </p>
+	 * 
+	 * @param courseId
+	 * @param dateList      研修日リスト（{@link #getAttendanceMatrixDateList(Integer)}）
+	 * @param lastLmsUserId 前ページの最終行のLMSユーザーID（nullの場合は先頭から）
+	 * @param limit         受講生数の上限（nullの場合は全員）
+	 * @param rowConsumer   受講生行の受け取り先
+	 */
+	private void getAttendanceMatrix(Integer courseId, List<Date> dateList, Integer lastLmsUserId,
+			Integer limit, Consumer<AttendanceMatrixRowDto> rowConsumer) {
+		// 研修日→列番号
+		Map<Long, Integer> columnMap = new HashMap<>();
+		for (int i = 0; i < dateList.size(); i++) {
+			columnMap.put(CourseCalendarCache.toEpochDay(dateList.get(i)), i);
+		}
+		MatrixRowAccumulator accumulator = new MatrixRowAccumulator(columnMap, dateList.size(),
+				CourseCalendarCache.toEpochDay(new Date()), rowConsumer);
+		readOnlyTransactionTemplate.executeWithoutResult(status -> {
+			tStudentAttendanceMapper.getAttendanceMatrix(courseId, Constants.CODE_VAL_ROLL_STUDENT,
+					Constants.DB_FLG_FALSE, lastLmsUserId, limit, accumulator);
+			// 最後の受講生の行を確定
+			accumulator.flush();
+		});
+	}
+
+	/**
+	 * コース勤怠一覧のCSVダウンロード
+	 * 
+	 * @param courseId
+	 * @param courseName
+	 * @param response
+	 * @throws IOException
+	 */
+	public void downloadAttendanceMatrix(Integer courseId, String courseName,
+			HttpServletResponse response) throws IOException {
+		String fileName = "勤怠一覧_" + courseName + ".csv";
+		String fileNameSjis = new String(fileName.getBytes("Shift_JIS"), "ISO-8859-1").replace(" ",
+				"%20");
+		String fileNameUtf8 = URLEncoder.encode(fileName, "UTF-8").replace("+", "%20");
+		response.setContentType("text/csv; charset=Windows-31J");
+		response.setHeader("Content-Disposition",
+				"attachment;filename=" + fileNameSjis + ";filename*=utf-8''" + fileNameUtf8);
+
+		List<Date> dateList = getAttendanceMatrixDateList(courseId);
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(response.getOutputStream(), "Windows-31J")))) {
+			// 見出し行
+			StringBuilder header = new StringBuilder("受講生名,遅刻,早退,欠席,未入力");
+			for (Date date : dateList) {
+				header.append(',').append(dateUtil.toString(date));
 			}
+			writer.print(header.append("\r\n"));
+			// 受講生ごとに1行ずつ書き出す
+			getAttendanceMatrix(courseId, dateList, null, null, row -> {
+				StringBuilder line = new StringBuilder();
+				line.append(escapeCsv(row.getUserName())).append(',').append(row.getTardyCount())
+						.append(',').append(row.getLeavingEarlyCount()).append(',')
+						.append(row.getAbsentCount()).append(',').append(row.getUnfilledCount());
+				for (String cell : row.getCells()) {
+					line.append(',').append(escapeCsv(cell));
+				}
+				writer.print(line.append("\r\n"));
+			});
+		}
+	}
+
+	/**
+	 * コース勤怠一覧のセル表示内容を作成
+	 * 
+	 * @param dto
+	 * @param isPast 過去日の場合true
+	 * @return セル表示内容
+	 */
+	private static String getAttendanceMatrixCell(AttendanceMatrixDto dto, boolean isPast) {
+		AttendanceStatusEnum statusEnum = AttendanceStatusEnum.getEnum(dto.getStatus());
+		if (statusEnum == AttendanceStatusEnum.ABSENT) {
+			return statusEnum.name;
+		}
+		boolean startEmpty = isEmptyString(dto.getTrainingStartTime());
+		boolean endEmpty = isEmptyString(dto.getTrainingEndTime());
+		if (startEmpty && endEmpty) {
+			return isPast ? "未入力" : "";
+		}
+		StringBuilder cell = new StringBuilder();
+		cell.append(startEmpty ? "" : dto.getTrainingStartTime()).append('-')
+				.append(endEmpty ? "" : dto.getTrainingEndTime());
+		if (statusEnum != null && !statusEnum.name.isEmpty()) {
+			cell.append(' ').append(statusEnum.name);
 		}
+		return cell.toString();
+	}
 
-		// 過去日の未入力数をカウント
-		return countUnfilledPastWithFormat(attendanceManagementDtoList, currentDate, sdf);
+	/**
+	 * CSV項目のエスケープ
+	 * 
+	 * @param value
+	 * @return エスケープ後の値
+	 */
+	private String escapeCsv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+				&& value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	/**
+	 * コース勤怠集計（遅刻早退・勤務時間）取得
+	 * 
+	 * @param courseId
+	 * @return LMSユーザーIDごとのコース勤怠集計DTO
+	 */
+	public Map<Integer, AttendanceLatenessDto> getAttendanceLatenessMap(Integer courseId) {
+		Map<Integer, AttendanceLatenessDto> attendanceLatenessMap = new HashMap<>();
+		for (AttendanceLatenessDto attendanceLatenessDto : tStudentAttendanceMapper
+				.getAttendanceLateness(courseId, Constants.CODE_VAL_ROLL_STUDENT,
+						Constants.DB_FLG_FALSE, AttendanceStatusEnum.ABSENT.code,
+						Constants.SSS_WORK_START_TIME, Constants.SSS_WORK_END_TIME)) {
+			attendanceLatenessMap.put(attendanceLatenessDto.getLmsUserId(), attendanceLatenessDto);
+		}
+		return attendanceLatenessMap;
 	}
 
 	/**
-	 * SimpleDateFormatを使用した過去の未入力件数を取得
+	 * 勤怠ステータス再計算の開始
+	 * 
+	 * <p>
+	 * 定時設定の変更後に、コース内の受講生の遅刻早退ステータスを現在の定時で判定し直す。
+	 * 再計算は専用のスレッドプールで行い、完了を待たずに戻る（進捗は{@link #getRecomputeProgress(Integer)}で取得する）。
+	 * </p>
 	 * 
-	 * @param list 勤怠情報リスト
-	 * @param today 今日の日付
-	 * @param sdf 日付フォーマッター
-	 * @return 過去の未入力件数
+	 * @param courseId
+	 * @return 開始した場合：true、同じコースの再計算が実行中の場合：false
 	 */
-	private int countUnfilledPastWithFormat(List<AttendanceManagementDto> list, Date today, SimpleDateFormat sdf) {
-		int count = 0;
+	public boolean recomputeStatus(Integer courseId) {
+
+		// セッションスコープのログイン情報は再計算のスレッドから参照できないため、先に取り出す
+		Integer lastModifiedUser = loginUserDto.getLmsUserId();
+
+		// 完了後に進捗が取得されないまま保持時間を経過したものを削除する
+		long now = System.currentTimeMillis();
+		recomputeProgressMap.values().removeIf(current -> current.completed
+				&& current.completedTime + RECOMPUTE_PROGRESS_RETENTION_MSEC < now);
+
+		RecomputeProgress progress = new RecomputeProgress();
+		RecomputeProgress running = recomputeProgressMap.compute(courseId,
+				(key, current) -> current != null && !current.completed ? current : progress);
+		if (running != progress) {
+			return false;
+		}
+		try {
+			recomputePool.execute(() -> {
+				try {
+					recompute(courseId, lastModifiedUser, progress);
+				} catch (RuntimeException e) {
+					logger.warn("勤怠ステータスの再計算に失敗しました。コースID：" + courseId, e);
+				} finally {
+					progress.complete();
+				}
+			});
+		} catch (RuntimeException e) {
+			progress.complete();
+			throw e;
+		}
+		return true;
+	}
 
-		// 今日の日付を文字列に変換
-		String todayStr = sdf.format(today);
+	/**
+	 * 勤怠ステータス再計算
+	 * 
+	 * <p>
+	 * 対象行をチャンクに分けて並列に判定し、変更のあった行だけをチャンクごとに1文で更新する。
+	 * 欠席の行と、出退勤時刻がともに未入力の行は対象外。
+	 * 再計算用スレッドプールのタスクから呼び出すため、並列ストリームも同じプールで実行される。
+	 * </p>
+	 * 
+	 * @param courseId
+	 * @param lastModifiedUser
+	 * @param progress
+	 */
+	private void recompute(Integer courseId, Integer lastModifiedUser,
+			RecomputeProgress progress) {
 
-		for (AttendanceManagementDto dto : list) {
-			// 研修日を文字列に変換
-			String trainingDateStr = sdf.format(dto.getTrainingDate());
+		// 変更直後の定時設定で判定するため、キャッシュ済みの研修日カレンダーを破棄する
+		courseCalendarCache.evict(courseId);
+		Date date = new Date();
 
-			// 今日より過去の日付（文字列比較）
-			if (trainingDateStr.compareTo(todayStr) < 0) {
-				boolean startEmpty = dto.getTrainingStartTime() == null || dto.getTrainingStartTime().isEmpty();
-				boolean endEmpty = dto.getTrainingEndTime() == null || dto.getTrainingEndTime().isEmpty();
-				if (startEmpty || endEmpty) {
-					count++;
+		List<TStudentAttendance> tStudentAttendanceList = tStudentAttendanceMapper
+				.findByCourseId(courseId, Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE);
+		progress.totalCount = tStudentAttendanceList.size();
+		int chunkCount = (tStudentAttendanceList.size() + RECOMPUTE_CHUNK_SIZE - 1)
+				/ RECOMPUTE_CHUNK_SIZE;
+		IntStream.range(0, chunkCount).parallel().forEach(i -> {
+			List<TStudentAttendance> chunk = tStudentAttendanceList.subList(
+					i * RECOMPUTE_CHUNK_SIZE,
+					Math.min((i + 1) * RECOMPUTE_CHUNK_SIZE, tStudentAttendanceList.size()));
+			List<TStudentAttendance> updateList = new ArrayList<>();
+			for (TStudentAttendance tStudentAttendance : chunk) {
+				if (AttendanceStatusEnum.ABSENT.code.equals(tStudentAttendance.getStatus())) {
+					continue;
+				}
+				TrainingTime trainingStartTime = TrainingTime
+						.parse(tStudentAttendance.getTrainingStartTime());
+				TrainingTime trainingEndTime = TrainingTime
+						.parse(tStudentAttendance.getTrainingEndTime());
+				if (trainingStartTime.isBlank() && trainingEndTime.isBlank()) {
+					continue;
+				}
+				Short status = attendanceUtil.getStatus(courseId,
+						tStudentAttendance.getTrainingDate(), trainingStartTime,
+						trainingEndTime).code;
+				if (!status.equals(tStudentAttendance.getStatus())) {
+					tStudentAttendance.setStatus(status);
+					updateList.add(tStudentAttendance);
 				}
 			}
+			if (!updateList.isEmpty()) {
+				progress.updatedCount.addAndGet(tStudentAttendanceMapper
+						.updateStatusList(updateList, lastModifiedUser, date));
+			}
+			progress.processedCount.addAndGet(chunk.size());
+		});
+	}
+
+	/**
+	 * 勤怠ステータス再計算 進捗取得<br>
+	 * 完了を返した進捗は削除する（以降はnullを返す）。
+	 * 
+	 * @param courseId
+	 * @return 進捗DTO（再計算を実行していない場合はnull）
+	 */
+	public AttendanceRecomputeProgressDto getRecomputeProgress(Integer courseId) {
+		RecomputeProgress progress = recomputeProgressMap.get(courseId);
+		if (progress == null) {
+			return null;
 		}
-		return count;
+		// 件数は完了フラグの後に読む（完了を返す場合は最終の件数とする）
+		boolean completed = progress.completed;
+		AttendanceRecomputeProgressDto attendanceRecomputeProgressDto = new AttendanceRecomputeProgressDto();
+		attendanceRecomputeProgressDto.setCourseId(courseId);
+		attendanceRecomputeProgressDto.setTotalCount(progress.totalCount);
+		attendanceRecomputeProgressDto.setProcessedCount(progress.processedCount.get());
+		attendanceRecomputeProgressDto.setUpdatedCount(progress.updatedCount.get());
+		attendanceRecomputeProgressDto.setCompleted(completed);
+		if (completed) {
+			recomputeProgressMap.remove(courseId, progress);
+		}
+		return attendanceRecomputeProgressDto;
+	}
+
+	/**
+	 * 勤怠情報の変更有無を判定
+	 * 
+	 * @param current 登録済みの勤怠情報
+	 * @param updated 入力内容を反映した勤怠情報
+	 * @return true: 変更あり、false: 変更なし
+	 */
+	private boolean isChanged(TStudentAttendance current, TStudentAttendance updated) {
+		return !Objects.equals(current.getTrainingStartTime(), updated.getTrainingStartTime())
+				|| !Objects.equals(current.getTrainingEndTime(), updated.getTrainingEndTime())
+				|| !Objects.equals(current.getBlankTime(), updated.getBlankTime())
+				|| !Objects.equals(current.getStatus(), updated.getStatus())
+				|| !Objects.equals(current.getNote(), updated.getNote());
+	}
+
+	/**
+	 * 勤怠未入力件数取得
+	 * 
+	 * @param lmsUserId LMSユーザーID
+	 * @param deleteFlg 削除フラグ
+	 * @param currentDate 現在日付
+	 * @return 未入力件数
+	 */
+	public int getUnfilledPastCount(Integer lmsUserId, Short deleteFlg, Date currentDate) {
+		// コースIDはログイン情報から取得
+		Integer courseId = loginUserDto.getCourseId();
+		// 過去の研修日のうち、出勤・退勤のいずれかが未入力の件数をDBで集計
+		return tStudentAttendanceMapper.getUnfilledPastCount(courseId, lmsUserId, deleteFlg,
+				currentDate);
 	}
 
 	/**
@@ -484,12 +1066,12 @@ public class StudentAttendanceService {
 			// e. 出勤時間 > 退勤時間のチェック + f. 中抜け時間チェック
 			if (!isEmptyString(dailyForm.getTrainingStartTime()) && !isEmptyString(dailyForm.getTrainingEndTime())) {
 				try {
-					TrainingTime startTime = new TrainingTime(dailyForm.getTrainingStartTime());
-					TrainingTime endTime = new TrainingTime(dailyForm.getTrainingEndTime());
+					TrainingTime startTime = TrainingTime.parse(dailyForm.getTrainingStartTime());
+					TrainingTime endTime = TrainingTime.parse(dailyForm.getTrainingEndTime());
 
 					// 勤務時間を計算（分単位）
-					int startMinutes = startTime.getHour() * 60 + startTime.getMinute();
-					int endMinutes = endTime.getHour() * 60 + endTime.getMinute();
+					int startMinutes = startTime.toMinutes();
+					int endMinutes = endTime.toMinutes();
 					int workTimeMinutes = endMinutes - startMinutes; // 勤務時間（分）
 
 					// e. 出勤時間 > 退勤時間のチェック（workTimeMinutes <= 0の場合）
@@ -504,7 +1086,7 @@ public class StudentAttendanceService {
 					if (dailyForm.getBlankTime() != null && workTimeMinutes > 0) {
 						try {
 							TrainingTime blankTime = attendanceUtil.calcBlankTime(dailyForm.getBlankTime());
-							int blankTimeMinutes = blankTime.getHour() * 60 + blankTime.getMinute();
+							int blankTimeMinutes = blankTime.toMinutes();
 
 							// workTimeMinutes < blankTimeMinutes の場合エラー
 							if (workTimeMinutes < blankTimeMinutes) {
@@ -539,8 +1121,94 @@ public class StudentAttendanceService {
 	 * @param str チェック対象文字列
 	 * @return true: 空、false: 空でない
 	 */
-	private boolean isEmptyString(String str) {
+	private static boolean isEmptyString(String str) {
 		return str == null || str.trim().isEmpty();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * コース勤怠一覧の行の組み立て<br>
+	 * 受講生×研修日の勤怠を順に受け取り、受講生1人分がそろうたびに行DTOをrowConsumerへ渡す。
+	 */
+	private static final class MatrixRowAccumulator implements ResultHandler<AttendanceMatrixDto> {
+
+		/** 研修日→列番号 */
+		private final Map<Long, Integer> columnMap;
+		/** 列数 */
+		private final int columnCount;
+		/** 本日（エポック日） */
+		private final long today;
+		/** 受講生行の受け取り先 */
+		private final Consumer<AttendanceMatrixRowDto> rowConsumer;
+		/** 組み立て中の受講生行 */
+		private AttendanceMatrixRowDto current;
+
+		MatrixRowAccumulator(Map<Long, Integer> columnMap, int columnCount, long today,
+				Consumer<AttendanceMatrixRowDto> rowConsumer) {
+			this.columnMap = columnMap;
+			this.columnCount = columnCount;
+			this.today = today;
+			this.rowConsumer = rowConsumer;
+		}
+
+		@Override
+		public void handleResult(ResultContext<? extends AttendanceMatrixDto> resultContext) {
+			AttendanceMatrixDto dto = resultContext.getResultObject();
+			// 受講生が切り替わったら前の受講生の行を確定
+			if (current == null || !current.getLmsUserId().equals(dto.getLmsUserId())) {
+				flush();
+				current = new AttendanceMatrixRowDto();
+				current.setLmsUserId(dto.getLmsUserId());
+				current.setUserName(dto.getUserName());
+				current.setCells(new String[columnCount]);
+				Arrays.fill(current.getCells(), "");
+				current.setTardyCount(dto.getTardyCount());
+				current.setLeavingEarlyCount(dto.getLeavingEarlyCount());
+				current.setAbsentCount(dto.getAbsentCount());
+				current.setUnfilledCount(dto.getUnfilledCount());
+			}
+			long epochDay = CourseCalendarCache.toEpochDay(dto.getTrainingDate());
+			Integer column = columnMap.get(epochDay);
+			if (column != null) {
+				current.getCells()[column] = getAttendanceMatrixCell(dto, epochDay < today);
+			}
+		}
+
+		/**
+		 * 組み立て中の受講生行の確定
+		 */
+		void flush() {
+			if (current != null) {
+				rowConsumer.accept(current);
+				current = null;
+			}
+		}
+
+	}
+
+	/**
+	 * 勤怠ステータス再計算の進捗（再計算のスレッドから更新する）
+	 */
+	private static final class RecomputeProgress {
+
+		/** 対象件数 */
+		private volatile int totalCount;
+		/** 処理済件数 */
+		private final AtomicInteger processedCount = new AtomicInteger();
+		/** 更新件数 */
+		private final AtomicInteger updatedCount = new AtomicInteger();
+		/** 完了日時 */
+		private volatile long completedTime;
+		/** 完了フラグ */
+		private volatile boolean completed;
+
+		/**
+		 * 完了
+		 */
+		void complete() {
+			completedTime = System.currentTimeMillis();
+			completed = true;
+		}
+
+	}
+
+}
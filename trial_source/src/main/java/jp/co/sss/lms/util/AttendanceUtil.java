@@ -1,16 +1,16 @@
 package jp.co.sss.lms.util;
 
 import java.text.ParseException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import jp.co.sss.lms.enums.AttendanceStatusEnum;
-import jp.co.sss.lms.mapper.MSectionMapper;
 
 /**
  * 勤怠管理のユーティリティクラス
@@ -23,7 +23,14 @@ public class AttendanceUtil {
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
-	private MSectionMapper mSectionMapper;
+	private CourseCalendarCache courseCalendarCache;
+
+	/** 中抜け時間（プルダウン）：15分刻みで7時間45分まで */
+	private static final Map<Integer, String> BLANK_TIMES = createBlankTimes();
+	/** 勤務時間-時（プルダウン）：00～23 */
+	private static final List<String> WORK_HOURS = createTimeOptions(24);
+	/** 勤務時間-分（プルダウン）：00～59 */
+	private static final List<String> WORK_MINUTES = createTimeOptions(60);
 
 	/**
 	 * SSS定時・出退勤時間を元に、遅刻早退を判定をする
@@ -38,6 +45,29 @@ public class AttendanceUtil {
 				Constants.SSS_WORK_END_TIME);
 	}
 
+	/**
+	 * コースの定時・出退勤時間を元に、遅刻早退を判定をする
+	 * 
+	 * <p>
+	 * 定時は研修日単位の設定 → コース単位の設定 → SSS定時の順に解決する。
+	 * </p>
+	 * 
+	 * @param courseId          コースID
+	 * @param trainingDate      研修日
+	 * @param trainingStartTime 開始時刻
+	 * @param trainingEndTime   終了時刻
+	 * @return 判定結果
+	 */
+	public AttendanceStatusEnum getStatus(Integer courseId, Date trainingDate,
+			TrainingTime trainingStartTime, TrainingTime trainingEndTime) {
+		if (courseId == null) {
+			return getStatus(trainingStartTime, trainingEndTime);
+		}
+		CourseCalendarCache.CourseCalendar calendar = courseCalendarCache.get(courseId);
+		return getStatus(trainingStartTime, trainingEndTime,
+				calendar.getWorkStartTime(trainingDate), calendar.getWorkEndTime(trainingDate));
+	}
+
 	/**
 	 * 与えられた定時・出退勤時間を元に、遅刻早退を判定する
 	 * 
@@ -84,7 +114,7 @@ public class AttendanceUtil {
 	public TrainingTime calcBlankTime(int min) {
 		int hour = min / 60;
 		int minute = min % 60;
-		TrainingTime total = new TrainingTime(hour, minute);
+		TrainingTime total = TrainingTime.of(hour, minute);
 		return total;
 	}
 
@@ -107,31 +137,10 @@ public class AttendanceUtil {
 	/**
 	 * 休憩時間取得
 	 * 
-	 * @return 休憩時間
+	 * @return 休憩時間（全画面共通の変更不可マップ）
 	 */
-	public LinkedHashMap<Integer, String> setBlankTime() {
-		LinkedHashMap<Integer, String> map = new LinkedHashMap<>();
-		map.put(null, "");
-		for (int i = 15; i < 480;) {
-			int hour = i / 60;
-			int minute = i % 60;
-			String time;
-
-			if (hour == 0) {
-				time = minute + "分";
-
-			} else if (minute == 0) {
-				time = hour + "時間";
-			} else {
-				time = hour + "時" + minute + "分";
-			}
-
-			map.put(i, time);
-
-			i = i + 15;
-
-		}
-		return map;
+	public Map<Integer, String> setBlankTime() {
+		return BLANK_TIMES;
 	}
 
 	/**
@@ -142,42 +151,27 @@ public class AttendanceUtil {
 	 * @return 判定結果
 	 */
 	public boolean isWorkDay(Integer courseId, Date trainingDate) {
-		Integer count = mSectionMapper.getSectionCountByCourseId(courseId, trainingDate);
-		if (count > 0) {
-			return true;
-		}
-		return false;
+		// コース単位でキャッシュした研修日カレンダーで判定
+		return courseCalendarCache.isWorkDay(courseId, trainingDate);
 	}
 
 	//task26分
 	/**
 	 * 時間（0-23時）のプルダウン用データ取得
 	 *
-	 * @return 時間のマップ
+	 * @return 時間のリスト（全画面共通の変更不可リスト）
 	 */
 	public List<String> setWorkHour() {
-		List<String> hourList = new ArrayList<>();
-		hourList.add(""); 
-
-		for (int hour = 0; hour < 24; hour++) {
-			hourList.add(String.format("%02d", hour));
-		}
-		return hourList;
+		return WORK_HOURS;
 	}
 
 	/**
 	 * 分（0-59分）のプルダウン用データ取得
 	 *
-	 * @return 分のマップ
+	 * @return 分のリスト（全画面共通の変更不可リスト）
 	 */
 	public List<String> setWorkMinute() {
-	    List<String> minuteList = new ArrayList<>();
-	    minuteList.add(""); 
-	    
-	    for (int minute = 0; minute < 60; minute ++) {
-	        minuteList.add(String.format("%02d", minute));
-	    }
-	    return minuteList;
+		return WORK_MINUTES;
 	}
 
 	/**
@@ -211,4 +205,43 @@ public class AttendanceUtil {
 		}
 		return "";
 	}
+
+	/**
+	 * 中抜け時間のプルダウン用データ作成
+	 * 
+	 * @return 中抜け時間（未選択を先頭に、表示順を保持した変更不可マップ）
+	 */
+	private static Map<Integer, String> createBlankTimes() {
+		LinkedHashMap<Integer, String> map = new LinkedHashMap<>();
+		map.put(null, "");
+		for (int i = 15; i < 480; i += 15) {
+			int hour = i / 60;
+			int minute = i % 60;
+			String time;
+			if (hour == 0) {
+				time = minute + "分";
+			} else if (minute == 0) {
+				time = hour + "時間";
+			} else {
+				time = hour + "時" + minute + "分";
+			}
+			map.put(i, time);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * 時・分のプルダウン用データ作成
+	 * 
+	 * @param count 件数（時は24、分は60）
+	 * @return 2桁の数字（未選択を先頭にした変更不可リスト）
+	 */
+	private static List<String> createTimeOptions(int count) {
+		String[] options = new String[count + 1];
+		options[0] = "";
+		for (int i = 0; i < count; i++) {
+			options[i + 1] = (i < 10 ? "0" : "") + i;
+		}
+		return List.of(options);
+	}
 }
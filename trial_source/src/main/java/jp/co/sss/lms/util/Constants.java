@@ -17,6 +17,7 @@ public interface Constants {
 	public static final String VALID_KEY_REQUIRED_WHEN = "required.when";
 	public static final String VALID_KEY_BYTE = "byte";
 	public static final String VALID_KEY_DATE = "date";
+	public static final String VALID_KEY_DATEFORMAT = "dateFormat";
 	public static final String VALID_KEY_DOUBLE = "double";
 	public static final String VALID_KEY_FLOAT = "float";
 	public static final String VALID_KEY_INTEGER = "integer";
@@ -58,6 +59,7 @@ public interface Constants {
 	public static final String VALID_KEY_DELETE_SYSADMIN = "delete.sysadmin";
 	public static final String VALID_KEY_MAXFILEAMOUNT_OVERLIMIT = "maxfileamount.overlimit";
 	public static final String VALID_KEY_MAXFILEAMOUNT_DOWNLOAD_OVERLIMIT = "maxfileamount.download.overlimit";
+	public static final String VALID_KEY_MAXFILEAMOUNT_DOWNLOAD_TRUNCATED = "maxfileamount.download.truncated";
 	public static final String VALID_KEY_REQUIRED_JSK = "required.jsk";
 	public static final String VALID_KEY_COURSELIST = "courseList";
 	public static final String VALID_KEY_AUTHORIZATION = "authorization";
@@ -166,6 +168,8 @@ public interface Constants {
 	public static final String PROP_KEY_MAIL_MAILFAILED_SUBJECT = "mail.mailfailed.subject";
 	public static final String PROP_KEY_MAIL_MAILFAILED_BODY = "mail.mailfailed.body";
 	public static final String PROP_KEY_ATTENDANCE_UPDATE_NOTICE = "attendance.update.notice";
+	public static final String PROP_KEY_ATTENDANCE_RECOMPUTE_NOTICE = "attendance.recompute.notice";
+	public static final String PROP_KEY_ATTENDANCE_RECOMPUTE_RUNNING = "attendance.recompute.running";
 	public static final String PROP_KEY_ATTENDANCE_COMPANY_JOSEIKININFOISNOTEXISTS = "attendance.company.joseiKinInfoIsNotExists";
 	public static final String PROP_KEY_REGIST_COMPLETE = "regist.complete";
 	public static final String PROP_KEY_UPDATE_COMPLETE = "update.complete";
@@ -276,13 +280,13 @@ public interface Constants {
 	public static final int SELECT_MAX_LENGTH = 70;
 
 	/** システムシェアード定時開始 */
-	public static final TrainingTime SSS_WORK_START_TIME = new TrainingTime("09:00");
+	public static final TrainingTime SSS_WORK_START_TIME = TrainingTime.parse("09:00");
 	/** システムシェアード定時終了 */
-	public static final TrainingTime SSS_WORK_END_TIME = new TrainingTime("18:00");
+	public static final TrainingTime SSS_WORK_END_TIME = TrainingTime.parse("18:00");
 	/** システムシェアード休憩開始 */
-	public static final TrainingTime SSS_REST_START_TIME = new TrainingTime("12:00");
+	public static final TrainingTime SSS_REST_START_TIME = TrainingTime.parse("12:00");
 	/** システムシェアード休憩終了 */
-	public static final TrainingTime SSS_REST_END_TIME = new TrainingTime("13:00");
+	public static final TrainingTime SSS_REST_END_TIME = TrainingTime.parse("13:00");
 
 	/** 勤怠タイプ：出勤 */
 	public static final short CODE_VAL_ATWORK = 0;
@@ -0,0 +1,300 @@
+package jp.co.sss.lms.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.entity.MSection;
+import jp.co.sss.lms.entity.TCourseSchedule;
+import jp.co.sss.lms.mapper.MSectionMapper;
+import jp.co.sss.lms.mapper.TCourseScheduleMapper;
+
+/**
+ * コース研修日カレンダーのキャッシュ
+ *
+ * <p>
+ * コースの研修日とセクション名はクラス内の受講生全員で共通のため、コース単位で一度だけ読み込み、
+ * 勤怠一覧の作成と研修日判定で使い回す。コースの定時（コース単位の設定と研修日単位の上書き）も合わせて保持する。
+ * セクションと定時設定はこのアプリケーションからは更新されないため、
+ * 一定時間の経過で再読込し、これらを更新する処理を追加する場合は{@link #evict(Integer)}を呼び出すこと。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class CourseCalendarCache {
+
+	@Autowired
+	private MSectionMapper mSectionMapper;
+	@Autowired
+	private TCourseScheduleMapper tCourseScheduleMapper;
+
+	@Value("${setting.attendance.calendar.cacheMinute}")
+	private Integer cacheMinute;
+
+	/** コースID毎の研修日カレンダー */
+	private final Map<Integer, CourseCalendar> calendarMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 研修日カレンダー取得
+	 *
+	 * @param courseId
+	 * @return 研修日カレンダー
+	 */
+	public CourseCalendar get(Integer courseId) {
+		long now = System.currentTimeMillis();
+		CourseCalendar calendar = calendarMap.get(courseId);
+		if (calendar == null || calendar.loadedAt + cacheMinute * 60_000L < now) {
+			calendar = load(courseId, now);
+			calendarMap.put(courseId, calendar);
+		}
+		return calendar;
+	}
+
+	/**
+	 * 研修日判定
+	 *
+	 * @param courseId
+	 * @param trainingDate
+	 * @return 判定結果
+	 */
+	public boolean isWorkDay(Integer courseId, Date trainingDate) {
+		return get(courseId).isWorkDay(trainingDate);
+	}
+
+	/**
+	 * 定時開始時刻取得
+	 *
+	 * @param courseId
+	 * @param trainingDate
+	 * @return 定時開始時刻
+	 */
+	public TrainingTime getWorkStartTime(Integer courseId, Date trainingDate) {
+		return get(courseId).getWorkStartTime(trainingDate);
+	}
+
+	/**
+	 * 定時終了時刻取得
+	 *
+	 * @param courseId
+	 * @param trainingDate
+	 * @return 定時終了時刻
+	 */
+	public TrainingTime getWorkEndTime(Integer courseId, Date trainingDate) {
+		return get(courseId).getWorkEndTime(trainingDate);
+	}
+
+	/**
+	 * 研修日カレンダー破棄（セクション・定時設定変更時）
+	 *
+	 * @param courseId
+	 */
+	public void evict(Integer courseId) {
+		calendarMap.remove(courseId);
+	}
+
+	/**
+	 * 研修日カレンダー全件破棄
+	 */
+	public void evictAll() {
+		calendarMap.clear();
+	}
+
+	/**
+	 * 研修日カレンダー読込
+	 *
+	 * @param courseId
+	 * @param now
+	 * @return 研修日カレンダー
+	 */
+	private CourseCalendar load(Integer courseId, long now) {
+		List<MSection> sectionList = mSectionMapper.getCourseCalendar(courseId,
+				Constants.DB_FLG_FALSE);
+		int size = sectionList.size();
+		Date[] trainingDates = new Date[size];
+		long[] epochDays = new long[size];
+		String[] sectionNames = new String[size];
+		for (int i = 0; i < size; i++) {
+			MSection mSection = sectionList.get(i);
+			trainingDates[i] = new Date(mSection.getDate().getTime());
+			epochDays[i] = toEpochDay(mSection.getDate());
+			sectionNames[i] = mSection.getSectionName();
+		}
+		// 初回研修日からの経過日数で研修日のビットを立てる
+		BitSet workDays = new BitSet();
+		long firstEpochDay = size == 0 ? 0 : epochDays[0];
+		for (long epochDay : epochDays) {
+			workDays.set((int) (epochDay - firstEpochDay));
+		}
+		// 定時設定：研修日なしの行がコース単位、研修日ありの行が研修日単位の上書き
+		TrainingTime workStartTime = Constants.SSS_WORK_START_TIME;
+		TrainingTime workEndTime = Constants.SSS_WORK_END_TIME;
+		Map<Long, TrainingTime[]> scheduleMap = new HashMap<>();
+		for (TCourseSchedule tCourseSchedule : tCourseScheduleMapper.findByCourseId(courseId,
+				Constants.DB_FLG_FALSE)) {
+			TrainingTime startTime = TrainingTime.parse(tCourseSchedule.getWorkStartTime());
+			TrainingTime endTime = TrainingTime.parse(tCourseSchedule.getWorkEndTime());
+			if (tCourseSchedule.getTrainingDate() == null) {
+				workStartTime = startTime;
+				workEndTime = endTime;
+			} else {
+				scheduleMap.put(toEpochDay(tCourseSchedule.getTrainingDate()),
+						new TrainingTime[] { startTime, endTime });
+			}
+		}
+		return new CourseCalendar(trainingDates, epochDays, sectionNames, firstEpochDay,
+				workDays, workStartTime, workEndTime, scheduleMap, now);
+	}
+
+	/**
+	 * 日付をエポック日数に変換
+	 *
+	 * @param date
+	 * @return エポック日数
+	 */
+	public static long toEpochDay(Date date) {
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate()
+				.toEpochDay();
+	}
+
+	/**
+	 * コース研修日カレンダー（読込後は不変）
+	 */
+	public static final class CourseCalendar {
+
+		/** 研修日（昇順） */
+		private final Date[] trainingDates;
+		/** 研修日のエポック日数 */
+		private final long[] epochDays;
+		/** セクション名 */
+		private final String[] sectionNames;
+		/** 初回研修日のエポック日数 */
+		private final long firstEpochDay;
+		/** 研修日ビットセット */
+		private final BitSet workDays;
+		/** コース単位の定時開始時刻 */
+		private final TrainingTime workStartTime;
+		/** コース単位の定時終了時刻 */
+		private final TrainingTime workEndTime;
+		/** 研修日単位の定時（エポック日数→開始・終了時刻） */
+		private final Map<Long, TrainingTime[]> scheduleMap;
+		/** 読込日時 */
+		private final long loadedAt;
+
+		private CourseCalendar(Date[] trainingDates, long[] epochDays, String[] sectionNames,
+				long firstEpochDay, BitSet workDays, TrainingTime workStartTime,
+				TrainingTime workEndTime, Map<Long, TrainingTime[]> scheduleMap, long loadedAt) {
+			this.trainingDates = trainingDates;
+			this.epochDays = epochDays;
+			this.sectionNames = sectionNames;
+			this.firstEpochDay = firstEpochDay;
+			this.workDays = workDays;
+			this.workStartTime = workStartTime;
+			this.workEndTime = workEndTime;
+			this.scheduleMap = scheduleMap;
+			this.loadedAt = loadedAt;
+		}
+
+		/**
+		 * 件数取得
+		 *
+		 * @return セクション件数
+		 */
+		public int size() {
+			return trainingDates.length;
+		}
+
+		/**
+		 * 研修日取得
+		 *
+		 * @param index
+		 * @return 研修日（呼び出し側で変更できるよう複製を返す）
+		 */
+		public Date getTrainingDate(int index) {
+			return new Date(trainingDates[index].getTime());
+		}
+
+		/**
+		 * 研修日のエポック日数取得
+		 *
+		 * @param index
+		 * @return エポック日数
+		 */
+		public long getEpochDay(int index) {
+			return epochDays[index];
+		}
+
+		/**
+		 * セクション名取得
+		 *
+		 * @param index
+		 * @return セクション名
+		 */
+		public String getSectionName(int index) {
+			return sectionNames[index];
+		}
+
+		/**
+		 * 研修日判定
+		 *
+		 * @param date
+		 * @return 判定結果
+		 */
+		public boolean isWorkDay(Date date) {
+			if (date == null || trainingDates.length == 0) {
+				return false;
+			}
+			long offset = toEpochDay(date) - firstEpochDay;
+			if (offset < 0 || offset > Integer.MAX_VALUE) {
+				return false;
+			}
+			return workDays.get((int) offset);
+		}
+
+		/**
+		 * 定時開始時刻取得（研修日単位 → コース単位 → SSS定時の順に解決）
+		 *
+		 * @param date
+		 * @return 定時開始時刻
+		 */
+		public TrainingTime getWorkStartTime(Date date) {
+			TrainingTime[] schedule = getSchedule(date);
+			return schedule == null ? workStartTime : schedule[0];
+		}
+
+		/**
+		 * 定時終了時刻取得（研修日単位 → コース単位 → SSS定時の順に解決）
+		 *
+		 * @param date
+		 * @return 定時終了時刻
+		 */
+		public TrainingTime getWorkEndTime(Date date) {
+			TrainingTime[] schedule = getSchedule(date);
+			return schedule == null ? workEndTime : schedule[1];
+		}
+
+		/**
+		 * 研修日単位の定時取得
+		 *
+		 * @param date
+		 * @return 開始・終了時刻（上書きがない場合はnull）
+		 */
+		private TrainingTime[] getSchedule(Date date) {
+			if (date == null || scheduleMap.isEmpty()) {
+				return null;
+			}
+			return scheduleMap.get(toEpochDay(date));
+		}
+
+	}
+
+}
@@ -0,0 +1,453 @@
+package jp.co.sss.lms.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.dto.DailyReportSearchDto;
+import jp.co.sss.lms.mapper.TDailyReportSubmitMapper;
+
+/**
+ * レポート全文検索インデックス
+ *
+ * <p>
+ * 日報提出詳細の内容を日報提出単位でまとめ、2文字毎（bi-gram）と1文字毎に区切った転置インデックスをメモリ上に保持する。
+ * 起動時に日報提出IDの範囲毎に並列で作成し、レポートの提出時には{@link #put}で差し替える。
+ * 差し替えた古い文書は検索対象から外し、一定の割合を超えたら取り除いて文書番号を詰める。
+ * 検索は検索語の2文字（1文字の検索語はその1文字）をすべて含む日報提出をBM25で順位付けして返す。
+ * 作成中も検索できるが、結果には作成済みの日報提出のみが含まれる。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class DailyReportSearchIndex {
+
+	/** 起動時の作成で1回に読み込む日報提出IDの範囲 */
+	private static final int BUILD_CHUNK_SIZE = 2000;
+	/** BM25のパラメータ */
+	private static final double BM25_K1 = 1.2;
+	private static final double BM25_B = 0.75;
+	/** 差し替え済みの文書を取り除く件数の下限と、有効な文書の数に対する割合 */
+	private static final int COMPACT_MIN_DELETED_COUNT = 1000;
+	private static final double COMPACT_DELETED_RATIO = 0.25;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private TDailyReportSubmitMapper tDailyReportSubmitMapper;
+
+	/** 索引語毎の出現文書 */
+	private final Map<String, Postings> postingsMap = new HashMap<>();
+	/** 1文字毎の出現文書（1文字の検索語用） */
+	private final Map<String, Postings> unigramPostingsMap = new HashMap<>();
+	/** 文書（文書番号順） */
+	private final List<Doc> docList = new ArrayList<>();
+	/** 日報提出ID毎の文書番号 */
+	private final Map<Integer, Integer> docNoMap = new HashMap<>();
+	/** 有効な文書の数・差し替え済みの文書の数・索引語数の合計 */
+	private int liveDocCount;
+	private int deletedDocCount;
+	private long totalLength;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** 作成済みか */
+	private volatile boolean ready;
+	/** 起動時の作成用スレッド */
+	private final ExecutorService buildExecutorService = Executors.newSingleThreadExecutor();
+
+	/**
+	 * 起動時の作成（作成はバックグラウンドで行う）
+	 */
+	@PostConstruct
+	public void start() {
+		buildExecutorService.execute(() -> {
+			try {
+				long start = System.currentTimeMillis();
+				build();
+				logger.info("レポート全文検索インデックスを作成しました。" + liveDocCount + "件 "
+						+ (System.currentTimeMillis() - start) + "ms");
+			} catch (Exception e) {
+				logger.warn("レポート全文検索インデックスの作成に失敗しました。", e);
+			}
+		});
+	}
+
+	/**
+	 * 作成用スレッドの停止
+	 */
+	@PreDestroy
+	public void stop() {
+		buildExecutorService.shutdownNow();
+	}
+
+	/**
+	 * 作成済みか
+	 *
+	 * @return 作成済みの場合：true
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * 日報提出IDの範囲毎に並列で読込・分割し、インデックスに追加する
+	 *
+	 * @throws Exception
+	 */
+	private void build() throws Exception {
+		Integer maxId = tDailyReportSubmitMapper.getMaxDailyReportSubmitId(Constants.DB_FLG_FALSE);
+		if (maxId != null) {
+			int threadCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+			ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+			try {
+				List<Future<?>> futureList = new ArrayList<>();
+				for (int from = 0; from <= maxId; from += BUILD_CHUNK_SIZE) {
+					int chunkFrom = from;
+					futureList.add(executorService.submit(() -> {
+						List<DailyReportSearchDto> dailyReportSearchDtoList = tDailyReportSubmitMapper
+								.findSearchDocList(chunkFrom, chunkFrom + BUILD_CHUNK_SIZE,
+										Constants.DB_FLG_FALSE);
+						List<Doc> chunk = new ArrayList<>(dailyReportSearchDtoList.size());
+						for (DailyReportSearchDto dailyReportSearchDto : dailyReportSearchDtoList) {
+							chunk.add(toDoc(dailyReportSearchDto.getDailyReportSubmitId(),
+									dailyReportSearchDto.getLmsUserId(), dailyReportSearchDto.getDate(),
+									dailyReportSearchDto.getContent()));
+						}
+						addAll(chunk, false);
+					}));
+				}
+				for (Future<?> future : futureList) {
+					future.get();
+				}
+			} finally {
+				executorService.shutdownNow();
+			}
+		}
+		ready = true;
+	}
+
+	/**
+	 * レポートの登録・更新（同じ日報提出の文書は差し替える）
+	 *
+	 * @param dailyReportSubmitId
+	 * @param lmsUserId
+	 * @param date
+	 * @param contentArray        日報提出詳細の内容
+	 */
+	public void put(Integer dailyReportSubmitId, Integer lmsUserId, Date date, String[] contentArray) {
+		Doc doc = toDoc(dailyReportSubmitId, lmsUserId, date,
+				contentArray == null ? "" : String.join("\n", Arrays.asList(contentArray)));
+		addAll(List.of(doc), true);
+	}
+
+	/**
+	 * 文書の追加
+	 *
+	 * @param chunk
+	 * @param replace 既に同じ日報提出の文書がある場合に差し替えるか（起動時の作成では、作成中に提出された新しい文書を優先する）
+	 */
+	private void addAll(List<Doc> chunk, boolean replace) {
+		lock.writeLock().lock();
+		try {
+			for (Doc doc : chunk) {
+				Integer oldDocNo = docNoMap.get(doc.dailyReportSubmitId);
+				if (oldDocNo != null) {
+					if (!replace) {
+						continue;
+					}
+					Doc oldDoc = docList.get(oldDocNo);
+					oldDoc.deleted = true;
+					liveDocCount--;
+					deletedDocCount++;
+					totalLength -= oldDoc.length;
+				}
+				int docNo = docList.size();
+				docList.add(doc);
+				docNoMap.put(doc.dailyReportSubmitId, docNo);
+				liveDocCount++;
+				totalLength += doc.length;
+				addPostings(postingsMap, doc.termFrequency, docNo);
+				addPostings(unigramPostingsMap, doc.unigramFrequency, docNo);
+				// 索引語毎の出現回数は追加後は不要
+				doc.termFrequency = null;
+				doc.unigramFrequency = null;
+			}
+			if (deletedDocCount >= COMPACT_MIN_DELETED_COUNT
+					&& deletedDocCount > liveDocCount * COMPACT_DELETED_RATIO) {
+				compact();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 出現文書への追加
+	 *
+	 * @param map           索引語毎の出現文書
+	 * @param termFrequency 索引語毎の出現回数
+	 * @param docNo
+	 */
+	private static void addPostings(Map<String, Postings> map, Map<String, Integer> termFrequency,
+			int docNo) {
+		for (Map.Entry<String, Integer> entry : termFrequency.entrySet()) {
+			map.computeIfAbsent(entry.getKey(), key -> new Postings()).add(docNo, entry.getValue());
+		}
+	}
+
+	/**
+	 * 差し替え済みの文書を取り除き、文書番号を詰める（書込ロック中に呼び出す）
+	 */
+	private void compact() {
+		// 旧文書番号→新文書番号（取り除く文書は-1）
+		int[] newDocNos = new int[docList.size()];
+		List<Doc> liveDocList = new ArrayList<>(liveDocCount);
+		for (int docNo = 0; docNo < docList.size(); docNo++) {
+			Doc doc = docList.get(docNo);
+			if (doc.deleted) {
+				newDocNos[docNo] = -1;
+			} else {
+				newDocNos[docNo] = liveDocList.size();
+				liveDocList.add(doc);
+			}
+		}
+		compactPostings(postingsMap, newDocNos);
+		compactPostings(unigramPostingsMap, newDocNos);
+		docList.clear();
+		docList.addAll(liveDocList);
+		docNoMap.replaceAll((dailyReportSubmitId, docNo) -> newDocNos[docNo]);
+		deletedDocCount = 0;
+	}
+
+	/**
+	 * 出現文書から取り除いた文書を除き、文書番号を付け替える（出現文書の無くなった索引語は削除する）
+	 *
+	 * @param map       索引語毎の出現文書
+	 * @param newDocNos 旧文書番号→新文書番号（取り除く文書は-1）
+	 */
+	private static void compactPostings(Map<String, Postings> map, int[] newDocNos) {
+		Iterator<Postings> iterator = map.values().iterator();
+		while (iterator.hasNext()) {
+			Postings postings = iterator.next();
+			postings.compact(newDocNos);
+			if (postings.size == 0) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * 検索
+	 *
+	 * @param keyword       検索語（空白区切りで複数指定した場合はすべてを含むもの）
+	 * @param lmsUserIdList 対象の受講生（nullの場合は全員）
+	 * @return 検索結果（スコアの高い順、同じ場合は日付の新しい順）
+	 */
+	public List<DailyReportSearchDto> search(String keyword, Collection<Integer> lmsUserIdList) {
+		Set<String> terms = new LinkedHashSet<>(tokenize(keyword));
+		List<DailyReportSearchDto> resultList = new ArrayList<>();
+		if (terms.isEmpty()) {
+			return resultList;
+		}
+		Set<Integer> lmsUserIdSet = lmsUserIdList == null ? null : Set.copyOf(lmsUserIdList);
+
+		lock.readLock().lock();
+		try {
+			List<Postings> postingsList = new ArrayList<>();
+			for (String term : terms) {
+				Postings postings = term.codePointCount(0, term.length()) == 1
+						? unigramPostingsMap.get(term)
+						: postingsMap.get(term);
+				if (postings == null || postings.size == 0) {
+					return resultList;
+				}
+				postingsList.add(postings);
+			}
+			// 出現文書の少ない索引語から突き合わせる
+			postingsList.sort(Comparator.comparingInt(postings -> postings.size));
+			Postings first = postingsList.get(0);
+			double averageLength = liveDocCount == 0 ? 1 : (double) totalLength / liveDocCount;
+			double[] idf = new double[postingsList.size()];
+			for (int i = 0; i < idf.length; i++) {
+				int df = postingsList.get(i).size;
+				idf[i] = Math.log(1 + (liveDocCount - df + 0.5) / (df + 0.5));
+			}
+			int[] cursor = new int[postingsList.size()];
+			candidate: for (int p = 0; p < first.size; p++) {
+				int docNo = first.docNos[p];
+				Doc doc = docList.get(docNo);
+				if (doc.deleted || (lmsUserIdSet != null && !lmsUserIdSet.contains(doc.lmsUserId))) {
+					continue;
+				}
+				double norm = BM25_K1 * (1 - BM25_B + BM25_B * doc.length / averageLength);
+				double score = 0;
+				for (int i = 0; i < postingsList.size(); i++) {
+					Postings postings = postingsList.get(i);
+					int index = i == 0 ? p : postings.indexOf(docNo, cursor[i]);
+					if (index < 0) {
+						continue candidate;
+					}
+					cursor[i] = index;
+					int tf = postings.tfs[index];
+					score += idf[i] * tf * (BM25_K1 + 1) / (tf + norm);
+				}
+				DailyReportSearchDto dailyReportSearchDto = new DailyReportSearchDto();
+				dailyReportSearchDto.setDailyReportSubmitId(doc.dailyReportSubmitId);
+				dailyReportSearchDto.setLmsUserId(doc.lmsUserId);
+				dailyReportSearchDto.setDate(doc.date);
+				dailyReportSearchDto.setScore(score);
+				resultList.add(dailyReportSearchDto);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		resultList.sort(Comparator.comparingDouble(DailyReportSearchDto::getScore).reversed()
+				.thenComparing(DailyReportSearchDto::getDate,
+						Comparator.nullsLast(Comparator.reverseOrder())));
+		return resultList;
+	}
+
+	/**
+	 * 文書の作成（内容を索引語に分割する）
+	 */
+	private static Doc toDoc(Integer dailyReportSubmitId, Integer lmsUserId, Date date,
+			String content) {
+		Doc doc = new Doc();
+		doc.dailyReportSubmitId = dailyReportSubmitId;
+		doc.lmsUserId = lmsUserId;
+		doc.date = date;
+		doc.termFrequency = new HashMap<>();
+		for (String term : tokenize(content)) {
+			doc.termFrequency.merge(term, 1, Integer::sum);
+			doc.length++;
+		}
+		doc.unigramFrequency = new HashMap<>();
+		if (content != null) {
+			Normalizer.normalize(content, Normalizer.Form.NFKC).toLowerCase().codePoints()
+					.filter(Character::isLetterOrDigit)
+					.forEach(codePoint -> doc.unigramFrequency.merge(Character.toString(codePoint), 1,
+							Integer::sum));
+		}
+		return doc;
+	}
+
+	/**
+	 * 索引語への分割<br>
+	 * 全角・半角と大文字・小文字を統一し、文字・数字の連続を2文字毎に区切る（1文字のみの場合はその1文字）。
+	 *
+	 * @param text
+	 * @return 索引語のリスト
+	 */
+	static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null) {
+			return terms;
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+		int[] codePoints = normalized.codePoints().toArray();
+		int runStart = 0;
+		for (int i = 0; i <= codePoints.length; i++) {
+			if (i < codePoints.length && Character.isLetterOrDigit(codePoints[i])) {
+				continue;
+			}
+			int runLength = i - runStart;
+			if (runLength == 1) {
+				terms.add(new String(codePoints, runStart, 1));
+			}
+			for (int j = runStart; j + 1 < i; j++) {
+				terms.add(new String(codePoints, j, 2));
+			}
+			runStart = i + 1;
+		}
+		return terms;
+	}
+
+	/**
+	 * 文書（日報提出）
+	 */
+	private static final class Doc {
+		private Integer dailyReportSubmitId;
+		private Integer lmsUserId;
+		private Date date;
+		/** 索引語数 */
+		private int length;
+		/** 索引語毎の出現回数（追加するまで保持） */
+		private Map<String, Integer> termFrequency;
+		/** 1文字毎の出現回数（追加するまで保持） */
+		private Map<String, Integer> unigramFrequency;
+		/** 差し替え済みか */
+		private boolean deleted;
+	}
+
+	/**
+	 * 索引語の出現文書（文書番号の昇順）
+	 */
+	private static final class Postings {
+		private int[] docNos = new int[4];
+		private int[] tfs = new int[4];
+		private int size;
+
+		private void add(int docNo, int tf) {
+			if (size == docNos.length) {
+				docNos = Arrays.copyOf(docNos, size * 2);
+				tfs = Arrays.copyOf(tfs, size * 2);
+			}
+			docNos[size] = docNo;
+			tfs[size] = tf;
+			size++;
+		}
+
+		/**
+		 * 取り除いた文書を除き、文書番号を付け替える（配列も件数に合わせて縮める）
+		 *
+		 * @param newDocNos 旧文書番号→新文書番号（取り除く文書は-1）
+		 */
+		private void compact(int[] newDocNos) {
+			int newSize = 0;
+			for (int i = 0; i < size; i++) {
+				int newDocNo = newDocNos[docNos[i]];
+				if (newDocNo >= 0) {
+					docNos[newSize] = newDocNo;
+					tfs[newSize] = tfs[i];
+					newSize++;
+				}
+			}
+			size = newSize;
+			docNos = Arrays.copyOf(docNos, Math.max(4, size));
+			tfs = Arrays.copyOf(tfs, Math.max(4, size));
+		}
+
+		/**
+		 * 文書番号の位置（from以降を二分探索する）
+		 *
+		 * @return 位置（無い場合は負の値）
+		 */
+		private int indexOf(int docNo, int from) {
+			int index = Arrays.binarySearch(docNos, from, size, docNo);
+			return index < 0 ? -1 : index;
+		}
+	}
+
+}
@@ -0,0 +1,303 @@
+package jp.co.sss.lms.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.mapper.MExamMapper;
+
+/**
+ * 試験問題スナップショットのキャッシュ
+ *
+ * <p>
+ * 試験の問題・選択肢・正答は受験者全員で共通のため、試験単位で一度だけ読み込み、試験問題画面の表示と採点で使い回す。
+ * 同じ試験の読込は1回にまとめ、同時に開始した受験者は読込の完了を待って同じスナップショットを使う。
+ * 一定時間の経過後は試験・問題の最終更新日時を確認し、版が変わっている（試験が編集された）場合のみ再読込する。
+ * 試験・問題を更新する処理を追加する場合は{@link #evict(Integer)}を呼び出すと、次の受験から即時に反映される。
+ * 受験中の試験は開始時のスナップショットで表示・採点する（{@link jp.co.sss.lms.dto.ExamAttemptDto}）。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ExamSnapshotCache {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private MExamMapper mExamMapper;
+
+	@Value("${setting.exam.snapshot.cacheMinute}")
+	private Integer cacheMinute;
+
+	/** 試験ID毎のスナップショット */
+	private final Map<Integer, ExamSnapshot> snapshotMap = new ConcurrentHashMap<>();
+
+	/**
+	 * スナップショット取得
+	 *
+	 * @param examId
+	 * @return スナップショット（試験が存在しない場合はnull）
+	 */
+	public ExamSnapshot get(Integer examId) {
+		long now = System.currentTimeMillis();
+		ExamSnapshot snapshot = snapshotMap.get(examId);
+		if (snapshot != null && !isExpired(snapshot, now)) {
+			return snapshot;
+		}
+		// 同じ試験の読込は1回にまとめる（読込中の呼び出しは完了を待つ）
+		return snapshotMap.compute(examId,
+				(key, current) -> current == null ? load(key, now) : refresh(current, now));
+	}
+
+	/**
+	 * スナップショット破棄（試験・問題変更時）
+	 *
+	 * @param examId
+	 */
+	public void evict(Integer examId) {
+		snapshotMap.remove(examId);
+	}
+
+	/**
+	 * スナップショット全件破棄
+	 */
+	public void evictAll() {
+		snapshotMap.clear();
+	}
+
+	/**
+	 * 保持時間の経過判定
+	 *
+	 * @param snapshot
+	 * @param now
+	 * @return 判定結果
+	 */
+	private boolean isExpired(ExamSnapshot snapshot, long now) {
+		return snapshot.checkedAt + cacheMinute * 60_000L < now;
+	}
+
+	/**
+	 * 保持時間経過後の確認<br>
+	 * 試験・問題の最終更新日時が読込時の版と同じ場合はそのまま使い、異なる場合（削除を含む）は再読込する。
+	 *
+	 * @param snapshot
+	 * @param now
+	 * @return スナップショット（試験が存在しない場合はnull）
+	 */
+	private ExamSnapshot refresh(ExamSnapshot snapshot, long now) {
+		if (!isExpired(snapshot, now)) {
+			return snapshot;
+		}
+		Date lastModifiedDate = mExamMapper.getExamLastModifiedDate(snapshot.examId,
+				Constants.DB_FLG_FALSE);
+		if (lastModifiedDate != null && lastModifiedDate.getTime() == snapshot.version) {
+			snapshot.checkedAt = now;
+			return snapshot;
+		}
+		return load(snapshot.examId, now);
+	}
+
+	/**
+	 * スナップショット読込
+	 *
+	 * @param examId
+	 * @param now
+	 * @return スナップショット（試験が存在しない場合はnull）
+	 */
+	private ExamSnapshot load(Integer examId, long now) {
+		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestion(examId,
+				Constants.DB_FLG_FALSE);
+		if (examQuestionDto == null) {
+			return null;
+		}
+		List<QuestionDto> questionDtoList = examQuestionDto.getQuestionDtoList() == null
+				? List.of()
+				: examQuestionDto.getQuestionDtoList();
+		int size = questionDtoList.size();
+		int[] questionIds = new int[size];
+		String[] genreDetailNames = new String[size];
+		String[] questions = new String[size];
+		String[][] choices = new String[size][];
+		short[] answerNums = new short[size];
+		for (int i = 0; i < size; i++) {
+			QuestionDto questionDto = questionDtoList.get(i);
+			questionIds[i] = questionDto.getQuestionId();
+			genreDetailNames[i] = questionDto.getGenreDetailName();
+			questions[i] = questionDto.getQuestion();
+			choices[i] = new String[] { questionDto.getChoice1(), questionDto.getChoice2(),
+					questionDto.getChoice3(), questionDto.getChoice4() };
+			answerNums[i] = questionDto.getAnswerNum() == null ? 0 : questionDto.getAnswerNum();
+		}
+		long version = examQuestionDto.getLastModifiedDate() == null ? 0
+				: examQuestionDto.getLastModifiedDate().getTime();
+		logger.info("試験問題を読み込みました。試験ID：" + examId + "、版：" + version + "、問題数：" + size);
+		return new ExamSnapshot(examQuestionDto.getExamId(), examQuestionDto.getExamName(),
+				examQuestionDto.getLimitTime(), version, questionIds, genreDetailNames, questions,
+				choices, answerNums, now);
+	}
+
+	/**
+	 * 試験問題スナップショット（読込後は確認日時を除き不変）<br>
+	 * 受験中の試験としてセッションで保持するため直列化可能とする。
+	 */
+	public static final class ExamSnapshot implements Serializable {
+
+		/** シリアルバージョンUID */
+		private static final long serialVersionUID = 1L;
+
+		/** 試験ID */
+		private final Integer examId;
+		/** 試験名 */
+		private final String examName;
+		/** 制限時間 */
+		private final Integer limitTime;
+		/** 版（試験・問題の最終更新日時） */
+		private final long version;
+		/** 問題ID（問題ID順） */
+		private final int[] questionIds;
+		/** ジャンル詳細 */
+		private final String[] genreDetailNames;
+		/** 問題 */
+		private final String[] questions;
+		/** 選択肢 */
+		private final String[][] choices;
+		/** 正答 */
+		private final short[] answerNums;
+		/** 確認日時（読込・版の確認をした日時） */
+		private volatile long checkedAt;
+
+		private ExamSnapshot(Integer examId, String examName, Integer limitTime, long version,
+				int[] questionIds, String[] genreDetailNames, String[] questions,
+				String[][] choices, short[] answerNums, long checkedAt) {
+			this.examId = examId;
+			this.examName = examName;
+			this.limitTime = limitTime;
+			this.version = version;
+			this.questionIds = questionIds;
+			this.genreDetailNames = genreDetailNames;
+			this.questions = questions;
+			this.choices = choices;
+			this.answerNums = answerNums;
+			this.checkedAt = checkedAt;
+		}
+
+		/**
+		 * 試験ID取得
+		 *
+		 * @return 試験ID
+		 */
+		public Integer getExamId() {
+			return examId;
+		}
+
+		/**
+		 * 試験名取得
+		 *
+		 * @return 試験名
+		 */
+		public String getExamName() {
+			return examName;
+		}
+
+		/**
+		 * 制限時間取得
+		 *
+		 * @return 制限時間
+		 */
+		public Integer getLimitTime() {
+			return limitTime;
+		}
+
+		/**
+		 * 版取得
+		 *
+		 * @return 版（試験・問題の最終更新日時）
+		 */
+		public long getVersion() {
+			return version;
+		}
+
+		/**
+		 * 件数取得
+		 *
+		 * @return 問題数
+		 */
+		public int size() {
+			return questionIds.length;
+		}
+
+		/**
+		 * 問題ID取得
+		 *
+		 * @param index
+		 * @return 問題ID
+		 */
+		public int getQuestionId(int index) {
+			return questionIds[index];
+		}
+
+		/**
+		 * 正答取得
+		 *
+		 * @param index
+		 * @return 正答
+		 */
+		public short getAnswerNum(int index) {
+			return answerNums[index];
+		}
+
+		/**
+		 * 正答数取得
+		 *
+		 * @param replies 問題順の回答（未回答は0）
+		 * @return 正答数
+		 */
+		public int countCorrect(short[] replies) {
+			int count = 0;
+			int length = Math.min(replies.length, answerNums.length);
+			for (int i = 0; i < length; i++) {
+				if (replies[i] != 0 && replies[i] == answerNums[i]) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		/**
+		 * 問題DTOリスト作成（正答は含まない）
+		 *
+		 * @return 問題DTOリスト（呼び出し側で変更できるよう都度作成する）
+		 */
+		public List<QuestionDto> createQuestionDtoList() {
+			List<QuestionDto> questionDtoList = new ArrayList<>(questionIds.length);
+			for (int i = 0; i < questionIds.length; i++) {
+				QuestionDto questionDto = new QuestionDto();
+				questionDto.setQuestionId(questionIds[i]);
+				questionDto.setGenreDetailName(genreDetailNames[i]);
+				questionDto.setQuestion(questions[i]);
+				questionDto.setChoice1(choices[i][0]);
+				questionDto.setChoice2(choices[i][1]);
+				questionDto.setChoice3(choices[i][2]);
+				questionDto.setChoice4(choices[i][3]);
+				questionDto.setAnswerList(new ArrayList<>(Arrays.asList(choices[i])));
+				questionDtoList.add(questionDto);
+			}
+			return questionDtoList;
+		}
+
+	}
+
+}
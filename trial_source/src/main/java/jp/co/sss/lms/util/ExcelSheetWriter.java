@@ -0,0 +1,54 @@
+package jp.co.sss.lms.util;
+
+import java.util.Date;
+
+/**
+ * シートのセルへの値の設定<br>
+ * {@link ExcelUtil}（POIのワークブック）と{@link XlsxTemplateFiller}（テンプレートのXMLを直接書換）で共通の操作。
+ * 行・列番号は0始まり。
+ * 
+ * @author 東京ITスクール
+ */
+public interface ExcelSheetWriter {
+
+	/**
+	 * 文字列の設定（nullの場合は設定しない）
+	 * 
+	 * @param sheetName
+	 * @param rowNum
+	 * @param clmNum
+	 * @param value
+	 */
+	void setVal(String sheetName, int rowNum, int clmNum, String value);
+
+	/**
+	 * 整数の設定（nullの場合は設定しない）
+	 * 
+	 * @param sheetName
+	 * @param rowNum
+	 * @param clmNum
+	 * @param value
+	 */
+	void setVal(String sheetName, int rowNum, int clmNum, Integer value);
+
+	/**
+	 * 数値の設定
+	 * 
+	 * @param sheetName
+	 * @param rowNum
+	 * @param clmNum
+	 * @param value
+	 */
+	void setVal(String sheetName, int rowNum, int clmNum, double value);
+
+	/**
+	 * 日付の設定
+	 * 
+	 * @param sheetName
+	 * @param rowNum
+	 * @param clmNum
+	 * @param value
+	 */
+	void setVal(String sheetName, int rowNum, int clmNum, Date value);
+
+}
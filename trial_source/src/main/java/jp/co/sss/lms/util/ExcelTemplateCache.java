@@ -0,0 +1,147 @@
+package jp.co.sss.lms.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Excelテンプレートのキャッシュ
+ *
+ * <p>
+ * setting.file.common.dir配下のテンプレートを起動時に一度だけ読み込み、ワークブックとして開けることを確認したうえで、
+ * バイト列を保持する。ダウンロードの都度、クラスパスの検索・読込を行わずに{@link ExcelUtil}を作成できる。
+ * 保持しているバイト列は外部に渡さないため、作成したワークブックを変更しても影響しない。
+ * なお、ワークブックの解析（XMLの読込）はダウンロードの都度行われ、処理時間の大半はこの解析が占める。
+ * 数式を含まない.xlsxのテンプレートは、POIを使用せずにXMLを直接書き換える{@link XlsxTemplateFiller}でも開ける。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ExcelTemplateCache {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Autowired
+	private MessageUtil messageUtil;
+
+	/** テンプレートのパス毎のバイト列 */
+	private final Map<String, byte[]> templateMap = new ConcurrentHashMap<>();
+	/** テンプレートのパス毎の直接書込用のシートのパス（直接書込できない場合は空） */
+	private final Map<String, Map<String, String>> sheetPathMap = new ConcurrentHashMap<>();
+
+	/**
+	 * テンプレート一括読込
+	 */
+	@PostConstruct
+	public void load() {
+		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
+		Resource[] resources;
+		try {
+			resources = new PathMatchingResourcePatternResolver()
+					.getResources("classpath:" + commonFileDir + "/*.xls*");
+		} catch (IOException e) {
+			logger.warn("Excelテンプレートの検索に失敗しました。", e);
+			return;
+		}
+		for (Resource resource : resources) {
+			String filePath = commonFileDir + "/" + resource.getFilename();
+			try {
+				byte[] template = read(filePath);
+				// 起動時にワークブックとして開けることを確認する
+				try (InputStream in = new ByteArrayInputStream(template)) {
+					WorkbookFactory.create(in);
+				}
+				templateMap.put(filePath, template);
+				getSheetPathMap(filePath, template);
+			} catch (Exception e) {
+				// 読み込めなかったテンプレートは初回のダウンロード時に読み込む
+				logger.warn("Excelテンプレートの読込に失敗しました。" + filePath, e);
+			}
+		}
+		logger.info("Excelテンプレートを読み込みました。" + templateMap.size() + "件（うち直接書込可能："
+				+ sheetPathMap.values().stream().filter(map -> !map.isEmpty()).count() + "件）");
+	}
+
+	/**
+	 * テンプレートを開く
+	 *
+	 * @param filePath クラスパス上のテンプレートのパス
+	 * @return テンプレートの複製を開いたExcelUtil
+	 */
+	public ExcelUtil open(String filePath) {
+		return new ExcelUtil(getTemplate(filePath));
+	}
+
+	/**
+	 * テンプレートを直接書込で開く
+	 *
+	 * @param filePath クラスパス上のテンプレートのパス
+	 * @return テンプレートの直接書込（数式を含む・.xlsx以外などで直接書込できない場合はnull）
+	 */
+	public XlsxTemplateFiller openFiller(String filePath) {
+		byte[] template = getTemplate(filePath);
+		Map<String, String> map = getSheetPathMap(filePath, template);
+		return map.isEmpty() ? null : new XlsxTemplateFiller(template, map);
+	}
+
+	/**
+	 * テンプレート取得（キャッシュに無い場合は読み込む）
+	 *
+	 * @param filePath
+	 * @return テンプレートのバイト列
+	 */
+	private byte[] getTemplate(String filePath) {
+		return templateMap.computeIfAbsent(filePath, key -> {
+			try {
+				return read(key);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	/**
+	 * 直接書込用のシートのパス取得（初回のみ解析する）
+	 *
+	 * @param filePath
+	 * @param template
+	 * @return シート名毎のシートのパス（直接書込できない場合は空）
+	 */
+	private Map<String, String> getSheetPathMap(String filePath, byte[] template) {
+		return sheetPathMap.computeIfAbsent(filePath, key -> {
+			Map<String, String> map = key.toLowerCase().endsWith(".xlsx")
+					? XlsxTemplateFiller.getFillableSheetPathMap(template)
+					: null;
+			return map == null ? Collections.emptyMap() : map;
+		});
+	}
+
+	/**
+	 * テンプレート読込
+	 *
+	 * @param filePath
+	 * @return テンプレートのバイト列
+	 * @throws IOException
+	 */
+	private byte[] read(String filePath) throws IOException {
+		try (InputStream in = new ClassPathResource(filePath).getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+}
@@ -1,13 +1,25 @@
 package jp.co.sss.lms.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -17,6 +29,7 @@ import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.RichTextString;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -36,7 +49,7 @@ import jp.co.sss.lms.dto.WorkbookDto;
  * 
  * @author 東京ITスクール
  */
-public class ExcelUtil {
+public class ExcelUtil implements ExcelSheetWriter {
 
 	@Autowired
 	private static MessageUtil messageUtil;
@@ -44,6 +57,8 @@ public class ExcelUtil {
 	public static final int MAX_COL_NUM = 16384;
 	/* エクセル縦軸文字を数値に変換 */
 	public static final String MAX_COL_STR = CellReference.convertNumToColString(ExcelUtil.MAX_COL_NUM - 1);
+	/* 一括ダウンロードの上限超過時の通知ファイル名 */
+	public static final String OVER_LIMIT_NOTICE_NAME = "ダウンロードされなかったファイルについて.txt";
 	/* ワークブック初期化 */
 	private Workbook wb = null;
 
@@ -60,6 +75,19 @@ public class ExcelUtil {
 		}
 	}
 
+	/**
+	 * 読込済みのテンプレート（{@link ExcelTemplateCache}）から開く
+	 * 
+	 * @param template
+	 */
+	public ExcelUtil(byte[] template) {
+		try (InputStream in = new ByteArrayInputStream(template)) {
+			wb = WorkbookFactory.create(in);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * 作成済みのファイルを開く
 	 * 
@@ -82,6 +110,7 @@ public class ExcelUtil {
 	 * @param clmNum
 	 * @param String型value
 	 */
+	@Override
 	public void setVal(String sheetName, int rowNum, int clmNum, String value) {
 		Cell cell = getCell(sheetName, rowNum, clmNum);
 		if (value != null) {
@@ -98,6 +127,7 @@ public class ExcelUtil {
 	 * @param clmNum
 	 * @param Integer型value
 	 */
+	@Override
 	public void setVal(String sheetName, int rowNum, int clmNum, Integer value) {
 		Cell cell = getCell(sheetName, rowNum, clmNum);
 		if (value != null) {
@@ -114,6 +144,7 @@ public class ExcelUtil {
 	 * @param clmNum
 	 * @param double型value
 	 */
+	@Override
 	public void setVal(String sheetName, int rowNum, int clmNum, double value) {
 		Cell cell = getCell(sheetName, rowNum, clmNum);
 		cell.setCellValue(value);
@@ -128,6 +159,7 @@ public class ExcelUtil {
 	 * @param clmNum
 	 * @param Date型value
 	 */
+	@Override
 	public void setVal(String sheetName, int rowNum, int clmNum, Date value) {
 		Cell cell = getCell(sheetName, rowNum, clmNum);
 		cell.setCellValue(value);
@@ -185,56 +217,146 @@ public class ExcelUtil {
 	 * 
 	 */
 	public void sheetCopy(String sheetName, int st, int en, int cnt) {
-		// シート情報を取得
-		Sheet sheet = wb.getSheet(sheetName);
-		int x = sheet.getNumMergedRegions();
-		Row row = null, row2 = null;
-		Cell cell = null, cell2 = null;
-		CellStyle cellstyle = null;
-		short height = 0;
+		copyRows(wb.getSheet(sheetName), st, en, cnt, cnt);
+	}
+
+	/**
+	 * 指定された行の範囲を、直下に指定された回数分繰り返してコピーする<br>
+	 * {@link #sheetCopy(String, int, int, int)}を1～countまで呼び出した場合と同じ配置となる。
+	 * コピー元の行・セルの読込と結合範囲の抽出は1回のみ行うため、処理時間はコピー後の行数に比例する。
+	 * 
+	 * @param sheetName シート名
+	 * @param st        コピーの開始行(start from 0)
+	 * @param en        コピーの最終行(end from 1)
+	 * @param count     コピーする回数
+	 */
+	public void copyRows(String sheetName, int st, int en, int count) {
+		if (count < 1) {
+			return;
+		}
+		copyRows(wb.getSheet(sheetName), st, en, 1, count);
+	}
+
+	/**
+	 * 行の範囲のコピー（from回目～to回目）
+	 * 
+	 * @param sheet
+	 * @param st    コピーの開始行(start from 0)
+	 * @param en    コピーの最終行(end from 1)
+	 * @param from  コピーの開始回
+	 * @param to    コピーの終了回
+	 */
+	private void copyRows(Sheet sheet, int st, int en, int from, int to) {
+		int size = en - st;
+		// コピー元の行を読み込む
+		List<RowTemplate> rowTemplateList = new ArrayList<>();
 		for (int i = st; i < en; i++) {
-			row = sheet.getRow(i);
+			Row row = sheet.getRow(i);
 			if (row != null) {
-				height = row.getHeight();
-				// 最終行をベースに下(Row)へコピーしていく。
-				row2 = sheet.createRow((en - st) * cnt + i);
-				row2.setHeight(height);
-				for (int j = 0; j < row.getLastCellNum(); j++) {
-					cell = row.getCell(j);
-					if (cell != null) {
-						cell2 = row2.createCell(j);
-						cellstyle = cell.getCellStyle();
-						cell2.setCellStyle(cellstyle);
-						switch (cell.getCellType()) {
-						case Cell.CELL_TYPE_STRING:
-							cell2.setCellValue(cell.getRichStringCellValue());
-							break;
-						case Cell.CELL_TYPE_NUMERIC:
-							if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
-								cell2.setCellValue(cell.getDateCellValue());
-							} else {
-								cell2.setCellValue(cell.getNumericCellValue());
-							}
-							break;
-						case Cell.CELL_TYPE_FORMULA:
-							cell2.setCellFormula(cell.getCellFormula());
-							break;
-						case Cell.CELL_TYPE_BOOLEAN:
-							cell2.setCellValue(cell.getBooleanCellValue());
-							break;
-						}
+				rowTemplateList.add(new RowTemplate(row));
+			}
+		}
+		// コピー元の範囲内の結合範囲を抽出する（コピーで追加した結合範囲は含めない）
+		List<CellRangeAddress> craList = new ArrayList<>();
+		for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+			CellRangeAddress cra = sheet.getMergedRegion(i);
+			if (cra.getFirstRow() >= st && cra.getLastRow() < en) {
+				craList.add(cra);
+			}
+		}
+		for (int cnt = from; cnt <= to; cnt++) {
+			int offset = size * cnt;
+			for (RowTemplate rowTemplate : rowTemplateList) {
+				rowTemplate.copyTo(sheet.createRow(rowTemplate.rowNum + offset));
+			}
+			// 結合状態を設定
+			for (CellRangeAddress cra : craList) {
+				sheet.addMergedRegion(new CellRangeAddress(cra.getFirstRow() + offset,
+						cra.getLastRow() + offset, cra.getFirstColumn(), cra.getLastColumn()));
+			}
+		}
+	}
+
+	/**
+	 * コピー元の行（高さ・セルの書式・値）
+	 */
+	private static final class RowTemplate {
+
+		/** 行番号 */
+		private final int rowNum;
+		/** 行の高さ */
+		private final short height;
+		/** セルの列番号 */
+		private final int[] columns;
+		/** セルの書式 */
+		private final CellStyle[] cellStyles;
+		/** セルの値（文字列・日付・数値・真偽値。数式の場合は数式。空の場合はnull） */
+		private final Object[] values;
+		/** 数式か */
+		private final boolean[] formulas;
+
+		private RowTemplate(Row row) {
+			rowNum = row.getRowNum();
+			height = row.getHeight();
+			List<Cell> cellList = new ArrayList<>();
+			for (int j = 0; j < row.getLastCellNum(); j++) {
+				Cell cell = row.getCell(j);
+				if (cell != null) {
+					cellList.add(cell);
+				}
+			}
+			columns = new int[cellList.size()];
+			cellStyles = new CellStyle[cellList.size()];
+			values = new Object[cellList.size()];
+			formulas = new boolean[cellList.size()];
+			for (int j = 0; j < cellList.size(); j++) {
+				Cell cell = cellList.get(j);
+				columns[j] = cell.getColumnIndex();
+				cellStyles[j] = cell.getCellStyle();
+				switch (cell.getCellType()) {
+				case Cell.CELL_TYPE_STRING:
+					values[j] = cell.getRichStringCellValue();
+					break;
+				case Cell.CELL_TYPE_NUMERIC:
+					if (DateUtil.isCellDateFormatted(cell)) {
+						values[j] = cell.getDateCellValue();
+					} else {
+						values[j] = cell.getNumericCellValue();
 					}
+					break;
+				case Cell.CELL_TYPE_FORMULA:
+					values[j] = cell.getCellFormula();
+					formulas[j] = true;
+					break;
+				case Cell.CELL_TYPE_BOOLEAN:
+					values[j] = cell.getBooleanCellValue();
+					break;
 				}
 			}
 		}
-		// 結合状態を設定
-		CellRangeAddress cra = null;
-		for (int i = 0; i < x; i++) {
-			cra = sheet.getMergedRegion(i);
-			if (cra.getFirstRow() >= st) {
-				CellRangeAddress newCra = new CellRangeAddress(cra.getFirstRow() + (en - st) * cnt,
-						cra.getLastRow() + (en - st) * cnt, cra.getFirstColumn(), cra.getLastColumn());
-				sheet.addMergedRegion(newCra);
+
+		/**
+		 * コピー先の行に高さ・セルを設定する
+		 * 
+		 * @param row2 コピー先の行
+		 */
+		private void copyTo(Row row2) {
+			row2.setHeight(height);
+			for (int j = 0; j < columns.length; j++) {
+				Cell cell2 = row2.createCell(columns[j]);
+				cell2.setCellStyle(cellStyles[j]);
+				Object value = values[j];
+				if (formulas[j]) {
+					cell2.setCellFormula((String) value);
+				} else if (value instanceof RichTextString) {
+					cell2.setCellValue((RichTextString) value);
+				} else if (value instanceof Date) {
+					cell2.setCellValue((Date) value);
+				} else if (value instanceof Double) {
+					cell2.setCellValue((Double) value);
+				} else if (value instanceof Boolean) {
+					cell2.setCellValue((Boolean) value);
+				}
 			}
 		}
 	}
@@ -256,7 +378,7 @@ public class ExcelUtil {
 				"attachment;filename=" + fileNameSjis + ";filename*=utf-8''" + fileNameUtf8);
 
 		try (ServletOutputStream out = response.getOutputStream()) {
-			workbookDto.getWb().write(out);
+			writeBook(workbookDto, out);
 		}
 	}
 
@@ -269,28 +391,16 @@ public class ExcelUtil {
 	 */
 	public static void downloadBookInZip(List<WorkbookDto> workbookDtoList, HttpServletResponse response)
 			throws IOException {
+		setZipHeader("レポート", response);
 		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"))) {
-			List<String> wbNameList = new ArrayList<String>();
+			Map<String, Integer> wbNameMap = new HashMap<>();
 			for (WorkbookDto workbookDto : workbookDtoList) {
 
 				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
-				int count = 1;
-				String wbName = workbookDto.getWbName();
-				while (wbNameList.contains(wbName)) {
-					String prefix = FileUtil.getPrefix(workbookDto.getWbName());
-					String suffix = FileUtil.getSuffix(workbookDto.getWbName());
-					wbName = prefix + "(" + count + ")." + suffix;
-					count++;
-				}
-				wbNameList.add(wbName);
+				String wbName = getUniqueWbName(wbNameMap, workbookDto.getWbName());
 
 				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				String zipName = "レポート";
-				String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
-				fileName += ".zip";
-				response.setContentType("application/octet-stream");
-				response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
-				workbookDto.getWb().write(baos);
+				writeBook(workbookDto, baos);
 
 				zos.putNextEntry(new ZipEntry(wbName));
 				zos.write(baos.toByteArray(), 0, baos.toByteArray().length);
@@ -308,28 +418,16 @@ public class ExcelUtil {
 	 */
 	public static void downloadReportInZip(List<WorkbookDto> workbookDtoList, HttpServletResponse response)
 			throws IOException {
+		setZipHeader(messageUtil.getMessage("dailyReportId"), response);
 		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"))) {
-			List<String> wbNameList = new ArrayList<String>();
+			Map<String, Integer> wbNameMap = new HashMap<>();
 			for (WorkbookDto workbookDto : workbookDtoList) {
 
 				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
-				int count = 1;
-				String wbName = workbookDto.getWbName();
-				while (wbNameList.contains(wbName)) {
-					String prefix = FileUtil.getPrefix(workbookDto.getWbName());
-					String suffix = FileUtil.getSuffix(workbookDto.getWbName());
-					wbName = prefix + "(" + count + ")." + suffix;
-					count++;
-				}
-				wbNameList.add(wbName);
+				String wbName = getUniqueWbName(wbNameMap, workbookDto.getWbName());
 
 				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				String zipName = messageUtil.getMessage("dailyReportId");
-				String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
-				fileName += ".zip";
-				response.setContentType("application/octet-stream");
-				response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
-				workbookDto.getWb().write(baos);
+				writeBook(workbookDto, baos);
 
 				zos.putNextEntry(new ZipEntry(wbName));
 				zos.write(baos.toByteArray(), 0, baos.toByteArray().length);
@@ -338,6 +436,182 @@ public class ExcelUtil {
 		}
 	}
 
+	/**
+	 * Workbookの一括ダウンロードを行う（逐次作成）<br>
+	 * ワークブックの作成をワーカースレッドで並列に行い、作成できたものから順にZIPへ書き込む。<br>
+	 * 作成済みで書込待ちのワークブックは先読み件数までに抑え、書き込んだものは保持しないため、
+	 * 件数によらず使用メモリは一定となる。<br>
+	 * ZIPに含めるファイルサイズの合計（圧縮前）が上限を超える場合は、それ以降のワークブックを含めず、
+	 * 代わりに上限超過の通知（{@link #OVER_LIMIT_NOTICE_NAME}）をZIPに含める。
+	 * 
+	 * @param zipName          ZIPファイル名（拡張子・日時を除く）
+	 * @param workbookTaskList ワークブック作成処理のリスト
+	 * @param executorService  ワークブックを作成するスレッドプール
+	 * @param prefetch         先読み件数（作成済み・作成中で書込待ちのワークブックの最大数）
+	 * @param maxFileSize      ファイルサイズの合計の上限（バイト）
+	 * @param overLimitNotice  上限超過時の通知文（引数はZIPに含めたワークブックの件数）
+	 * @param response
+	 * @return ZIPに書き込んだワークブックの件数
+	 * @throws IOException
+	 */
+	public static int downloadBookInZip(String zipName, List<Callable<WorkbookDto>> workbookTaskList,
+			ExecutorService executorService, int prefetch, long maxFileSize, IntFunction<String> overLimitNotice,
+			HttpServletResponse response) throws IOException {
+		setZipHeader(zipName, response);
+		Deque<Future<WorkbookEntry>> futureQueue = new ArrayDeque<>();
+		Iterator<Callable<WorkbookDto>> taskIterator = workbookTaskList.iterator();
+		int count = 0;
+		long totalFileSize = 0;
+		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"))) {
+			Map<String, Integer> wbNameMap = new HashMap<>();
+			while (true) {
+				// 先読み件数まで作成を依頼する
+				while (futureQueue.size() < prefetch && taskIterator.hasNext()) {
+					Callable<WorkbookDto> task = taskIterator.next();
+					futureQueue.add(executorService.submit(() -> toWorkbookEntry(task.call())));
+				}
+				Future<WorkbookEntry> future = futureQueue.poll();
+				if (future == null) {
+					break;
+				}
+				WorkbookEntry workbookEntry = getWorkbookEntry(future);
+				totalFileSize += workbookEntry.data.length;
+				if (totalFileSize > maxFileSize) {
+					// 含めなかったファイルがあることを通知する
+					zos.putNextEntry(new ZipEntry(OVER_LIMIT_NOTICE_NAME));
+					zos.write(overLimitNotice.apply(count).getBytes("MS932"));
+					zos.closeEntry();
+					break;
+				}
+
+				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
+				String wbName = getUniqueWbName(wbNameMap, workbookEntry.wbName);
+
+				zos.putNextEntry(new ZipEntry(wbName));
+				zos.write(workbookEntry.data);
+				zos.closeEntry();
+				zos.flush();
+				count++;
+			}
+		} finally {
+			// 上限超過・エラー時は未書込のワークブックの作成を中止する
+			for (Future<WorkbookEntry> future : futureQueue) {
+				future.cancel(true);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * ワークブックの書込<br>
+	 * テンプレートの直接書込が設定されている場合はそれを、無い場合はワークブックを書き込む。
+	 * 
+	 * @param workbookDto
+	 * @param out
+	 * @throws IOException
+	 */
+	private static void writeBook(WorkbookDto workbookDto, OutputStream out) throws IOException {
+		if (workbookDto.getXlsxTemplateFiller() != null) {
+			workbookDto.getXlsxTemplateFiller().write(out);
+		} else {
+			workbookDto.getWb().write(out);
+		}
+	}
+
+	/**
+	 * ZIPダウンロード用のレスポンスヘッダを設定する
+	 * 
+	 * @param zipName ZIPファイル名（拡張子・日時を除く）
+	 * @param response
+	 * @throws IOException
+	 */
+	private static void setZipHeader(String zipName, HttpServletResponse response) throws IOException {
+		String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
+		fileName += ".zip";
+		response.setContentType("application/octet-stream");
+		response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
+	}
+
+	/**
+	 * ZIP内で重複しないファイル名を取得する<br>
+	 * 同名のファイルがあった場合ファイル名末尾に「(n)」を付与する。
+	 * 
+	 * @param wbNameMap 使用済みのファイル名と、次に付与する連番
+	 * @param wbName    ファイル名
+	 * @return 重複しないファイル名
+	 */
+	private static String getUniqueWbName(Map<String, Integer> wbNameMap, String wbName) {
+		Integer count = wbNameMap.get(wbName);
+		if (count == null) {
+			wbNameMap.put(wbName, 1);
+			return wbName;
+		}
+		String prefix = FileUtil.getPrefix(wbName);
+		String suffix = FileUtil.getSuffix(wbName);
+		String uniqueName;
+		do {
+			uniqueName = prefix + "(" + count + ")." + suffix;
+			count++;
+		} while (wbNameMap.containsKey(uniqueName));
+		wbNameMap.put(wbName, count);
+		wbNameMap.put(uniqueName, 1);
+		return uniqueName;
+	}
+
+	/**
+	 * ワークブックをZIPに書き込む形式に変換する<br>
+	 * 変換後はワークブックを保持しない。
+	 * 
+	 * @param workbookDto
+	 * @return ファイル名とファイルの内容
+	 * @throws IOException
+	 */
+	private static WorkbookEntry toWorkbookEntry(WorkbookDto workbookDto) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		writeBook(workbookDto, baos);
+		return new WorkbookEntry(workbookDto.getWbName(), baos.toByteArray());
+	}
+
+	/**
+	 * 作成したワークブックを取得する
+	 * 
+	 * @param future
+	 * @return ファイル名とファイルの内容
+	 * @throws IOException
+	 */
+	private static WorkbookEntry getWorkbookEntry(Future<WorkbookEntry> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * ZIPに書き込むワークブック（ファイル名とファイルの内容）
+	 */
+	private static final class WorkbookEntry {
+
+		/** ファイル名 */
+		private final String wbName;
+		/** ファイルの内容 */
+		private final byte[] data;
+
+		private WorkbookEntry(String wbName, byte[] data) {
+			this.wbName = wbName;
+			this.data = data;
+		}
+	}
+
 	/**
 	 * シート存在チェック
 	 * 
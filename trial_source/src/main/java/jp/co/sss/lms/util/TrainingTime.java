@@ -1,40 +1,50 @@
 package jp.co.sss.lms.util;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Clock;
+import java.time.LocalTime;
 
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-
-import lombok.Getter;
-import lombok.Setter;
 
 /**
  * 研修時刻ユーティリティ
  * 
+ * <p>
+ * 時刻は0時からの経過分（未設定は-1）で保持する不変オブジェクト。0:00～23:59の1440件は事前に生成したインスタンスを
+ * {@link #of(int, int)}、{@link #parse(String)}、{@link #now(Clock)}で共有する。
+ * </p>
+ * 
  * @author 東京ITスクール
  */
 @Component
-@Getter
-@Setter
 public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/** シリアルバージョンUID */
 	private static final long serialVersionUID = 1L;
 
-	/** 時間 */
-	private Integer hour;
-	/** 分 */
-	private Integer minute;
+	/** 1日の分数 */
+	private static final int MINUTES_OF_DAY = 24 * 60;
+	/** 未設定を表す経過分 */
+	private static final int BLANK_MINUTES = -1;
+	/** 未設定のインスタンス */
+	private static final TrainingTime BLANK = new TrainingTime(BLANK_MINUTES);
+	/** 0:00～23:59のインスタンス */
+	private static final TrainingTime[] CACHE = new TrainingTime[MINUTES_OF_DAY];
+	static {
+		for (int i = 0; i < MINUTES_OF_DAY; i++) {
+			CACHE[i] = new TrainingTime(i);
+		}
+	}
+
+	/** 0時からの経過分（未設定の場合は-1） */
+	private final int minutes;
 
 	/**
 	 * 現在時刻でインスタンスを作成する
 	 */
 	public TrainingTime() {
-		SimpleDateFormat sdf = new SimpleDateFormat("HH:mm");
-		String timeStr = sdf.format(new Date());
-		setTimeStr(timeStr);
+		LocalTime now = LocalTime.now();
+		this.minutes = now.getHour() * 60 + now.getMinute();
 	}
 
 	/**
@@ -47,8 +57,83 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 		if (!isValidTrainingTime(hour, minute)) {
 			throw new IllegalArgumentException();
 		}
-		this.hour = hour;
-		this.minute = minute;
+		this.minutes = hour * 60 + minute;
+	}
+
+	/**
+	 * 文字列からインスタンス化する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 *
+	 * @param timeStr
+	 */
+	public TrainingTime(String timeStr) {
+		this.minutes = parseMinutes(timeStr);
+	}
+
+	/**
+	 * 経過分からインスタンスを作成
+	 * 
+	 * @param minutes
+	 */
+	private TrainingTime(int minutes) {
+		this.minutes = minutes;
+	}
+
+	/**
+	 * 指定時刻のインスタンスを取得する。0:00～23:59は共有インスタンスを返却
+	 * 
+	 * @param hour
+	 * @param minute
+	 * @return 研修時刻
+	 */
+	public static TrainingTime of(int hour, int minute) {
+		if (hour < 0 || minute < 0 || minute > 59) {
+			throw new IllegalArgumentException();
+		}
+		return ofMinutes(hour * 60 + minute);
+	}
+
+	/**
+	 * 0時からの経過分でインスタンスを取得する。0:00～23:59は共有インスタンスを返却
+	 * 
+	 * @param minutes
+	 * @return 研修時刻
+	 */
+	public static TrainingTime ofMinutes(int minutes) {
+		if (minutes < 0) {
+			throw new IllegalArgumentException();
+		}
+		return minutes < MINUTES_OF_DAY ? CACHE[minutes] : new TrainingTime(minutes);
+	}
+
+	/**
+	 * 文字列からインスタンスを取得する。 有効フォーマット："9:00", "18:00", "0900", "1800"、空文字は未設定
+	 * 
+	 * @param timeStr
+	 * @return 研修時刻
+	 */
+	public static TrainingTime parse(String timeStr) {
+		int minutes = parseMinutes(timeStr);
+		return minutes == BLANK_MINUTES ? BLANK : ofMinutes(minutes);
+	}
+
+	/**
+	 * 現在時刻のインスタンスを取得する
+	 * 
+	 * @return 研修時刻
+	 */
+	public static TrainingTime now() {
+		return now(Clock.systemDefaultZone());
+	}
+
+	/**
+	 * 指定した時計の現在時刻のインスタンスを取得する
+	 * 
+	 * @param clock
+	 * @return 研修時刻
+	 */
+	public static TrainingTime now(Clock clock) {
+		LocalTime now = LocalTime.now(clock);
+		return CACHE[now.getHour() * 60 + now.getMinute()];
 	}
 
 	/**
@@ -58,30 +143,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return boolean
 	 */
 	public boolean isValidTrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
-			return true;
-		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			final String numRegex = "[0-9]+";
-			if (times.length == 2 && times[0].matches(numRegex) && times[1].matches(numRegex)) {
-				hour = Integer.parseInt(times[0]);
-				minute = Integer.parseInt(times[1]);
-				return isValidTrainingTime(hour, minute);
-			} else {
-				return false;
-			}
-		} else if (timeStr.matches("[0-9]{4}")) {
-			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
-			return isValidTrainingTime(hour, minute);
-		} else {
-			return false;
-		}
+		return timeStr == null || timeStr.isEmpty() || scanMinutes(timeStr) >= 0;
 	}
 
 	/**
@@ -92,7 +154,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return boolean
 	 */
 	public boolean isValidTrainingTime(Integer hour, Integer minute) {
-		if (hour == null || minute == null) {
+		if (hour == null || minute == null || hour < 0) {
 			return false;
 		}
 		if (minute > 59 || minute < 0) {
@@ -102,48 +164,99 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	}
 
 	/**
-	 * 文字列からインスタンス化する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 * 文字列を0時からの経過分に変換する
 	 *
 	 * @param timeStr
+	 * @return 経過分（空文字の場合は-1）
 	 */
-	public TrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
-			return;
+	private static int parseMinutes(String timeStr) {
+		if (timeStr == null || timeStr.isEmpty()) {
+			return BLANK_MINUTES;
+		}
+		int minutes = scanMinutes(timeStr);
+		// 有効フォーマットかどうかチェックを行う
+		if (minutes < 0) {
+			throw new IllegalArgumentException(timeStr + " is Illegal.");
 		}
-		setTimeStr(timeStr);
+		return minutes;
 	}
 
 	/**
-	 * 時刻を設定
+	 * 「時:分」または数値4桁の文字列を走査し、0時からの経過分を返却する
 	 *
 	 * @param timeStr
+	 * @return 経過分（無効なフォーマットの場合は-1）
 	 */
-	private void setTimeStr(String timeStr) {
-		// 有効フォーマットかどうかチェックを行う
-		if (!isValidTrainingTime(timeStr)) {
-			throw new IllegalArgumentException(timeStr + " is Illegal.");
-		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			// isValidTrainingTimeでチェック済のためそのまま変換する
-			hour = Integer.parseInt(times[0]);
-			minute = Integer.parseInt(times[1]);
-		} else if (timeStr.matches("[0-9]{4}")) {
+	private static int scanMinutes(String timeStr) {
+		int length = timeStr.length();
+		int colon = timeStr.indexOf(':');
+		int hour, minute;
+		if (colon >= 0) {
+			// 時・分ともに1桁以上の数値で、区切りは1つのみ
+			hour = parseDigits(timeStr, 0, colon);
+			minute = parseDigits(timeStr, colon + 1, length);
+		} else if (length == 4) {
 			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
+			hour = parseDigits(timeStr, 0, 2);
+			minute = parseDigits(timeStr, 2, 4);
 		} else {
-			throw new IllegalArgumentException();
+			return -1;
 		}
 		// 数値的なチェックを行う
-		if (!isValidTrainingTime(hour, minute)) {
-			throw new IllegalArgumentException();
+		if (hour < 0 || minute < 0 || minute > 59) {
+			return -1;
 		}
-		this.hour = hour;
-		this.minute = minute;
+		return hour * 60 + minute;
+	}
+
+	/**
+	 * 指定範囲の数字を数値に変換する
+	 *
+	 * @param str
+	 * @param begin
+	 * @param end
+	 * @return 数値（数字以外を含む場合、空の場合、桁あふれの場合は-1）
+	 */
+	private static int parseDigits(String str, int begin, int end) {
+		if (begin >= end || end - begin > 6) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = begin; i < end; i++) {
+			char c = str.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * 時間を返却
+	 * 
+	 * @return 時間（未設定の場合はnull）
+	 */
+	public Integer getHour() {
+		return isBlank() ? null : minutes / 60;
+	}
+
+	/**
+	 * 分を返却
+	 * 
+	 * @return 分（未設定の場合はnull）
+	 */
+	public Integer getMinute() {
+		return isBlank() ? null : minutes % 60;
+	}
+
+	/**
+	 * 0時からの経過分を返却
+	 * 
+	 * @return 経過分（未設定の場合は-1）
+	 */
+	public int toMinutes() {
+		return minutes;
 	}
 
 	/**
@@ -153,15 +266,10 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return this + augend
 	 */
 	public TrainingTime add(TrainingTime augend) {
-		Integer retHour = this.hour;
-		Integer retMinute = this.minute;
-		retHour += augend.hour;
-		retMinute += augend.minute;
-		while (retMinute >= 60) {
-			retHour += 1;
-			retMinute -= 60;
+		if (this.isBlank() || augend.isBlank()) {
+			throw new NullPointerException();
 		}
-		return new TrainingTime(retHour, retMinute);
+		return ofMinutes(this.minutes + augend.minutes);
 	}
 
 	/**
@@ -172,17 +280,12 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 */
 	public TrainingTime subtract(TrainingTime subtrahend) {
 		if (this.compareTo(subtrahend) > 0) {
-			Integer retHour = this.hour;
-			Integer retMinute = this.minute;
-			retHour -= subtrahend.hour;
-			retMinute -= subtrahend.minute;
-			while (retHour > 0 && retMinute < 0) {
-				retHour -= 1;
-				retMinute += 60;
+			if (subtrahend == null || subtrahend.isBlank()) {
+				throw new NullPointerException();
 			}
-			return new TrainingTime(retHour, retMinute);
+			return ofMinutes(this.minutes - subtrahend.minutes);
 		} else if (this.equals(subtrahend)) {
-			return new TrainingTime(0, 0);
+			return CACHE[0];
 		} else {
 			throw new UnsupportedOperationException("未実装");
 		}
@@ -245,15 +348,19 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	@Override
 	public boolean equals(Object anObject) {
 		if (anObject instanceof TrainingTime) {
-			TrainingTime target = (TrainingTime) anObject;
-			if (target.hour == this.hour && target.minute == this.minute) {
-				return true;
-			} else {
-				return false;
-			}
-		} else {
-			return false;
+			return ((TrainingTime) anObject).minutes == this.minutes;
 		}
+		return false;
+	}
+
+	/**
+	 * ハッシュコード
+	 * 
+	 * @return ハッシュコード
+	 */
+	@Override
+	public int hashCode() {
+		return minutes;
 	}
 
 	/**
@@ -264,22 +371,9 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 */
 	@Override
 	public int compareTo(TrainingTime anotherTrainingTime) {
-		if (this.isBlank() && anotherTrainingTime != null && !anotherTrainingTime.isBlank()) {
-			return -1;
-		}
-		if (!this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 1;
-		}
-		if (this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 0;
-		}
-		if (this.equals(anotherTrainingTime)) {
-			return 0;
-		}
-		if (this.hour != anotherTrainingTime.hour) {
-			return this.hour.compareTo(anotherTrainingTime.hour);
-		}
-		return this.minute.compareTo(anotherTrainingTime.minute);
+		// 未設定（-1）は設定済みの時刻より前、nullは未設定と同じ扱い
+		int another = anotherTrainingTime == null ? BLANK_MINUTES : anotherTrainingTime.minutes;
+		return Integer.compare(this.minutes, another);
 	}
 
 	/**
@@ -288,7 +382,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return boolean
 	 */
 	public boolean isBlank() {
-		return (this.hour == null || this.minute == null);
+		return minutes == BLANK_MINUTES;
 	}
 
 	/**
@@ -306,66 +400,44 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return HH:mm
 	 */
 	public String getFormattedString() {
-		if (hour == null || minute == null) {
+		if (isBlank()) {
 			return "";
-		} else {
-			return String.format("%1$02d:%2$02d", hour, minute);
 		}
+		int hour = minutes / 60;
+		int minute = minutes % 60;
+		StringBuilder sb = new StringBuilder(5);
+		if (hour < 10) {
+			sb.append('0');
+		}
+		sb.append(hour).append(':');
+		if (minute < 10) {
+			sb.append('0');
+		}
+		return sb.append(minute).toString();
 	}
 
 	/**
 	 * 分を15分刻みで切り上げる。出社に仕様
 	 * 
-	 * @return
+	 * @return 切り上げた研修時刻
 	 */
 	public TrainingTime roundUp() {
-		if (between(this.minute, 46, 59)) {
-			this.hour++;
-			this.minute = 0;
-		} else if (between(this.minute, 1, 15)) {
-			this.minute = 15;
-		} else if (between(this.minute, 16, 30)) {
-			this.minute = 30;
-		} else if (between(this.minute, 31, 45)) {
-			this.minute = 45;
+		if (isBlank()) {
+			throw new NullPointerException();
 		}
-		return this;
+		return ofMinutes((minutes + 14) / 15 * 15);
 	}
 
 	/**
 	 * 分を15分刻みで切り捨てる。退社に仕様
 	 * 
-	 * @return
+	 * @return 切り捨てた研修時刻
 	 */
 	public TrainingTime roundDown() {
-		if (between(this.minute, 45, 59)) {
-			this.minute = 45;
-		} else if (between(this.minute, 0, 14)) {
-			this.minute = 0;
-		} else if (between(this.minute, 15, 29)) {
-			this.minute = 15;
-		} else if (between(this.minute, 30, 44)) {
-			this.minute = 30;
-		}
-		return this;
-	}
-
-	/**
-	 * 指定された数値間か判定
-	 * 
-	 * @param minute
-	 * @param a
-	 * @param b
-	 * 
-	 * @return boolean
-	 */
-	private boolean between(int minute, int a, int b) {
-		if (a > b) {
-			int tmp = b;
-			b = a;
-			a = tmp;
+		if (isBlank()) {
+			throw new NullPointerException();
 		}
-		return (minute >= a && minute <= b);
+		return ofMinutes(minutes / 15 * 15);
 	}
 
 	/**
@@ -374,7 +446,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	 * @return boolean
 	 */
 	public boolean isEmpty() {
-		return hour == null || minute == null;
+		return isBlank();
 	}
 
 	/**
@@ -0,0 +1,68 @@
+package jp.co.sss.lms.util;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+
+/**
+ * 研修時刻のタイプハンドラー
+ * 
+ * <p>
+ * 0時からの経過分（INTEGER列）と研修時刻を相互に変換する。NULLは未設定の研修時刻として扱う。
+ * mybatis-config.xmlで登録しているため、研修時刻型のプロパティには自動で適用される。
+ * </p>
+ * 
+ * @author 東京ITスクール
+ */
+@MappedTypes(TrainingTime.class)
+@MappedJdbcTypes(value = JdbcType.INTEGER, includeNullJdbcType = true)
+public class TrainingTimeTypeHandler extends BaseTypeHandler<TrainingTime> {
+
+	@Override
+	public void setNonNullParameter(PreparedStatement ps, int i, TrainingTime parameter,
+			JdbcType jdbcType) throws SQLException {
+		if (parameter.isBlank()) {
+			ps.setNull(i, Types.INTEGER);
+		} else {
+			ps.setInt(i, parameter.toMinutes());
+		}
+	}
+
+	@Override
+	public TrainingTime getNullableResult(ResultSet rs, String columnName) throws SQLException {
+		return toTrainingTime(rs.getInt(columnName), rs.wasNull());
+	}
+
+	@Override
+	public TrainingTime getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+		return toTrainingTime(rs.getInt(columnIndex), rs.wasNull());
+	}
+
+	@Override
+	public TrainingTime getNullableResult(CallableStatement cs, int columnIndex)
+			throws SQLException {
+		return toTrainingTime(cs.getInt(columnIndex), cs.wasNull());
+	}
+
+	/**
+	 * 経過分から研修時刻に変換
+	 * 
+	 * @param minutes
+	 * @param wasNull
+	 * @return 研修時刻（NULLの場合は未設定）
+	 */
+	private TrainingTime toTrainingTime(int minutes, boolean wasNull) {
+		if (wasNull || minutes < 0) {
+			return TrainingTime.parse("");
+		}
+		return TrainingTime.ofMinutes(minutes);
+	}
+
+}
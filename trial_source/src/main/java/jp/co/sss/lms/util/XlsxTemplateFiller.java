@@ -0,0 +1,608 @@
+package jp.co.sss.lms.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * Excelテンプレート（.xlsx）の直接書込
+ *
+ * <p>
+ * テンプレートをZIPとして読み、値を設定したシートのXML（xl/worksheets/sheetN.xml）のみをStAXで読みながらセルを書き換え、
+ * それ以外のエントリは内容を変えずにコピーする。POIのワークブックを作成しないため、数十セル程度を設定するダウンロードでは
+ * {@link ExcelUtil}より処理・メモリが軽い。
+ * 文字列はインライン文字列として書き込み、既存のセルの書式（s属性）は引き継ぐ。
+ * 数式の再計算は行わないため、数式を含むテンプレートには使用できない（{@link #getFillableSheetPathMap(byte[])}）。
+ * </p>
+ *
+ * @author 東京ITスクール
+ */
+public class XlsxTemplateFiller implements ExcelSheetWriter {
+
+	/** 関係の名前空間（r:id） */
+	private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	/** ブックの関係の種類 */
+	private static final String REL_OFFICE_DOCUMENT = NS_RELATIONSHIPS + "/officeDocument";
+	/** 日付のシリアル値の基準日（1900年日付システム） */
+	private static final LocalDateTime EXCEL_EPOCH = LocalDateTime.of(1899, 12, 30, 0, 0);
+	/** 1日のミリ秒 */
+	private static final double MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+	private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+	private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newInstance();
+
+	/** テンプレート */
+	private final byte[] template;
+	/** シート名毎のシートのパス */
+	private final Map<String, String> sheetPathMap;
+	/** シート名毎の設定値（行番号→列番号→値。行・列番号は1始まり） */
+	private final Map<String, TreeMap<Integer, TreeMap<Integer, Object>>> sheetValueMap = new HashMap<>();
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param template     テンプレート（変更しない）
+	 * @param sheetPathMap {@link #getFillableSheetPathMap(byte[])}で取得したシート名毎のシートのパス
+	 */
+	public XlsxTemplateFiller(byte[] template, Map<String, String> sheetPathMap) {
+		this.template = template;
+		this.sheetPathMap = sheetPathMap;
+	}
+
+	@Override
+	public void setVal(String sheetName, int rowNum, int clmNum, String value) {
+		if (value != null) {
+			put(sheetName, rowNum, clmNum, value);
+		}
+	}
+
+	@Override
+	public void setVal(String sheetName, int rowNum, int clmNum, Integer value) {
+		if (value != null) {
+			put(sheetName, rowNum, clmNum, value);
+		}
+	}
+
+	@Override
+	public void setVal(String sheetName, int rowNum, int clmNum, double value) {
+		put(sheetName, rowNum, clmNum, value);
+	}
+
+	@Override
+	public void setVal(String sheetName, int rowNum, int clmNum, Date value) {
+		if (value != null) {
+			put(sheetName, rowNum, clmNum, value);
+		}
+	}
+
+	/**
+	 * 設定値の保持
+	 *
+	 * @param sheetName
+	 * @param rowNum    行番号（0始まり）
+	 * @param clmNum    列番号（0始まり）
+	 * @param value
+	 */
+	private void put(String sheetName, int rowNum, int clmNum, Object value) {
+		if (!sheetPathMap.containsKey(sheetName)) {
+			throw new IllegalArgumentException("シートが存在しません。" + sheetName);
+		}
+		sheetValueMap.computeIfAbsent(sheetName, key -> new TreeMap<>())
+				.computeIfAbsent(rowNum + 1, key -> new TreeMap<>()).put(clmNum + 1, value);
+	}
+
+	/**
+	 * 値を設定したブックの書込<br>
+	 * 出力先はクローズしない。
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(OutputStream out) throws IOException {
+		Map<String, TreeMap<Integer, TreeMap<Integer, Object>>> partValueMap = new HashMap<>();
+		for (Map.Entry<String, TreeMap<Integer, TreeMap<Integer, Object>>> entry : sheetValueMap
+				.entrySet()) {
+			// 書込で設定値を取り出すため、複製を渡す
+			TreeMap<Integer, TreeMap<Integer, Object>> rowMap = new TreeMap<>();
+			entry.getValue().forEach((rowNum, cellMap) -> rowMap.put(rowNum, new TreeMap<>(cellMap)));
+			partValueMap.put(sheetPathMap.get(entry.getKey()), rowMap);
+		}
+
+		ZipOutputStream zos = new ZipOutputStream(out);
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(template))) {
+			ZipEntry zipEntry;
+			while ((zipEntry = zis.getNextEntry()) != null) {
+				ZipEntry newEntry = new ZipEntry(zipEntry.getName());
+				newEntry.setTime(zipEntry.getTime());
+				zos.putNextEntry(newEntry);
+				TreeMap<Integer, TreeMap<Integer, Object>> rowMap = partValueMap
+						.get(zipEntry.getName());
+				if (rowMap == null) {
+					zis.transferTo(zos);
+				} else {
+					new SheetFiller(rowMap).fill(zis, zos);
+				}
+				zos.closeEntry();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+		zos.finish();
+	}
+
+	/**
+	 * 直接書込できるテンプレートの解析<br>
+	 * ブック（workbook.xml）と関係（.rels）からシート名毎のシートのパスを取得する。
+	 * 数式を含むシートがある・1904年日付システム・解析できない場合は直接書込できないためnullを返す。
+	 *
+	 * @param template
+	 * @return シート名毎のシートのパス（直接書込できない場合はnull）
+	 */
+	public static Map<String, String> getFillableSheetPathMap(byte[] template) {
+		try {
+			// パッケージの関係・ブック・ブックの関係を読み込む
+			Map<String, byte[]> partMap = new HashMap<>();
+			try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(template))) {
+				ZipEntry zipEntry;
+				while ((zipEntry = zis.getNextEntry()) != null) {
+					String name = zipEntry.getName();
+					if (name.equals("_rels/.rels") || name.endsWith("workbook.xml")
+							|| name.endsWith("workbook.xml.rels")) {
+						partMap.put(name, zis.readAllBytes());
+					}
+				}
+			}
+			String workbookPath = getRelationshipMap(partMap, "").get(REL_OFFICE_DOCUMENT);
+			if (workbookPath == null || !partMap.containsKey(workbookPath)) {
+				return null;
+			}
+			Map<String, String> relationshipMap = getRelationshipMap(partMap, workbookPath);
+
+			Map<String, String> sheetPathMap = new HashMap<>();
+			XMLEventReader reader = INPUT_FACTORY
+					.createXMLEventReader(new ByteArrayInputStream(partMap.get(workbookPath)));
+			try {
+				while (reader.hasNext()) {
+					XMLEvent event = reader.nextEvent();
+					if (!event.isStartElement()) {
+						continue;
+					}
+					StartElement start = event.asStartElement();
+					String localName = start.getName().getLocalPart();
+					if (localName.equals("workbookPr")) {
+						Attribute date1904 = start.getAttributeByName(new QName("date1904"));
+						if (date1904 != null && (date1904.getValue().equals("1")
+								|| date1904.getValue().equals("true"))) {
+							return null;
+						}
+					} else if (localName.equals("sheet")) {
+						Attribute id = start.getAttributeByName(new QName(NS_RELATIONSHIPS, "id"));
+						Attribute name = start.getAttributeByName(new QName("name"));
+						if (id != null && name != null && relationshipMap.containsKey(id.getValue())) {
+							sheetPathMap.put(name.getValue(), relationshipMap.get(id.getValue()));
+						}
+					}
+				}
+			} finally {
+				reader.close();
+			}
+
+			// 数式を含むシートがあれば直接書込しない
+			Set<String> sheetPathSet = new HashSet<>(sheetPathMap.values());
+			try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(template))) {
+				ZipEntry zipEntry;
+				while ((zipEntry = zis.getNextEntry()) != null) {
+					if (sheetPathSet.contains(zipEntry.getName()) && hasFormula(zis)) {
+						return null;
+					}
+				}
+			}
+			return sheetPathMap;
+		} catch (IOException | XMLStreamException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 関係（.rels）の取得
+	 *
+	 * @param partMap    読み込んだパート
+	 * @param sourcePath 関係の元のパート（パッケージの場合は空文字）
+	 * @return 関係の元がパッケージの場合は種類毎の、それ以外はID毎の対象のパート
+	 * @throws XMLStreamException
+	 */
+	private static Map<String, String> getRelationshipMap(Map<String, byte[]> partMap,
+			String sourcePath) throws XMLStreamException {
+		int index = sourcePath.lastIndexOf('/');
+		String sourceDir = sourcePath.substring(0, index + 1);
+		String relsPath = sourceDir + "_rels/" + sourcePath.substring(index + 1) + ".rels";
+		Map<String, String> relationshipMap = new HashMap<>();
+		byte[] rels = partMap.get(relsPath);
+		if (rels == null) {
+			return relationshipMap;
+		}
+		XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(new ByteArrayInputStream(rels));
+		try {
+			while (reader.hasNext()) {
+				XMLEvent event = reader.nextEvent();
+				if (!event.isStartElement()
+						|| !event.asStartElement().getName().getLocalPart().equals("Relationship")) {
+					continue;
+				}
+				StartElement start = event.asStartElement();
+				Attribute target = start.getAttributeByName(new QName("Target"));
+				Attribute targetMode = start.getAttributeByName(new QName("TargetMode"));
+				if (target == null || (targetMode != null && targetMode.getValue().equals("External"))) {
+					continue;
+				}
+				// 相対パスは関係の元のパートのフォルダを基準とする
+				String path = URI.create("/" + sourceDir).resolve(target.getValue()).getPath()
+						.substring(1);
+				Attribute key = start.getAttributeByName(new QName(sourcePath.isEmpty() ? "Type" : "Id"));
+				if (key != null) {
+					relationshipMap.put(key.getValue(), path);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return relationshipMap;
+	}
+
+	/**
+	 * シートが数式を含むか
+	 *
+	 * @param in
+	 * @return 数式（f要素）を含む場合：true
+	 * @throws XMLStreamException
+	 */
+	private static boolean hasFormula(InputStream in) throws XMLStreamException {
+		XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(new NonClosingInputStream(in));
+		try {
+			while (reader.hasNext()) {
+				XMLEvent event = reader.nextEvent();
+				if (event.isStartElement()
+						&& event.asStartElement().getName().getLocalPart().equals("f")) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * セル参照（A1形式）
+	 *
+	 * @param rowNum 行番号（1始まり）
+	 * @param clmNum 列番号（1始まり）
+	 * @return セル参照
+	 */
+	static String getCellRef(int rowNum, int clmNum) {
+		StringBuilder sb = new StringBuilder();
+		for (int n = clmNum; n > 0; n = (n - 1) / 26) {
+			sb.insert(0, (char) ('A' + (n - 1) % 26));
+		}
+		return sb.append(rowNum).toString();
+	}
+
+	/**
+	 * セル参照（A1形式）の列番号
+	 *
+	 * @param cellRef
+	 * @return 列番号（1始まり）
+	 */
+	static int getClmNum(String cellRef) {
+		int clmNum = 0;
+		for (int i = 0; i < cellRef.length() && Character.isLetter(cellRef.charAt(i)); i++) {
+			clmNum = clmNum * 26 + (Character.toUpperCase(cellRef.charAt(i)) - 'A' + 1);
+		}
+		return clmNum;
+	}
+
+	/**
+	 * 日付のシリアル値（1900年日付システム）
+	 *
+	 * @param date
+	 * @return シリアル値
+	 */
+	static double getSerial(Date date) {
+		LocalDateTime dateTime = LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+		return Duration.between(EXCEL_EPOCH, dateTime).toMillis() / MILLIS_PER_DAY;
+	}
+
+	/**
+	 * 数値の文字列表現（整数は小数点を付けない）
+	 *
+	 * @param value
+	 * @return 文字列表現
+	 */
+	private static String toNumberString(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			return Long.toString((long) value);
+		}
+		return Double.toString(value);
+	}
+
+	/**
+	 * XMLに書き込めない制御文字をExcelのエスケープ（_xHHHH_）に置き換える
+	 *
+	 * @param value
+	 * @return 置換後の文字列
+	 */
+	private static String escapeControlChar(String value) {
+		StringBuilder sb = null;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+				if (sb == null) {
+					sb = new StringBuilder(value.substring(0, i));
+				}
+				sb.append(String.format("_x%04X_", (int) c));
+			} else if (sb != null) {
+				sb.append(c);
+			}
+		}
+		return sb == null ? value : sb.toString();
+	}
+
+	private static XMLInputFactory newInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+
+	/**
+	 * シートのXMLの書換<br>
+	 * sheetDataの行（row）・セル（c）を順に読み、設定値のあるセルは置き換え、無いセル・行は行番号・列番号の順となる位置に追加する。
+	 */
+	private static final class SheetFiller {
+
+		/** 設定値（行番号→列番号→値。書き込んだものは取り除く） */
+		private final TreeMap<Integer, TreeMap<Integer, Object>> rowMap;
+		private XMLEventWriter writer;
+		/** sheetDataの名前空間の接頭辞 */
+		private String prefix = "";
+		/** sheetDataの名前空間 */
+		private String namespaceUri = "";
+
+		private SheetFiller(TreeMap<Integer, TreeMap<Integer, Object>> rowMap) {
+			this.rowMap = rowMap;
+		}
+
+		/**
+		 * シートのXMLを読み、書き換えて出力する（入出力ともクローズしない）
+		 *
+		 * @param in
+		 * @param out
+		 * @throws XMLStreamException
+		 */
+		private void fill(InputStream in, OutputStream out) throws XMLStreamException {
+			XMLEventReader reader = INPUT_FACTORY.createXMLEventReader(new NonClosingInputStream(in));
+			// 細かい書込の都度ZIPの圧縮が行われないよう、まとめて書き込む
+			BufferedOutputStream bos = new BufferedOutputStream(new NonClosingOutputStream(out), 8192);
+			writer = OUTPUT_FACTORY.createXMLEventWriter(bos, "UTF-8");
+			boolean inSheetData = false;
+			boolean inRow = false;
+			TreeMap<Integer, Object> cellMap = null;
+			int rowNum = 0;
+			int clmNum = 0;
+			// 置き換えたセルの子要素を読み飛ばす深さ
+			int skipDepth = 0;
+			try {
+				while (reader.hasNext()) {
+					XMLEvent event = reader.nextEvent();
+					if (skipDepth > 0) {
+						if (event.isStartElement()) {
+							skipDepth++;
+						} else if (event.isEndElement()) {
+							skipDepth--;
+						}
+						continue;
+					}
+					if (event.isStartElement()) {
+						StartElement start = event.asStartElement();
+						String localName = start.getName().getLocalPart();
+						if (!inSheetData && localName.equals("sheetData")) {
+							inSheetData = true;
+							prefix = start.getName().getPrefix();
+							namespaceUri = start.getName().getNamespaceURI();
+						} else if (inSheetData && !inRow && localName.equals("row")) {
+							Attribute r = start.getAttributeByName(new QName("r"));
+							rowNum = r != null ? Integer.parseInt(r.getValue()) : rowNum + 1;
+							// 既存の行より前の行を追加する
+							writeRows(rowMap.headMap(rowNum, false));
+							cellMap = rowMap.remove(rowNum);
+							inRow = true;
+							clmNum = 0;
+						} else if (inRow && localName.equals("c")) {
+							Attribute r = start.getAttributeByName(new QName("r"));
+							clmNum = r != null ? getClmNum(r.getValue()) : clmNum + 1;
+							if (cellMap != null) {
+								// 既存のセルより前のセルを追加し、同じ列のセルは置き換える
+								writeCells(rowNum, cellMap.headMap(clmNum, false));
+								if (cellMap.containsKey(clmNum)) {
+									writeCell(rowNum, clmNum, cellMap.remove(clmNum),
+											start.getAttributeByName(new QName("s")));
+									skipDepth = 1;
+									continue;
+								}
+							}
+						}
+					} else if (event.isEndElement()) {
+						String localName = event.asEndElement().getName().getLocalPart();
+						if (inRow && localName.equals("row")) {
+							if (cellMap != null) {
+								writeCells(rowNum, cellMap);
+							}
+							inRow = false;
+							cellMap = null;
+						} else if (inSheetData && localName.equals("sheetData")) {
+							writeRows(rowMap);
+							inSheetData = false;
+						}
+					}
+					writer.add(event);
+				}
+				writer.flush();
+			} finally {
+				reader.close();
+				writer.close();
+			}
+			try {
+				bos.flush();
+			} catch (IOException e) {
+				throw new XMLStreamException(e);
+			}
+		}
+
+		/**
+		 * 行の追加（追加した行は設定値から取り除く）
+		 *
+		 * @param rows
+		 * @throws XMLStreamException
+		 */
+		private void writeRows(SortedMap<Integer, TreeMap<Integer, Object>> rows)
+				throws XMLStreamException {
+			for (Map.Entry<Integer, TreeMap<Integer, Object>> entry : rows.entrySet()) {
+				List<Attribute> attributeList = new ArrayList<>();
+				attributeList.add(EVENT_FACTORY.createAttribute("r", entry.getKey().toString()));
+				writer.add(EVENT_FACTORY.createStartElement(prefix, namespaceUri, "row",
+						attributeList.iterator(), null));
+				writeCells(entry.getKey(), entry.getValue());
+				writer.add(EVENT_FACTORY.createEndElement(prefix, namespaceUri, "row"));
+			}
+			rows.clear();
+		}
+
+		/**
+		 * セルの追加（追加したセルは設定値から取り除く）
+		 *
+		 * @param rowNum
+		 * @param cells
+		 * @throws XMLStreamException
+		 */
+		private void writeCells(int rowNum, SortedMap<Integer, Object> cells)
+				throws XMLStreamException {
+			for (Map.Entry<Integer, Object> entry : cells.entrySet()) {
+				writeCell(rowNum, entry.getKey(), entry.getValue(), null);
+			}
+			cells.clear();
+		}
+
+		/**
+		 * セルの書込
+		 *
+		 * @param rowNum
+		 * @param clmNum
+		 * @param value
+		 * @param style  既存のセルの書式（無い場合はnull）
+		 * @throws XMLStreamException
+		 */
+		private void writeCell(int rowNum, int clmNum, Object value, Attribute style)
+				throws XMLStreamException {
+			List<Attribute> attributeList = new ArrayList<>();
+			attributeList.add(EVENT_FACTORY.createAttribute("r", getCellRef(rowNum, clmNum)));
+			if (style != null) {
+				attributeList.add(EVENT_FACTORY.createAttribute("s", style.getValue()));
+			}
+			if (value instanceof String) {
+				attributeList.add(EVENT_FACTORY.createAttribute("t", "inlineStr"));
+			}
+			writer.add(EVENT_FACTORY.createStartElement(prefix, namespaceUri, "c",
+					attributeList.iterator(), null));
+			if (value instanceof String) {
+				writer.add(EVENT_FACTORY.createStartElement(prefix, namespaceUri, "is"));
+				List<Attribute> textAttributeList = new ArrayList<>();
+				textAttributeList.add(EVENT_FACTORY.createAttribute("xml", XMLConstants.XML_NS_URI,
+						"space", "preserve"));
+				writer.add(EVENT_FACTORY.createStartElement(prefix, namespaceUri, "t",
+						textAttributeList.iterator(), null));
+				writer.add(EVENT_FACTORY.createCharacters(escapeControlChar((String) value)));
+				writer.add(EVENT_FACTORY.createEndElement(prefix, namespaceUri, "t"));
+				writer.add(EVENT_FACTORY.createEndElement(prefix, namespaceUri, "is"));
+			} else {
+				String number;
+				if (value instanceof Date) {
+					number = toNumberString(getSerial((Date) value));
+				} else {
+					number = toNumberString(((Number) value).doubleValue());
+				}
+				writer.add(EVENT_FACTORY.createStartElement(prefix, namespaceUri, "v"));
+				writer.add(EVENT_FACTORY.createCharacters(number));
+				writer.add(EVENT_FACTORY.createEndElement(prefix, namespaceUri, "v"));
+			}
+			writer.add(EVENT_FACTORY.createEndElement(prefix, namespaceUri, "c"));
+		}
+	}
+
+	/**
+	 * クローズしない入力（ZIPのエントリ毎にXMLを読むため）
+	 */
+	private static final class NonClosingInputStream extends FilterInputStream {
+
+		private NonClosingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * クローズしない出力（ZIPのエントリ毎にXMLを書くため）
+	 */
+	private static final class NonClosingOutputStream extends FilterOutputStream {
+
+		private NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+
+}
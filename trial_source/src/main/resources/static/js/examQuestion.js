@@ -9,12 +9,11 @@ $(function(){
 });
 
 function timeCount() {
+	// 経過時間はサーバーで計測する（表示用）
 	timeMSec += 1000;
-	$('.sendTime').val(timeMSec);
 }
 
 function timeUp() {
 	alert('制限時間となりました。回答を送信します。');
-	$('.sendTime').val(limitTimeMin * 60 * 1000);
 	$('#examQuestionForm').submit();
 }
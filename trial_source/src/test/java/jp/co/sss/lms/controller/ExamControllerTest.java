@@ -0,0 +1,116 @@
+package jp.co.sss.lms.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import jp.co.sss.lms.dto.ExamSectionStatDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.filter.LoginSessionFilter;
+import jp.co.sss.lms.service.ExamItemAnalysisService;
+import jp.co.sss.lms.service.ExamService;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.LoginUserUtil;
+
+/**
+ * 試験コントローラー試験<br>
+ * 試験統計（JSON）を、ログインセッションフィルターの権限毎のアクセス制限を通して呼び出せることを試験する。<br>
+ */
+public class ExamControllerTest {
+
+	private MockMvc mockMvc;
+
+	@Mock
+	private ExamService examService;
+	@Mock
+	private ExamItemAnalysisService examItemAnalysisService;
+	@Mock
+	private LoginUserUtil loginUserUtil;
+
+	private LoginUserDto loginUserDto = new LoginUserDto();
+
+	@InjectMocks
+	private ExamController examController;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examController, "loginUserDto", loginUserDto);
+
+		// ログイン済み・利用規約同意済み・パスワード変更済みのユーザー
+		LoginSessionFilter loginSessionFilter = spy(new LoginSessionFilter());
+		ReflectionTestUtils.setField(loginSessionFilter, "loginUserUtil", loginUserUtil);
+		ReflectionTestUtils.setField(loginSessionFilter, "loginUserDto", loginUserDto);
+		doReturn(true).when(loginSessionFilter).isCurrentPasswordExpired();
+		when(loginUserUtil.isLogin()).thenReturn(true);
+		loginUserDto.setSecurityAgreeFlg((short) 1);
+		loginUserDto.setPasswordChangeDate(new Date());
+
+		mockMvc = MockMvcBuilders.standaloneSetup(examController).addFilters(loginSessionFilter)
+				.build();
+	}
+
+	/**
+	 * Case.1_1 試験統計（講師）<br>
+	 * <br>
+	 * ■対象メソッド：sectionStat()<br>
+	 * ■条件：講師が試験・セクション紐付けIDを指定して呼び出す<br>
+	 * ■期待値：HTTPステータスが200であること、受験回数・平均点・得点分布がJSONで返却されること<br>
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		loginUserDto.setRole(Constants.CODE_VAL_ROLL_TEACHER);
+		when(loginUserUtil.isTeacher()).thenReturn(true);
+		ExamSectionStatDto examSectionStatDto = new ExamSectionStatDto();
+		examSectionStatDto.setExamSectionId(2);
+		examSectionStatDto.setAttemptCount(5);
+		examSectionStatDto.setMarkCount(4);
+		examSectionStatDto.setAverageScore(2.5);
+		examSectionStatDto.setQuestionCount(3);
+		examSectionStatDto.setScoreCount(new int[] { 0, 1, 2, 1 });
+		when(examService.getExamSectionStat(2)).thenReturn(examSectionStatDto);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/lms/exam/sectionStat").contextPath("/lms")
+				.param("examSectionId", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.examSectionId").value(2))
+				.andExpect(jsonPath("$.attemptCount").value(5))
+				.andExpect(jsonPath("$.markCount").value(4))
+				.andExpect(jsonPath("$.averageScore").value(2.5))
+				.andExpect(jsonPath("$.questionCount").value(3))
+				.andExpect(jsonPath("$.scoreCount[1]").value(1))
+				.andExpect(jsonPath("$.scoreCount[2]").value(2));
+		verify(examService, times(1)).getExamSectionStat(2);
+	}
+
+	/**
+	 * Case.1_2 試験統計（受講生）<br>
+	 * <br>
+	 * ■対象メソッド：sectionStat()<br>
+	 * ■条件：受講生が呼び出す<br>
+	 * ■期待値：HTTPステータスが404であること（アクセス可能URLに含まれない）、試験統計を取得しないこと<br>
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+		loginUserDto.setRole(Constants.CODE_VAL_ROLL_STUDENT);
+		when(loginUserUtil.isStudent()).thenReturn(true);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/lms/exam/sectionStat").contextPath("/lms")
+				.param("examSectionId", "2"))
+				.andExpect(status().isNotFound());
+		verify(examService, never()).getExamSectionStat(any());
+	}
+
+}
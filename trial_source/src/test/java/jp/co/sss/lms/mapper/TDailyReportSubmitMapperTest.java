@@ -0,0 +1,332 @@
+package jp.co.sss.lms.mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jp.co.sss.lms.dto.DailyReportDownloadDto;
+import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.util.Constants;
+
+/**
+ * 日報提出テーブルマッパー試験<br>
+ * レポート取得で返却される行数を試験する。<br>
+ * マッパーXMLをMyBatisで読み込み、DBの代わりに各SELECTの主テーブルの行を返すJDBCドライバーで実行する。<br>
+ * 項目10件・理解度5件・フィードバック6件のレポートで、1つのSELECTで結合していた場合は10×5×6＝300行となる。<br>
+ */
+public class TDailyReportSubmitMapperTest {
+
+	/** 日報詳細の項目数 */
+	private static final int DETAIL_COUNT = 10;
+	/** 理解度の項目数 */
+	private static final int INTELLIGIBILITY_COUNT = 5;
+	/** フィードバック数 */
+	private static final int FB_COUNT = 6;
+	/** 1レポートあたりの最大行数（日報提出＋日報詳細＋理解度＋フィードバック） */
+	private static final int MAX_ROW_COUNT = 1 + DETAIL_COUNT + INTELLIGIBILITY_COUNT + FB_COUNT;
+
+	/** 返却した行数 */
+	private final AtomicInteger rowCount = new AtomicInteger();
+	/** 実行したSELECT数 */
+	private final AtomicInteger statementCount = new AtomicInteger();
+
+	private SqlSessionFactory sqlSessionFactory;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		Configuration configuration;
+		try (InputStream in = Resources.getResourceAsStream("mybatis-config.xml")) {
+			configuration = new XMLConfigBuilder(in).parse();
+		}
+		configuration.setEnvironment(
+				new Environment("test", new JdbcTransactionFactory(), dataSource()));
+		String resource = "jp/co/sss/lms/mapper/TDailyReportSubmitMapper.xml";
+		try (InputStream in = Resources.getResourceAsStream(resource)) {
+			new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments())
+					.parse();
+		}
+		sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+	}
+
+	/**
+	 * Case.1_1 レポートダウンロードDTO取得の行数<br>
+	 * <br>
+	 * ■対象メソッド：getDailyReportDownloadDto()<br>
+	 * ■条件：項目10件・理解度5件・フィードバック6件のレポート<br>
+	 * ■期待値：返却される行数が「1＋項目数＋理解度数＋フィードバック数」以下であること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+
+		try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+			DailyReportDownloadDto dailyReportDownloadDto = sqlSession
+					.getMapper(TDailyReportSubmitMapper.class)
+					.getDailyReportDownloadDto(1, 1, Constants.DB_FLG_FALSE);
+
+			assertEquals(DETAIL_COUNT, dailyReportDownloadDto.getDailyReportDetailDtoList().size());
+			assertEquals(INTELLIGIBILITY_COUNT,
+					dailyReportDownloadDto.getIntelligibilityDtoList().size());
+			assertEquals(FB_COUNT, dailyReportDownloadDto.getDailyReportFbDtoList().size());
+		}
+		assertFalse(hasNestedResultMaps("getDailyReportDownloadDto"));
+		assertTrue(rowCount.get() <= MAX_ROW_COUNT, "返却行数：" + rowCount.get());
+		assertEquals(4, statementCount.get());
+	}
+
+	/**
+	 * Case.1_2 レポートDTO取得の行数<br>
+	 * <br>
+	 * ■対象メソッド：getDailyReportDto()<br>
+	 * ■条件：項目10件・理解度5件・フィードバック6件のレポート<br>
+	 * ■期待値：返却される行数が「1＋項目数＋理解度数＋フィードバック数」以下であること<br>
+	 */
+	@Test
+	public void testCase1_2() {
+
+		try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+			DailyReportDto dailyReportDto = sqlSession.getMapper(TDailyReportSubmitMapper.class)
+					.getDailyReportDto(1, Constants.DB_FLG_FALSE);
+
+			assertEquals(DETAIL_COUNT, dailyReportDto.getDailyReportDetailDtoList().size());
+			assertEquals(INTELLIGIBILITY_COUNT, dailyReportDto.getIntelligibilityDtoList().size());
+			assertEquals(FB_COUNT, dailyReportDto.getDailyReportFbDtoList().size());
+		}
+		assertFalse(hasNestedResultMaps("getDailyReportDto"));
+		assertTrue(rowCount.get() <= MAX_ROW_COUNT, "返却行数：" + rowCount.get());
+		assertEquals(4, statementCount.get());
+	}
+
+	/**
+	 * SELECTの結果に結合による入れ子のコレクションが含まれるか
+	 *
+	 * @param statementId
+	 * @return 入れ子のコレクションが含まれる場合：true
+	 */
+	private boolean hasNestedResultMaps(String statementId) {
+		return sqlSessionFactory.getConfiguration()
+				.getMappedStatement(TDailyReportSubmitMapper.class.getName() + "." + statementId)
+				.getResultMaps().stream().anyMatch(resultMap -> resultMap.hasNestedResultMaps());
+	}
+
+	/**
+	 * SELECTの主テーブル（FROM句の先頭）に応じた行を返す
+	 *
+	 * @param sql
+	 * @return 行のリスト
+	 */
+	private List<Map<String, Object>> selectRows(String sql) {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		if (sql.contains("FROM t_daily_report_submit t1")) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("daily_report_submit_id", 1);
+			row.put("daily_report_id", 1);
+			row.put("delete_flg", Constants.DB_FLG_FALSE);
+			row.put("date", now);
+			row.put("user_name", "受講生");
+			rows.add(row);
+		} else if (sql.contains("FROM m_daily_report_detail t1")
+				|| sql.contains("FROM t_daily_report_submit_detail t1")) {
+			for (int i = 1; i <= DETAIL_COUNT; i++) {
+				Map<String, Object> row = new LinkedHashMap<>();
+				row.put("daily_report_submit_id", 1);
+				row.put("field_num", i);
+				row.put("content", "内容" + i);
+				rows.add(row);
+			}
+		} else if (sql.contains("FROM t_intelligibility t1")) {
+			for (int i = 1; i <= INTELLIGIBILITY_COUNT; i++) {
+				Map<String, Object> row = new LinkedHashMap<>();
+				row.put("intelligibility_id", i);
+				row.put("field_num", i);
+				row.put("field_name", "理解度" + i);
+				row.put("field_value", (short) 3);
+				rows.add(row);
+			}
+		} else if (sql.contains("FROM t_daily_report_fb t1")) {
+			for (int i = 1; i <= FB_COUNT; i++) {
+				Map<String, Object> row = new LinkedHashMap<>();
+				row.put("daily_report_fb_id", i);
+				row.put("user_name", "講師");
+				row.put("content", "コメント" + i);
+				row.put("first_create_date", now);
+				row.put("date", now);
+				rows.add(row);
+			}
+		} else {
+			fail("想定外のSELECT：" + sql);
+		}
+		return rows;
+	}
+
+	/**
+	 * 試験用のデータソース
+	 *
+	 * @return データソース
+	 */
+	private DataSource dataSource() {
+		return new DataSource() {
+			@Override
+			public Connection getConnection() {
+				return connection();
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) {
+				return connection();
+			}
+
+			@Override
+			public PrintWriter getLogWriter() {
+				return null;
+			}
+
+			@Override
+			public void setLogWriter(PrintWriter out) {
+			}
+
+			@Override
+			public void setLoginTimeout(int seconds) {
+			}
+
+			@Override
+			public int getLoginTimeout() {
+				return 0;
+			}
+
+			@Override
+			public Logger getParentLogger() {
+				return null;
+			}
+
+			@Override
+			public <T> T unwrap(Class<T> iface) {
+				return null;
+			}
+
+			@Override
+			public boolean isWrapperFor(Class<?> iface) {
+				return false;
+			}
+		};
+	}
+
+	private Connection connection() {
+		DatabaseMetaData databaseMetaData = proxy(DatabaseMetaData.class, (method, args) -> null);
+		return proxy(Connection.class, (method, args) -> switch (method) {
+		case "prepareStatement" -> preparedStatement((String) args[0]);
+		case "getMetaData" -> databaseMetaData;
+		case "getAutoCommit" -> true;
+		default -> null;
+		});
+	}
+
+	private PreparedStatement preparedStatement(String sql) {
+		ResultSet[] resultSet = new ResultSet[1];
+		return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+		case "execute" -> {
+			statementCount.incrementAndGet();
+			resultSet[0] = resultSet(selectRows(sql));
+			yield true;
+		}
+		case "getResultSet" -> resultSet[0];
+		case "getUpdateCount" -> -1;
+		default -> null;
+		});
+	}
+
+	private ResultSet resultSet(List<Map<String, Object>> rows) {
+		List<String> columns = new ArrayList<>();
+		rows.forEach(row -> row.keySet().stream().filter(key -> !columns.contains(key))
+				.forEach(columns::add));
+		ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (method, args) -> switch (method) {
+		case "getColumnCount" -> columns.size();
+		case "getColumnLabel", "getColumnName" -> columns.get((Integer) args[0] - 1);
+		case "getColumnType" -> Types.OTHER;
+		case "getColumnClassName" -> Object.class.getName();
+		default -> null;
+		});
+		int[] index = { -1 };
+		Object[] last = new Object[1];
+		return proxy(ResultSet.class, (method, args) -> {
+			switch (method) {
+			case "next":
+				if (index[0] + 1 < rows.size()) {
+					index[0]++;
+					rowCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			case "getMetaData":
+				return metaData;
+			case "wasNull":
+				return last[0] == null;
+			case "getString", "getInt", "getShort", "getLong", "getTimestamp", "getObject":
+				Object key = args[0];
+				String column = key instanceof Integer ? columns.get((Integer) key - 1) : (String) key;
+				last[0] = rows.get(index[0]).get(column);
+				if (last[0] == null) {
+					return method.equals("getInt") ? 0
+							: method.equals("getShort") ? (short) 0
+									: method.equals("getLong") ? 0L : null;
+				}
+				if (method.equals("getString")) {
+					return last[0].toString();
+				}
+				return last[0];
+			default:
+				return null;
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, JdbcAnswer answer) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					Object result = answer.answer(method.getName(), args);
+					if (result == null && method.getReturnType() == boolean.class) {
+						return false;
+					}
+					if (result == null && method.getReturnType() == int.class) {
+						return 0;
+					}
+					return result;
+				});
+	}
+
+	@FunctionalInterface
+	private interface JdbcAnswer {
+		Object answer(String method, Object[] args);
+	}
+
+}
@@ -0,0 +1,273 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static jp.co.sss.lms.util.ExamTestFixture.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jp.co.sss.lms.dto.ExamItemAnalysisDto;
+import jp.co.sss.lms.entity.TExamItemAnalysis;
+import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamItemAnalysisMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.util.ExamSnapshotCache;
+
+/**
+ * 試験問題分析サービス試験<br>
+ * カーソルで読み込んだ試験結果詳細を、まとまり毎に並列で集計した結果が、全件を一度に集計した結果と一致することを試験する。<br>
+ * マッパーは試験結果ID順の試験結果詳細を1行ずつ渡す。<br>
+ */
+public class ExamItemAnalysisServiceTest {
+
+	/** 問題数 */
+	private static final int QUESTION_COUNT = 8;
+	/** 受験者数（まとまりの件数を超える） */
+	private static final int ATTEMPT_COUNT = 5500;
+
+	@Mock
+	private MExamMapper mExamMapper;
+	@Mock
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Mock
+	private TExamItemAnalysisMapper tExamItemAnalysisMapper;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private ExamSnapshotCache examSnapshotCache;
+	@InjectMocks
+	private ExamItemAnalysisService examItemAnalysisService;
+
+	/** 受験者毎の問題順の回答（未回答は0） */
+	private short[][] attempts;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examSnapshotCache, "cacheMinute", 60);
+		ReflectionTestUtils.setField(examItemAnalysisService, "examSnapshotCache",
+				examSnapshotCache);
+		examItemAnalysisService.init();
+
+		when(mExamMapper.getExamQuestion(eq(1), any()))
+				.thenReturn(examQuestionDto(QUESTION_COUNT, 100, 0));
+
+		// 能力の高い受験者ほど正答しやすい回答を作成する（一部は未回答）
+		Random random = new Random(1);
+		attempts = new short[ATTEMPT_COUNT][QUESTION_COUNT];
+		for (int a = 0; a < ATTEMPT_COUNT; a++) {
+			double ability = random.nextDouble();
+			for (int i = 0; i < QUESTION_COUNT; i++) {
+				double rate = i == QUESTION_COUNT - 1 ? 0.5 : ability * (1.0 - i * 0.1) + 0.05;
+				if (random.nextDouble() < 0.03) {
+					attempts[a][i] = 0;
+				} else if (random.nextDouble() < rate) {
+					attempts[a][i] = answerNum(i);
+				} else {
+					attempts[a][i] = (short) ((answerNum(i) + random.nextInt(3)) % 4 + 1);
+				}
+			}
+		}
+
+		// 試験結果ID順に1行ずつ渡す（未回答の問題の行も含む・削除された問題の行を含む）
+		doAnswer(invocation -> {
+			ResultHandler<TExamResultDetail> resultHandler = invocation.getArgument(2);
+			for (int a = 0; a < ATTEMPT_COUNT; a++) {
+				for (int i = 0; i <= QUESTION_COUNT; i++) {
+					TExamResultDetail tExamResultDetail = new TExamResultDetail();
+					tExamResultDetail.setExamResultId(10000 + a);
+					tExamResultDetail.setQuestionId(100 + i);
+					tExamResultDetail.setReply(i < QUESTION_COUNT ? attempts[a][i] : (short) 1);
+					resultHandler.handleResult(resultContext(tExamResultDetail));
+				}
+			}
+			return null;
+		}).when(tExamResultDetailMapper).getAnalysisDetail(eq(1), any(), any());
+	}
+
+	/**
+	 * Case.1_1 正答率・識別力・回答数<br>
+	 * <br>
+	 * ■対象メソッド：analyze()<br>
+	 * ■条件：8問の試験の受験者5500人分の試験結果詳細（まとまりの件数を超える）<br>
+	 * ■期待値：全件を一度に集計した正答率・識別力・回答数と一致すること、試験単位で1回保存すること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		assertEquals(ATTEMPT_COUNT, examItemAnalysisService.analyze(1));
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TExamItemAnalysis>> listCaptor = ArgumentCaptor.forClass(List.class);
+		verify(tExamItemAnalysisMapper, times(1)).replaceList(eq(1), listCaptor.capture());
+		List<TExamItemAnalysis> tExamItemAnalysisList = listCaptor.getValue();
+		assertEquals(QUESTION_COUNT, tExamItemAnalysisList.size());
+
+		int[] scores = new int[ATTEMPT_COUNT];
+		for (int a = 0; a < ATTEMPT_COUNT; a++) {
+			for (int i = 0; i < QUESTION_COUNT; i++) {
+				scores[a] += attempts[a][i] == answerNum(i) ? 1 : 0;
+			}
+		}
+		for (int i = 0; i < QUESTION_COUNT; i++) {
+			TExamItemAnalysis tExamItemAnalysis = tExamItemAnalysisList.get(i);
+			double[] x = new double[ATTEMPT_COUNT];
+			double[] y = new double[ATTEMPT_COUNT];
+			int[] replyCount = new int[5];
+			for (int a = 0; a < ATTEMPT_COUNT; a++) {
+				x[a] = attempts[a][i] == answerNum(i) ? 1 : 0;
+				y[a] = scores[a] - x[a];
+				replyCount[attempts[a][i]]++;
+			}
+			assertEquals(100 + i, tExamItemAnalysis.getQuestionId());
+			assertEquals(ATTEMPT_COUNT, tExamItemAnalysis.getAttemptCount());
+			assertEquals(sum(x) / ATTEMPT_COUNT, tExamItemAnalysis.getDifficulty(), 1e-9);
+			assertEquals(correlation(x, y), tExamItemAnalysis.getDiscrimination(), 1e-9);
+			assertArrayEquals(replyCount,
+					new int[] { tExamItemAnalysis.getNoAnswerCount(),
+							tExamItemAnalysis.getChoice1Count(), tExamItemAnalysis.getChoice2Count(),
+							tExamItemAnalysis.getChoice3Count(),
+							tExamItemAnalysis.getChoice4Count() });
+		}
+		// 能力と無関係に正答する問題は識別力が低い
+		assertTrue(tExamItemAnalysisList.get(0).getDiscrimination() > 0.2);
+		assertTrue(Math.abs(tExamItemAnalysisList.get(QUESTION_COUNT - 1).getDiscrimination()) < 0.1);
+	}
+
+	/**
+	 * Case.1_2 試験問題分析の取得<br>
+	 * <br>
+	 * ■対象メソッド：getExamItemAnalysisList()<br>
+	 * ■条件：正答率0.95・0.2・0.6（識別力0.05）・受験者5人の問題の分析結果<br>
+	 * ■期待値：易しすぎる・難しすぎる・識別力が低いと判定されること、受験者が少ない問題は判定しないこと<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		List<TExamItemAnalysis> tExamItemAnalysisList = new ArrayList<>();
+		tExamItemAnalysisList.add(tExamItemAnalysis(100, 100, 0.95, 0.4));
+		tExamItemAnalysisList.add(tExamItemAnalysis(101, 100, 0.2, 0.4));
+		tExamItemAnalysisList.add(tExamItemAnalysis(102, 100, 0.6, 0.05));
+		tExamItemAnalysisList.add(tExamItemAnalysis(103, 5, 0.2, 0.05));
+		when(tExamItemAnalysisMapper.findByExamId(1)).thenReturn(tExamItemAnalysisList);
+
+		List<ExamItemAnalysisDto> examItemAnalysisDtoList = examItemAnalysisService
+				.getExamItemAnalysisList(1);
+
+		assertEquals(4, examItemAnalysisDtoList.size());
+		assertTrue(examItemAnalysisDtoList.get(0).isTooEasy());
+		assertFalse(examItemAnalysisDtoList.get(0).isLowDiscrimination());
+		assertTrue(examItemAnalysisDtoList.get(1).isTooHard());
+		assertTrue(examItemAnalysisDtoList.get(2).isLowDiscrimination());
+		assertFalse(examItemAnalysisDtoList.get(2).isTooEasy() || examItemAnalysisDtoList.get(2).isTooHard());
+		assertFalse(examItemAnalysisDtoList.get(3).isTooHard()
+				|| examItemAnalysisDtoList.get(3).isLowDiscrimination());
+		assertEquals("問題1", examItemAnalysisDtoList.get(0).getQuestion());
+		assertEquals(answerNum(0), examItemAnalysisDtoList.get(0).getAnswerNum());
+	}
+
+	/**
+	 * 試験問題分析エンティティ作成
+	 *
+	 * @param questionId
+	 * @param attemptCount
+	 * @param difficulty
+	 * @param discrimination
+	 * @return 試験問題分析エンティティ（回答数は0）
+	 */
+	private static TExamItemAnalysis tExamItemAnalysis(int questionId, int attemptCount,
+			double difficulty, double discrimination) {
+		TExamItemAnalysis tExamItemAnalysis = new TExamItemAnalysis();
+		tExamItemAnalysis.setExamId(1);
+		tExamItemAnalysis.setQuestionId(questionId);
+		tExamItemAnalysis.setAttemptCount(attemptCount);
+		tExamItemAnalysis.setDifficulty(difficulty);
+		tExamItemAnalysis.setDiscrimination(discrimination);
+		tExamItemAnalysis.setNoAnswerCount(0);
+		tExamItemAnalysis.setChoice1Count(0);
+		tExamItemAnalysis.setChoice2Count(0);
+		tExamItemAnalysis.setChoice3Count(0);
+		tExamItemAnalysis.setChoice4Count(0);
+		return tExamItemAnalysis;
+	}
+
+	/**
+	 * 合計
+	 *
+	 * @param values
+	 * @return 合計
+	 */
+	private static double sum(double[] values) {
+		double sum = 0;
+		for (double value : values) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	/**
+	 * 相関係数（全件を一度に集計した期待値の計算用）
+	 *
+	 * @param x
+	 * @param y
+	 * @return 相関係数
+	 */
+	private static double correlation(double[] x, double[] y) {
+		double meanX = sum(x) / x.length;
+		double meanY = sum(y) / y.length;
+		double sxy = 0;
+		double sxx = 0;
+		double syy = 0;
+		for (int i = 0; i < x.length; i++) {
+			sxy += (x[i] - meanX) * (y[i] - meanY);
+			sxx += (x[i] - meanX) * (x[i] - meanX);
+			syy += (y[i] - meanY) * (y[i] - meanY);
+		}
+		return sxy / Math.sqrt(sxx * syy);
+	}
+
+	/**
+	 * 結果コンテキスト作成（マッパーがresultHandlerへ渡す1行）
+	 *
+	 * @param tExamResultDetail
+	 * @return 結果コンテキスト
+	 */
+	private static ResultContext<TExamResultDetail> resultContext(
+			TExamResultDetail tExamResultDetail) {
+		return new ResultContext<TExamResultDetail>() {
+			@Override
+			public TExamResultDetail getResultObject() {
+				return tExamResultDetail;
+			}
+
+			@Override
+			public int getResultCount() {
+				return 0;
+			}
+
+			@Override
+			public boolean isStopped() {
+				return false;
+			}
+
+			@Override
+			public void stop() {
+			}
+		};
+	}
+
+}
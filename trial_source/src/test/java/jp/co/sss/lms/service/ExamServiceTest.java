@@ -0,0 +1,321 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static jp.co.sss.lms.util.ExamTestFixture.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamAttemptDto;
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.ExamSectionStatDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.entity.TExamSectionScore;
+import jp.co.sss.lms.entity.TExamSectionStat;
+import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.mapper.TExamSectionStatMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ExamSnapshotCache;
+
+/**
+ * 試験情報サービス試験<br>
+ * 試験結果登録の採点と、登録・試験統計の更新に使用するSQLの回数、試験統計の取得を試験する。<br>
+ * 回答・経過時間はセッションで保持するため、受験開始・回答の反映を経て登録する。<br>
+ */
+public class ExamServiceTest {
+
+	/** 問題数 */
+	private static final int QUESTION_COUNT = 50;
+
+	@Mock
+	private LoginUserDto loginUserDto;
+	@Mock
+	private TExamResultMapper tExamResultMapper;
+	@Mock
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Mock
+	private TExamSectionStatMapper tExamSectionStatMapper;
+	@Mock
+	private MExamMapper mExamMapper;
+
+	@InjectMocks
+	private ExamSnapshotCache examSnapshotCache;
+	private ExamAttemptDto examAttemptDto = new ExamAttemptDto();
+	@InjectMocks
+	private ExamService examService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examSnapshotCache, "cacheMinute", 60);
+		ReflectionTestUtils.setField(examService, "examSnapshotCache", examSnapshotCache);
+		ReflectionTestUtils.setField(examService, "examAttemptDto", examAttemptDto);
+
+		when(loginUserDto.getLmsUserId()).thenReturn(1);
+		when(loginUserDto.getAccountId()).thenReturn(1);
+		when(mExamMapper.getExamQuestion(eq(1), any()))
+				.thenReturn(examQuestionDto(QUESTION_COUNT, 1000, 0));
+		// 登録された試験結果に試験結果IDを採番する
+		when(tExamResultMapper.insertWithMarkFlg(any())).thenAnswer(invocation -> {
+			TExamResult tExamResult = invocation.getArgument(0);
+			tExamResult.setExamResultId(10);
+			return true;
+		});
+	}
+
+	/**
+	 * Case.1_1 採点と一括登録<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■条件：50問の試験で、前半25問を正答・26問目以降を誤答・最後の5問を未回答<br>
+	 * ■期待値：得点が25点であること、試験結果・試験結果詳細の登録・試験統計の更新がそれぞれ1回であること、
+	 * 試験結果詳細が問題順に50件（未回答はnull）であること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		Short[] answer = new Short[QUESTION_COUNT];
+		for (int i = 0; i < QUESTION_COUNT - 5; i++) {
+			short answerNum = answerNum(i);
+			answer[i] = i < 25 ? answerNum : (short) (answerNum % 4 + 1);
+		}
+		ExamQuestionForm examQuestionForm = startExam();
+		examQuestionForm.setAnswer(answer);
+		assertTrue(examService.setExamQuestionForm(examQuestionForm));
+
+		assertEquals(10, examService.insert(examQuestionForm));
+
+		ArgumentCaptor<TExamResult> tExamResultCaptor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper, times(1)).insertWithMarkFlg(tExamResultCaptor.capture());
+		assertEquals((short) 25, tExamResultCaptor.getValue().getScore());
+		assertEquals(2, tExamResultCaptor.getValue().getExamSectionId());
+		verify(tExamResultMapper, never()).getExamCount(any(), any(), any());
+		verify(tExamSectionStatMapper, times(1)).applyResult(eq(10), any(),
+				eq(Constants.DB_FLG_FALSE));
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TExamResultDetail>> listCaptor = ArgumentCaptor.forClass(List.class);
+		verify(tExamResultDetailMapper, times(1)).insertList(listCaptor.capture());
+		verify(tExamResultDetailMapper, never()).insert(any());
+		List<TExamResultDetail> tExamResultDetailList = listCaptor.getValue();
+		assertEquals(QUESTION_COUNT, tExamResultDetailList.size());
+		for (int i = 0; i < QUESTION_COUNT; i++) {
+			assertEquals(10, tExamResultDetailList.get(i).getExamResultId());
+			assertEquals(1000 + i, tExamResultDetailList.get(i).getQuestionId());
+			assertEquals(answer[i], tExamResultDetailList.get(i).getReply());
+		}
+	}
+
+	/**
+	 * Case.1_2 同時に登録された初回の試験結果<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■条件：試験結果の登録時に、同時に登録された試験結果が先に評点対象となった（登録されなかった）<br>
+	 * ■期待値：試験結果を再度登録し、試験結果詳細を一括登録・登録した試験結果を試験統計に反映すること<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		doReturn(false).doAnswer(invocation -> {
+			TExamResult tExamResult = invocation.getArgument(0);
+			tExamResult.setExamResultId(11);
+			return true;
+		}).when(tExamResultMapper).insertWithMarkFlg(any());
+		ExamQuestionForm examQuestionForm = startExam();
+		examQuestionForm.setAnswer(new Short[] { answerNum(0) });
+		assertTrue(examService.setExamQuestionForm(examQuestionForm));
+
+		assertEquals(11, examService.insert(examQuestionForm));
+
+		verify(tExamResultMapper, times(2)).insertWithMarkFlg(any());
+		verify(tExamResultDetailMapper, times(1)).insertList(anyList());
+		verify(tExamSectionStatMapper, times(1)).applyResult(eq(11), any(),
+				eq(Constants.DB_FLG_FALSE));
+	}
+
+	/**
+	 * Case.1_3 回答の差分送信<br>
+	 * <br>
+	 * ■対象メソッド：setExamQuestionForm()、insert()<br>
+	 * ■条件：1問目を回答後、確認画面から戻って2問目のみ回答し、受験IDのみで送信<br>
+	 * ■期待値：両方の回答が保持されること、試験ID・セクションはセッションの値であること、経過時間はサーバーで計測した値であること<br>
+	 */
+	@Test
+	public void testCase1_3() {
+		ExamQuestionForm examQuestionForm = startExam();
+		Short[] answer = new Short[QUESTION_COUNT];
+		answer[0] = answerNum(0);
+		examQuestionForm.setAnswer(answer);
+		assertTrue(examService.setExamQuestionForm(examQuestionForm));
+
+		ExamQuestionForm nextForm = new ExamQuestionForm();
+		nextForm.setAttemptId(examQuestionForm.getAttemptId());
+		nextForm.setAnswer(new Short[] { null, answerNum(1) });
+		nextForm.setTime(Integer.MAX_VALUE);
+		assertTrue(examService.setExamQuestionForm(nextForm));
+		assertEquals(answerNum(0), nextForm.getAnswer()[0]);
+		assertEquals(answerNum(1), nextForm.getAnswer()[1]);
+		assertNull(nextForm.getAnswer()[2]);
+		assertEquals(1, nextForm.getExamId());
+		assertEquals(2, nextForm.getExamSectionId());
+		assertTrue(nextForm.getTime() < 60_000);
+
+		ExamQuestionForm resultForm = new ExamQuestionForm();
+		resultForm.setAttemptId(examQuestionForm.getAttemptId());
+		assertEquals(10, examService.insert(resultForm));
+		ArgumentCaptor<TExamResult> tExamResultCaptor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper).insertWithMarkFlg(tExamResultCaptor.capture());
+		assertEquals((short) 2, tExamResultCaptor.getValue().getScore());
+		assertTrue(tExamResultCaptor.getValue().getTime() < 60_000);
+		assertEquals(2, resultForm.getExamSectionId());
+	}
+
+	/**
+	 * Case.1_4 制限時間の経過<br>
+	 * <br>
+	 * ■対象メソッド：setExamQuestionForm()、insert()<br>
+	 * ■条件：制限時間（30分）の経過後（猶予も経過）に回答を送信<br>
+	 * ■期待値：経過後の回答は反映されないこと、経過時間は制限時間で登録されること<br>
+	 */
+	@Test
+	public void testCase1_4() {
+		String attemptId = examAttemptDto.start(examSnapshotCache.get(1), 3, 2,
+				System.currentTimeMillis() - 40 * 60_000L);
+		ExamQuestionForm examQuestionForm = new ExamQuestionForm();
+		examQuestionForm.setAttemptId(attemptId);
+		examQuestionForm.setAnswer(new Short[] { answerNum(0) });
+		assertTrue(examService.setExamQuestionForm(examQuestionForm));
+		assertNull(examQuestionForm.getAnswer()[0]);
+		assertEquals(30 * 60_000, examQuestionForm.getTime());
+
+		assertEquals(10, examService.insert(examQuestionForm));
+		ArgumentCaptor<TExamResult> tExamResultCaptor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper).insertWithMarkFlg(tExamResultCaptor.capture());
+		assertEquals((short) 0, tExamResultCaptor.getValue().getScore());
+		assertEquals(30 * 60_000, tExamResultCaptor.getValue().getTime());
+	}
+
+	/**
+	 * Case.1_5 二重送信・受験中でない試験<br>
+	 * <br>
+	 * ■対象メソッド：insert()、setExamQuestionForm()<br>
+	 * ■条件：同じ受験IDで2回送信、別の受験IDで送信<br>
+	 * ■期待値：2回目以降は登録されないこと<br>
+	 */
+	@Test
+	public void testCase1_5() {
+		ExamQuestionForm examQuestionForm = startExam();
+		assertEquals(10, examService.insert(examQuestionForm));
+		assertNull(examService.insert(examQuestionForm));
+		assertFalse(examService.setExamQuestionForm(examQuestionForm));
+
+		ExamQuestionForm otherForm = new ExamQuestionForm();
+		otherForm.setAttemptId("other");
+		assertNull(examService.insert(otherForm));
+		verify(tExamResultMapper, times(1)).insertWithMarkFlg(any());
+	}
+
+	/**
+	 * Case.1_6 受験中の試験の編集<br>
+	 * <br>
+	 * ■対象メソッド：setExamQuestionForm()、insert()<br>
+	 * ■条件：受験中に試験の正答が変更され、スナップショットが破棄・再読込された<br>
+	 * ■期待値：受験中の試験は開始時の問題・正答で採点されること、次の受験は変更後の正答で採点されること<br>
+	 */
+	@Test
+	public void testCase1_6() {
+		ExamQuestionForm examQuestionForm = startExam();
+		examQuestionForm.setAnswer(new Short[] { answerNum(0), answerNum(1) });
+		assertTrue(examService.setExamQuestionForm(examQuestionForm));
+
+		// 1問目の正答を変更
+		ExamQuestionDto editedDto = examQuestionDto(QUESTION_COUNT, 1000, 0);
+		editedDto.getQuestionDtoList().get(0).setAnswerNum((short) (answerNum(0) % 4 + 1));
+		editedDto.setLastModifiedDate(new Date(1));
+		when(mExamMapper.getExamQuestion(eq(1), any())).thenReturn(editedDto);
+		examSnapshotCache.evict(1);
+
+		assertTrue(examService.setExamQuestionForm(examQuestionForm));
+		assertEquals(10, examService.insert(examQuestionForm));
+		ArgumentCaptor<TExamResult> tExamResultCaptor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper).insertWithMarkFlg(tExamResultCaptor.capture());
+		assertEquals((short) 2, tExamResultCaptor.getValue().getScore());
+
+		ExamQuestionForm nextForm = startExam();
+		nextForm.setAnswer(new Short[] { answerNum(0), answerNum(1) });
+		assertTrue(examService.setExamQuestionForm(nextForm));
+		assertEquals(10, examService.insert(nextForm));
+		verify(tExamResultMapper, times(2)).insertWithMarkFlg(tExamResultCaptor.capture());
+		assertEquals((short) 1, tExamResultCaptor.getValue().getScore());
+	}
+
+	/**
+	 * Case.2_1 試験統計取得<br>
+	 * <br>
+	 * ■対象メソッド：getExamSectionStat()<br>
+	 * ■条件：評点対象4件（得点10点・20点×2件・50点）、評点対象外1件の試験統計<br>
+	 * ■期待値：平均点が25点であること、得点分布が得点を添字として問題数まで設定されていること<br>
+	 */
+	@Test
+	public void testCase2_1() {
+		TExamSectionStat tExamSectionStat = new TExamSectionStat();
+		tExamSectionStat.setExamSectionId(2);
+		tExamSectionStat.setAttemptCount(5);
+		tExamSectionStat.setMarkCount(4);
+		tExamSectionStat.setMarkScoreSum(100L);
+		tExamSectionStat.setQuestionCount(QUESTION_COUNT);
+		when(tExamSectionStatMapper.findByExamSectionId(2)).thenReturn(tExamSectionStat);
+		List<TExamSectionScore> tExamSectionScoreList = new ArrayList<>();
+		for (int[] scoreCount : new int[][] { { 10, 1 }, { 20, 2 }, { 50, 1 } }) {
+			TExamSectionScore tExamSectionScore = new TExamSectionScore();
+			tExamSectionScore.setExamSectionId(2);
+			tExamSectionScore.setScore((short) scoreCount[0]);
+			tExamSectionScore.setCount(scoreCount[1]);
+			tExamSectionScoreList.add(tExamSectionScore);
+		}
+		when(tExamSectionStatMapper.getScoreList(2)).thenReturn(tExamSectionScoreList);
+
+		ExamSectionStatDto examSectionStatDto = examService.getExamSectionStat(2);
+
+		assertEquals(5, examSectionStatDto.getAttemptCount());
+		assertEquals(4, examSectionStatDto.getMarkCount());
+		assertEquals(25.0, examSectionStatDto.getAverageScore());
+		int[] scoreCount = examSectionStatDto.getScoreCount();
+		assertEquals(QUESTION_COUNT + 1, scoreCount.length);
+		assertEquals(1, scoreCount[10]);
+		assertEquals(2, scoreCount[20]);
+		assertEquals(1, scoreCount[50]);
+		assertEquals(0, scoreCount[0]);
+		assertNull(examService.getExamSectionStat(3));
+	}
+
+	/**
+	 * 受験開始
+	 *
+	 * @return 試験問題画面フォーム
+	 */
+	private ExamQuestionForm startExam() {
+		ExamQuestionForm examQuestionForm = new ExamQuestionForm();
+		examQuestionForm.setExamId(1);
+		examQuestionForm.setSectionId(3);
+		examQuestionForm.setExamSectionId(2);
+		assertTrue(examService.startExamAttempt(examQuestionForm));
+		assertTrue(examService.setExamQuestionForm(examQuestionForm));
+		return examQuestionForm;
+	}
+
+}
@@ -0,0 +1,208 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.BeanUtils;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.util.AttendanceUtil;
+import jp.co.sss.lms.util.TrainingTime;
+
+/**
+ * 勤怠情報（受講生入力）サービス試験<br>
+ * 出退勤打刻を同時に実行したときの、サービスの処理（登録内容の作成と、マッパーの結果による反映有無の判定）を試験する。<br>
+ * マッパーはメモリ上の模擬で、1行に対する条件付きの登録・更新が同時に1件ずつ行われることを前提として与える。<br>
+ * SQL（INSERT ... ON CONFLICT）自体の原子性は、この試験の対象外。<br>
+ */
+public class StudentAttendanceServiceTest {
+
+	/** 受講生数 */
+	private static final int STUDENT_COUNT = 250;
+	/** 受講生1人あたりの同時押下数（二重送信） */
+	private static final int PUNCH_PER_STUDENT = 2;
+
+	@Mock
+	private LoginUserDto loginUserDto;
+	@Mock
+	private AttendanceUtil attendanceUtil;
+	@Mock
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+
+	@InjectMocks
+	private StudentAttendanceService studentAttendanceService;
+
+	/** 研修日 */
+	private final Date trainingDate = new Date(0);
+	/** 打刻中の受講生（スレッド毎のログインユーザー） */
+	private final ThreadLocal<Integer> currentLmsUserId = new ThreadLocal<>();
+	/** 模擬の勤怠情報（LMSユーザーID → 勤怠情報） */
+	private final Map<Integer, TStudentAttendance> table = new ConcurrentHashMap<>();
+
+	private ExecutorService executorService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		executorService = Executors.newFixedThreadPool(STUDENT_COUNT * PUNCH_PER_STUDENT);
+
+		when(loginUserDto.getLmsUserId()).thenAnswer(invocation -> currentLmsUserId.get());
+		when(loginUserDto.getCourseId()).thenReturn(1);
+		when(loginUserDto.getAccountId()).thenReturn(1);
+		when(attendanceUtil.getTrainingDate()).thenReturn(trainingDate);
+		when(attendanceUtil.getStatus(any(), any(), any(), any()))
+				.thenReturn(AttendanceStatusEnum.NONE);
+
+		// 模擬：出勤時刻が未入力の場合のみ登録・更新し、反映した行を返す
+		when(tStudentAttendanceMapper.punchIn(any())).thenAnswer(invocation -> {
+			TStudentAttendance row = invocation.getArgument(0);
+			TStudentAttendance[] result = new TStudentAttendance[1];
+			table.compute(row.getLmsUserId(), (key, current) -> {
+				if (current != null && !current.getTrainingStartTime().isEmpty()) {
+					return current;
+				}
+				result[0] = copy(row);
+				return result[0];
+			});
+			return result[0];
+		});
+		// 模擬：出勤時刻が一致し、退勤時刻が未入力の場合のみ更新し、反映した行を返す
+		when(tStudentAttendanceMapper.punchOut(any())).thenAnswer(invocation -> {
+			TStudentAttendance row = invocation.getArgument(0);
+			TStudentAttendance[] result = new TStudentAttendance[1];
+			table.computeIfPresent(row.getLmsUserId(), (key, current) -> {
+				if (!current.getTrainingStartTime().equals(row.getTrainingStartTime())
+						|| !current.getTrainingEndTime().isEmpty()) {
+					return current;
+				}
+				result[0] = copy(row);
+				return result[0];
+			});
+			return result[0];
+		});
+		when(tStudentAttendanceMapper.findByLmsUserIdAndTrainingDate(anyInt(), any(), any()))
+				.thenAnswer(invocation -> {
+					TStudentAttendance current = table.get(invocation.getArgument(0));
+					return current == null ? null : copy(current);
+				});
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	/**
+	 * Case.1_1 出勤打刻の同時実行時のサービス処理<br>
+	 * <br>
+	 * ■対象メソッド：setPunchIn()<br>
+	 * ■条件：250人の受講生がそれぞれ2回ずつ、合計500件の出勤を同時に打刻する（マッパーは模擬）<br>
+	 * ■期待値：各受講生の研修日・出勤時刻で登録を依頼し、反映ありと判定されるのは1人1回のみ<br>
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		List<TStudentAttendance> results = punchConcurrently(() -> studentAttendanceService.setPunchIn());
+
+		assertEquals(STUDENT_COUNT, table.size());
+		for (int lmsUserId = 1; lmsUserId <= STUDENT_COUNT; lmsUserId++) {
+			TStudentAttendance row = table.get(lmsUserId);
+			assertNotNull(row);
+			assertEquals(trainingDate, row.getTrainingDate());
+			assertFalse(row.getTrainingStartTime().isEmpty());
+		}
+		assertEquals(STUDENT_COUNT, results.stream().filter(r -> r != null).count());
+	}
+
+	/**
+	 * Case.1_2 退勤打刻の同時実行時のサービス処理<br>
+	 * <br>
+	 * ■対象メソッド：setPunchOut()<br>
+	 * ■条件：出勤済みの250人の受講生がそれぞれ2回ずつ、合計500件の退勤を同時に打刻する（マッパーは模擬）<br>
+	 * ■期待値：取得した出勤時刻を条件に退勤時刻の更新を依頼し、反映ありと判定されるのは1人1回のみ<br>
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		for (int lmsUserId = 1; lmsUserId <= STUDENT_COUNT; lmsUserId++) {
+			TStudentAttendance row = new TStudentAttendance();
+			row.setLmsUserId(lmsUserId);
+			row.setTrainingDate(trainingDate);
+			row.setTrainingStartTime(TrainingTime.of(0, 0).toString());
+			row.setTrainingEndTime("");
+			table.put(lmsUserId, row);
+		}
+
+		List<TStudentAttendance> results = punchConcurrently(() -> studentAttendanceService.setPunchOut());
+
+		assertEquals(STUDENT_COUNT, table.size());
+		for (int lmsUserId = 1; lmsUserId <= STUDENT_COUNT; lmsUserId++) {
+			assertFalse(table.get(lmsUserId).getTrainingEndTime().isEmpty());
+		}
+		assertEquals(STUDENT_COUNT, results.stream().filter(r -> r != null).count());
+	}
+
+	/**
+	 * 全受講生の打刻を一斉に実行する
+	 *
+	 * @param punch 打刻処理
+	 * @return 打刻結果
+	 */
+	private List<TStudentAttendance> punchConcurrently(PunchAction punch) throws Exception {
+		CountDownLatch ready = new CountDownLatch(STUDENT_COUNT * PUNCH_PER_STUDENT);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<TStudentAttendance>> futures = new ArrayList<>();
+		for (int lmsUserId = 1; lmsUserId <= STUDENT_COUNT; lmsUserId++) {
+			for (int i = 0; i < PUNCH_PER_STUDENT; i++) {
+				int id = lmsUserId;
+				futures.add(executorService.submit(() -> {
+					currentLmsUserId.set(id);
+					ready.countDown();
+					start.await();
+					return punch.run();
+				}));
+			}
+		}
+		// 全スレッドの準備ができてから一斉に打刻する
+		assertTrue(ready.await(30, TimeUnit.SECONDS));
+		start.countDown();
+		List<TStudentAttendance> results = new ArrayList<>();
+		for (Future<TStudentAttendance> future : futures) {
+			results.add(future.get(30, TimeUnit.SECONDS));
+		}
+		return results;
+	}
+
+	private TStudentAttendance copy(TStudentAttendance source) {
+		TStudentAttendance target = new TStudentAttendance();
+		BeanUtils.copyProperties(source, target);
+		return target;
+	}
+
+	@FunctionalInterface
+	private interface PunchAction {
+		TStudentAttendance run();
+	}
+
+}
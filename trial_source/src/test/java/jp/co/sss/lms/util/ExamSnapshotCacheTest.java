@@ -0,0 +1,168 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static jp.co.sss.lms.util.ExamTestFixture.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.util.ExamSnapshotCache.ExamSnapshot;
+
+/**
+ * 試験問題スナップショットのキャッシュ試験<br>
+ * 同時に試験を開始した場合の読込回数と、スナップショットが呼び出し側の変更の影響を受けないこと、
+ * 試験の変更時の再読込を試験する。<br>
+ */
+public class ExamSnapshotCacheTest {
+
+	/** 同時に開始する受験者数 */
+	private static final int STUDENT_COUNT = 40;
+	/** 問題数 */
+	private static final int QUESTION_COUNT = 10;
+
+	@Mock
+	private MExamMapper mExamMapper;
+
+	@InjectMocks
+	private ExamSnapshotCache examSnapshotCache;
+
+	private ExecutorService executorService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examSnapshotCache, "cacheMinute", 60);
+		executorService = Executors.newFixedThreadPool(STUDENT_COUNT);
+
+		// 読込に時間がかかる試験（読込中に他の受験者が開始する）
+		when(mExamMapper.getExamQuestion(eq(1), any())).thenAnswer(invocation -> {
+			Thread.sleep(200);
+			return examQuestionDto(QUESTION_COUNT, 101, 1);
+		});
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executorService.shutdownNow();
+	}
+
+	/**
+	 * Case.1_1 同時開始時の読込回数<br>
+	 * <br>
+	 * ■対象メソッド：get()<br>
+	 * ■条件：40人が同時に同じ試験を開始<br>
+	 * ■期待値：試験問題の読込が1回であること、全員が同じスナップショットを取得すること<br>
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		CountDownLatch startLatch = new CountDownLatch(1);
+		List<Future<ExamSnapshot>> futureList = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			futureList.add(executorService.submit(() -> {
+				startLatch.await();
+				return examSnapshotCache.get(1);
+			}));
+		}
+		startLatch.countDown();
+
+		ExamSnapshot examSnapshot = futureList.get(0).get(10, TimeUnit.SECONDS);
+		for (Future<ExamSnapshot> future : futureList) {
+			assertSame(examSnapshot, future.get(10, TimeUnit.SECONDS));
+		}
+		verify(mExamMapper, times(1)).getExamQuestion(eq(1), any());
+		assertEquals(QUESTION_COUNT, examSnapshot.size());
+		assertEquals(101, examSnapshot.getQuestionId(0));
+		assertEquals(answerNum(1), examSnapshot.getAnswerNum(1));
+	}
+
+	/**
+	 * Case.1_2 問題DTOリストの変更<br>
+	 * <br>
+	 * ■対象メソッド：get()、createQuestionDtoList()<br>
+	 * ■条件：作成した問題DTOリストを変更し、再度作成<br>
+	 * ■期待値：スナップショットが変わらないこと、問題DTOに正答が含まれないこと<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		ExamSnapshot examSnapshot = examSnapshotCache.get(1);
+		List<QuestionDto> questionDtoList = examSnapshot.createQuestionDtoList();
+		questionDtoList.get(0).setQuestion("変更");
+		questionDtoList.get(0).getAnswerList().set(0, "変更");
+		questionDtoList.remove(1);
+
+		List<QuestionDto> newQuestionDtoList = examSnapshot.createQuestionDtoList();
+		assertEquals(QUESTION_COUNT, newQuestionDtoList.size());
+		assertEquals("問題1", newQuestionDtoList.get(0).getQuestion());
+		assertEquals(List.of("選択肢1-1", "選択肢1-2", "選択肢1-3", "選択肢1-4"),
+				newQuestionDtoList.get(0).getAnswerList());
+		assertNull(newQuestionDtoList.get(0).getAnswerNum());
+	}
+
+	/**
+	 * Case.1_3 スナップショット破棄<br>
+	 * <br>
+	 * ■対象メソッド：evict()、get()<br>
+	 * ■条件：試験の変更後にスナップショットを破棄<br>
+	 * ■期待値：再読込され、新しい版のスナップショットを取得すること<br>
+	 */
+	@Test
+	public void testCase1_3() {
+		ExamSnapshot examSnapshot = examSnapshotCache.get(1);
+		assertSame(examSnapshot, examSnapshotCache.get(1));
+
+		when(mExamMapper.getExamQuestion(eq(1), any()))
+				.thenReturn(examQuestionDto(QUESTION_COUNT, 101, 2));
+		examSnapshotCache.evict(1);
+		ExamSnapshot newExamSnapshot = examSnapshotCache.get(1);
+
+		assertNotSame(examSnapshot, newExamSnapshot);
+		assertEquals(1, examSnapshot.getVersion());
+		assertEquals(2, newExamSnapshot.getVersion());
+		assertNull(examSnapshotCache.get(2));
+	}
+
+	/**
+	 * Case.1_4 保持時間経過後の版の確認<br>
+	 * <br>
+	 * ■対象メソッド：get()<br>
+	 * ■条件：保持時間の経過後に取得（1回目は試験が変更されていない、2回目は試験が変更された）<br>
+	 * ■期待値：変更されていない場合は再読込せず同じスナップショットを取得すること、変更された場合は再読込すること<br>
+	 */
+	@Test
+	public void testCase1_4() {
+		ExamSnapshot examSnapshot = examSnapshotCache.get(1);
+		ReflectionTestUtils.setField(examSnapshotCache, "cacheMinute", -1);
+
+		when(mExamMapper.getExamLastModifiedDate(eq(1), any())).thenReturn(new Date(1));
+		assertSame(examSnapshot, examSnapshotCache.get(1));
+		verify(mExamMapper, times(1)).getExamQuestion(eq(1), any());
+
+		when(mExamMapper.getExamLastModifiedDate(eq(1), any())).thenReturn(new Date(2));
+		when(mExamMapper.getExamQuestion(eq(1), any()))
+				.thenReturn(examQuestionDto(QUESTION_COUNT, 101, 2));
+		ExamSnapshot newExamSnapshot = examSnapshotCache.get(1);
+
+		assertNotSame(examSnapshot, newExamSnapshot);
+		assertEquals(2, newExamSnapshot.getVersion());
+		verify(mExamMapper, times(2)).getExamLastModifiedDate(eq(1), any());
+	}
+
+}
@@ -0,0 +1,67 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.QuestionDto;
+
+/**
+ * 試験の試験データ<br>
+ * 試験問題スナップショットのキャッシュ・試験情報サービス・試験問題分析サービスの試験で共通に使用する試験問題を作成する。<br>
+ */
+public class ExamTestFixture {
+
+	/**
+	 * 正答（問題番号から決める）<br>
+	 * <br>
+	 * ■使用する試験：各試験の回答の作成・採点結果の確認<br>
+	 * ■内容：問題番号（0始まり）を4で割った余り＋1（選択肢1～4を順に繰り返す）<br>
+	 *
+	 * @param index 問題番号（0始まり）
+	 * @return 正答
+	 */
+	public static short answerNum(int index) {
+		return (short) (index % 4 + 1);
+	}
+
+	/**
+	 * 試験問題DTO作成<br>
+	 * <br>
+	 * ■使用する試験：試験問題マッパー（getExamQuestion）の戻り値<br>
+	 * ■内容：試験ID＝1、試験名＝「試験」、制限時間＝30分の試験。
+	 * 問題番号（0始まり）毎に問題ID＝先頭の問題ID＋問題番号、問題＝「問題n」、選択肢＝「選択肢n-1」～「選択肢n-4」（nは1始まり）、
+	 * 正答＝{@link #answerNum(int)}<br>
+	 *
+	 * @param questionCount   問題数
+	 * @param firstQuestionId 先頭の問題ID
+	 * @param version         版（試験・問題の最終更新日時）
+	 * @return 試験問題DTO
+	 */
+	public static ExamQuestionDto examQuestionDto(int questionCount, int firstQuestionId,
+			long version) {
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(1);
+		examQuestionDto.setExamName("試験");
+		examQuestionDto.setLimitTime(30);
+		examQuestionDto.setLastModifiedDate(new Date(version));
+		List<QuestionDto> questionDtoList = new ArrayList<>();
+		for (int i = 0; i < questionCount; i++) {
+			int n = i + 1;
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(firstQuestionId + i);
+			questionDto.setGenreDetailName("ジャンル");
+			questionDto.setQuestion("問題" + n);
+			questionDto.setChoice1("選択肢" + n + "-1");
+			questionDto.setChoice2("選択肢" + n + "-2");
+			questionDto.setChoice3("選択肢" + n + "-3");
+			questionDto.setChoice4("選択肢" + n + "-4");
+			questionDto.setAnswerNum(answerNum(i));
+			questionDtoList.add(questionDto);
+		}
+		examQuestionDto.setQuestionDtoList(questionDtoList);
+		return examQuestionDto;
+	}
+
+}
@@ -0,0 +1,174 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Excelテンプレート直接書込試験<br>
+ * 直接書込したブックをPOIで開き、設定した値・既存のセルの書式・行とセルの並びを試験する。<br>
+ */
+public class XlsxTemplateFillerTest {
+
+	/** 試験用のシート名 */
+	private static final String SHEET_NAME = "試験";
+
+	/**
+	 * Case.1_1 既存のセルの置換・セルと行の追加<br>
+	 * <br>
+	 * ■対象メソッド：setVal()、write()<br>
+	 * ■条件：1行目（B・D列）と5行目（B列）に値・書式のあるテンプレートに、既存のセル・既存の行の前後・行の間と後に値を設定<br>
+	 * ■期待値：設定した値が読めること、既存のセルの書式が変わらないこと、行・セルが行番号・列番号順に並ぶこと<br>
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		XSSFWorkbook templateWb = new XSSFWorkbook();
+		Sheet templateSheet = templateWb.createSheet(SHEET_NAME);
+		CellStyle cellStyle = templateWb.createCellStyle();
+		cellStyle.setDataFormat(templateWb.createDataFormat().getFormat("yyyy/m/d"));
+		Row row1 = templateSheet.createRow(0);
+		row1.createCell(1).setCellValue("置換前");
+		row1.createCell(3).setCellStyle(cellStyle);
+		templateSheet.createRow(4).createCell(1).setCellValue("残す");
+		byte[] template = toBytes(templateWb);
+
+		Map<String, String> sheetPathMap = XlsxTemplateFiller.getFillableSheetPathMap(template);
+		assertNotNull(sheetPathMap);
+		XlsxTemplateFiller xlsxTemplateFiller = new XlsxTemplateFiller(template, sheetPathMap);
+		Date date = new Date();
+		xlsxTemplateFiller.setVal(SHEET_NAME, 0, 0, "A1 & <追加>");
+		xlsxTemplateFiller.setVal(SHEET_NAME, 0, 1, "置換後");
+		xlsxTemplateFiller.setVal(SHEET_NAME, 0, 2, 12);
+		xlsxTemplateFiller.setVal(SHEET_NAME, 0, 3, date);
+		xlsxTemplateFiller.setVal(SHEET_NAME, 2, 0, "1行目\n2行目");
+		xlsxTemplateFiller.setVal(SHEET_NAME, 4, 5, 1.5);
+		xlsxTemplateFiller.setVal(SHEET_NAME, 9, 27, "AB10");
+		xlsxTemplateFiller.setVal(SHEET_NAME, 9, 28, (String) null);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		xlsxTemplateFiller.write(out);
+
+		Workbook wb = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+		Sheet sheet = wb.getSheet(SHEET_NAME);
+		assertEquals("A1 & <追加>", sheet.getRow(0).getCell(0).getStringCellValue());
+		assertEquals("置換後", sheet.getRow(0).getCell(1).getStringCellValue());
+		assertEquals(12, sheet.getRow(0).getCell(2).getNumericCellValue());
+		assertEquals(date.getTime() / 1000, sheet.getRow(0).getCell(3).getDateCellValue().getTime() / 1000);
+		assertEquals("yyyy/m/d", sheet.getRow(0).getCell(3).getCellStyle().getDataFormatString());
+		assertEquals("1行目\n2行目", sheet.getRow(2).getCell(0).getStringCellValue());
+		assertEquals("残す", sheet.getRow(4).getCell(1).getStringCellValue());
+		assertEquals(1.5, sheet.getRow(4).getCell(5).getNumericCellValue());
+		assertEquals("AB10", sheet.getRow(9).getCell(27).getStringCellValue());
+		assertNull(sheet.getRow(9).getCell(28));
+
+		// 行・セルの並び（Excelは順序が異なるシートを開けない）
+		String sheetXml = readEntry(out.toByteArray(), sheetPathMap.get(SHEET_NAME));
+		assertEquals(List.of("1", "3", "5", "10"), findAll(sheetXml, "<row r=\"(\\d+)\""));
+		assertEquals(List.of("A1", "B1", "C1", "D1", "A3", "B5", "F5", "AB10"),
+				findAll(sheetXml, "<c r=\"([A-Z]+\\d+)\""));
+	}
+
+	/**
+	 * Case.1_2 日報テンプレートへの書込<br>
+	 * <br>
+	 * ■対象メソッド：getFillableSheetPathMap()、write()<br>
+	 * ■条件：日報テンプレート（数式無し）の日報シート・フィードバックコメントシートに値を設定<br>
+	 * ■期待値：直接書込できること、設定した値が読めること、他のシートが変わらないこと<br>
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+		byte[] template = readTemplate("static/template/日報_テンプレート.xlsx");
+		Map<String, String> sheetPathMap = XlsxTemplateFiller.getFillableSheetPathMap(template);
+		assertNotNull(sheetPathMap);
+
+		XlsxTemplateFiller xlsxTemplateFiller = new XlsxTemplateFiller(template, sheetPathMap);
+		xlsxTemplateFiller.setVal("日間研修報告書", 3, 1, "受講生");
+		xlsxTemplateFiller.setVal("フィードバックコメント", 7, 10, "コメント");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		xlsxTemplateFiller.write(out);
+
+		Workbook wb = WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+		Workbook templateWb = WorkbookFactory.create(new ByteArrayInputStream(template));
+		assertEquals("受講生", wb.getSheet("日間研修報告書").getRow(3).getCell(1).getStringCellValue());
+		assertEquals("コメント",
+				wb.getSheet("フィードバックコメント").getRow(7).getCell(10).getStringCellValue());
+		assertEquals(templateWb.getNumberOfSheets(), wb.getNumberOfSheets());
+		assertEquals(templateWb.getSheet("日間研修報告書").getNumMergedRegions(),
+				wb.getSheet("日間研修報告書").getNumMergedRegions());
+		assertEquals(readEntry(template, sheetPathMap.get("Sheet2")),
+				readEntry(out.toByteArray(), sheetPathMap.get("Sheet2")));
+	}
+
+	/**
+	 * Case.1_3 数式を含むテンプレート<br>
+	 * <br>
+	 * ■対象メソッド：getFillableSheetPathMap()<br>
+	 * ■条件：数式を含むテンプレート（月次面談シート）、数式を含むシートを作成したテンプレート<br>
+	 * ■期待値：直接書込できない（null）こと<br>
+	 */
+	@Test
+	public void testCase1_3() throws Exception {
+		assertNull(XlsxTemplateFiller
+				.getFillableSheetPathMap(readTemplate("static/template/月次面談シート.xlsx")));
+
+		XSSFWorkbook templateWb = new XSSFWorkbook();
+		Cell cell = templateWb.createSheet(SHEET_NAME).createRow(0).createCell(0);
+		cell.setCellFormula("1+1");
+		assertNull(XlsxTemplateFiller.getFillableSheetPathMap(toBytes(templateWb)));
+	}
+
+	private static byte[] toBytes(Workbook wb) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		wb.write(out);
+		return out.toByteArray();
+	}
+
+	private static byte[] readTemplate(String filePath) throws IOException {
+		try (InputStream in = new ClassPathResource(filePath).getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+	private static String readEntry(byte[] zip, String name) throws IOException {
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+			ZipEntry zipEntry;
+			while ((zipEntry = zis.getNextEntry()) != null) {
+				if (zipEntry.getName().equals(name)) {
+					return new String(zis.readAllBytes(), "UTF-8");
+				}
+			}
+		}
+		fail("エントリが存在しません：" + name);
+		return null;
+	}
+
+	private static List<String> findAll(String text, String regex) {
+		List<String> list = new ArrayList<>();
+		Matcher matcher = Pattern.compile(regex).matcher(text);
+		while (matcher.find()) {
+			list.add(matcher.group(1));
+		}
+		return list;
+	}
+
+}